@@ -0,0 +1,123 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Проигрывание трасс ключей (trace replay) для сравнения hit rate {@link LRUCache}
+ * и {@link WTinyLfuCache}.
+ * Трассы:
+ * <ul>
+ *     <li><b>zipf</b> - ключи с распределением Ципфа (s = 0.9), типичное "горячее" множество.</li>
+ *     <li><b>zipf+scan</b> - та же трасса, в которую периодически вставляются последовательные
+ *     проходы по уникальным ключам, никогда не запрашиваемым повторно.</li>
+ * </ul>
+ * Каждый промах моделирует загрузку: {@code get} вернул null -> {@code put}.
+ * Запуск: `./gradlew hitRateSimulation` или метод {@code main} из IDE.
+ */
+public class CacheHitRateSimulation {
+
+    private static final int KEY_SPACE = 100_000;
+    private static final int REQUESTS = 2_000_000;
+    private static final double ZIPF_EXPONENT = 0.9;
+    private static final int SCAN_PERIOD = 50_000; // Через сколько запросов начинается проход
+    private static final int SCAN_LENGTH = 10_000; // Длина прохода
+
+    /**
+     * Минимальный интерфейс кеша для проигрывания трассы.
+     */
+    private interface Cache {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    public static void main(String[] args) {
+        int[] zipf = zipfTrace(new Random(42));
+        int[] scanMixed = withScans(zipf);
+        System.out.printf("%-12s %-10s %12s %12s%n", "trace", "capacity", "LRU", "W-TinyLFU");
+        for (int capacity : new int[]{500, 2_000, 10_000}) {
+            report("zipf", zipf, capacity);
+            report("zipf+scan", scanMixed, capacity);
+        }
+    }
+
+    private static void report(String name, int[] trace, int capacity) {
+        double lru = hitRate(trace, capacity, c -> {
+            LRUCache<Integer, Integer> cache = new LRUCache<>(c);
+            return new Cache() {
+                @Override
+                public Integer get(Integer key) {
+                    return cache.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    cache.put(key, value);
+                }
+            };
+        });
+        double tinyLfu = hitRate(trace, capacity, c -> {
+            WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(c);
+            return new Cache() {
+                @Override
+                public Integer get(Integer key) {
+                    return cache.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    cache.put(key, value);
+                }
+            };
+        });
+        System.out.printf("%-12s %-10d %11.2f%% %11.2f%%%n", name, capacity, lru * 100, tinyLfu * 100);
+    }
+
+    private static double hitRate(int[] trace, int capacity, Function<Integer, Cache> factory) {
+        Cache cache = factory.apply(capacity);
+        long hits = 0;
+        for (int key : trace) {
+            Integer boxed = key;
+            if (cache.get(boxed) != null) {
+                hits++;
+            } else {
+                cache.put(boxed, boxed);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    /**
+     * Генерирует трассу Ципфа обратным преобразованием по накопленной функции распределения.
+     */
+    private static int[] zipfTrace(Random random) {
+        double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int rank = 1; rank <= KEY_SPACE; rank++) {
+            sum += 1.0 / Math.pow(rank, ZIPF_EXPONENT);
+            cdf[rank - 1] = sum;
+        }
+        int[] trace = new int[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            trace[i] = index >= 0 ? index : -index - 1;
+        }
+        return trace;
+    }
+
+    /**
+     * Заменяет часть запросов последовательными проходами по уникальным ключам (за пределами KEY_SPACE).
+     */
+    private static int[] withScans(int[] base) {
+        int[] trace = base.clone();
+        int scanKey = KEY_SPACE;
+        for (int start = SCAN_PERIOD; start + SCAN_LENGTH <= trace.length; start += SCAN_PERIOD) {
+            for (int i = start; i < start + SCAN_LENGTH; i++) {
+                trace[i] = scanKey++;
+            }
+        }
+        return trace;
+    }
+}
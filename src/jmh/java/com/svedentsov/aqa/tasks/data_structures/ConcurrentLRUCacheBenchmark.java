@@ -0,0 +1,120 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многопоточный JMH-бенчмарк: {@link LRUCache} под глобальным {@code synchronized}
+ * против {@link ConcurrentLRUCache}.
+ * Нагрузка: 90% чтений / 10% записей, ключи со степенным (Zipf-подобным) распределением,
+ * рабочее множество в 4 раза больше емкости кеша.
+ * Масштабирование по ядрам проверяется запуском с разным числом потоков:
+ * `./gradlew jmh -PjmhArgs="ConcurrentLRUCacheBenchmark -t 1"` ... `-t 16`, `-t 32`.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentLRUCacheBenchmark {
+
+    private static final int CAPACITY = 16_384;
+    private static final int KEY_SPACE = CAPACITY * 4;
+    private static final int KEYS_PER_THREAD = 1 << 16; // степень двойки для маски индекса
+
+    @Param({"synchronized", "concurrent"})
+    public String cacheType;
+
+    private Cache cache;
+
+    /**
+     * Минимальный общий интерфейс двух реализаций для бенчмарка.
+     */
+    private interface Cache {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    @Setup
+    public void setUp() {
+        if ("synchronized".equals(cacheType)) {
+            LRUCache<Integer, Integer> lru = new LRUCache<>(CAPACITY);
+            Object lock = new Object();
+            cache = new Cache() {
+                @Override
+                public Integer get(Integer key) {
+                    synchronized (lock) {
+                        return lru.get(key);
+                    }
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    synchronized (lock) {
+                        lru.put(key, value);
+                    }
+                }
+            };
+        } else {
+            ConcurrentLRUCache<Integer, Integer> lru = new ConcurrentLRUCache<>(CAPACITY);
+            cache = new Cache() {
+                @Override
+                public Integer get(Integer key) {
+                    return lru.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    lru.put(key, value);
+                }
+            };
+        }
+        for (int i = 0; i < CAPACITY; i++) {
+            cache.put(i, i);
+        }
+    }
+
+    /**
+     * Поток-локальная последовательность ключей, сгенерированная заранее,
+     * чтобы генерация случайных чисел не попадала в измерение.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        Integer[] keys;
+        int index;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(Thread.currentThread().getId());
+            keys = new Integer[KEYS_PER_THREAD];
+            for (int i = 0; i < keys.length; i++) {
+                // x^3 на [0, 1) дает перекос к малым ключам - "горячее" подмножество
+                double u = random.nextDouble();
+                keys[i] = (int) (u * u * u * KEY_SPACE);
+            }
+        }
+
+        Integer next() {
+            return keys[index++ & (KEYS_PER_THREAD - 1)];
+        }
+    }
+
+    @Benchmark
+    public Integer readHeavy(ThreadKeys keys) {
+        Integer key = keys.next();
+        if (keys.index % 10 == 0) { // Каждая десятая операция - запись
+            cache.put(key, key);
+            return key;
+        }
+        return cache.get(key);
+    }
+
+    @Benchmark
+    public Integer readOnly(ThreadKeys keys) {
+        return cache.get(keys.next());
+    }
+}
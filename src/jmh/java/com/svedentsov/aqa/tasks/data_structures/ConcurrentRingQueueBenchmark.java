@@ -0,0 +1,114 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Групповой JMH-бенчмарк передачи элементов между потоками: {@link ConcurrentRingQueue}
+ * против {@link ArrayBlockingQueue} (одна блокировка) и {@link ConcurrentLinkedQueue} (неограниченная, узел на элемент).
+ * Группа - 2 производителя и 2 потребителя на одной очереди; результат - операции offer и poll в микросекунду.
+ * Другое соотношение сторон: `./gradlew jmh -PjmhArgs="ConcurrentRingQueueBenchmark -tg 4,4"`;
+ * SPSC-специализация допускает только одного производителя и одного потребителя, поэтому не входит
+ * в параметры по умолчанию и запускается отдельно: `-p queueType=ringSpsc,arrayBlocking -tg 1,1`.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentRingQueueBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final Integer ELEMENT = 42;
+
+    @Param({"ring", "arrayBlocking", "concurrentLinked"})
+    public String queueType;
+
+    private Queue queue;
+
+    /**
+     * Минимальный общий интерфейс реализаций для бенчмарка.
+     */
+    private interface Queue {
+        boolean offer(Integer element);
+
+        Integer poll();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        switch (queueType) {
+            case "ring": {
+                ConcurrentRingQueue<Integer> ring = new ConcurrentRingQueue<>(CAPACITY);
+                queue = adapter(ring::offer, ring::poll);
+                break;
+            }
+            case "ringSpsc": {
+                ConcurrentRingQueue<Integer> ring = ConcurrentRingQueue.spsc(CAPACITY);
+                queue = adapter(ring::offer, ring::poll);
+                break;
+            }
+            case "arrayBlocking": {
+                ArrayBlockingQueue<Integer> abq = new ArrayBlockingQueue<>(CAPACITY);
+                queue = adapter(abq::offer, abq::poll);
+                break;
+            }
+            case "concurrentLinked": {
+                ConcurrentLinkedQueue<Integer> clq = new ConcurrentLinkedQueue<>();
+                queue = adapter(clq::offer, clq::poll);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown queue type: " + queueType);
+        }
+    }
+
+    private static Queue adapter(Predicate<Integer> offer, Supplier<Integer> poll) {
+        return new Queue() {
+            @Override
+            public boolean offer(Integer element) {
+                return offer.test(element);
+            }
+
+            @Override
+            public Integer poll() {
+                return poll.get();
+            }
+        };
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(2)
+    public boolean offer(Control control) {
+        // Полная очередь - повтор, пока итерация не остановлена (иначе производитель зависнет в конце итерации)
+        while (!queue.offer(ELEMENT)) {
+            if (control.stopMeasurement) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(2)
+    public Integer poll(Control control) {
+        Integer element;
+        while ((element = queue.poll()) == null) {
+            if (control.stopMeasurement) {
+                return null;
+            }
+            Thread.onSpinWait();
+        }
+        return element;
+    }
+}
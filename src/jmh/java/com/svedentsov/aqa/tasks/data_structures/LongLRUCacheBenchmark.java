@@ -0,0 +1,67 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-сравнение {@link LongLRUCache} и {@code LRUCache<Long, V>} (однопоточно).
+ * Нагрузка: 75% get / 25% put по ключам, рабочее множество которых вдвое больше емкости,
+ * поэтому часть put вытесняет записи.
+ * Нагрузку на GC смотреть профилировщиком JMH:
+ * `./gradlew jmh -PjmhArgs="LongLRUCacheBenchmark -prof gc"` (метрика gc.alloc.rate.norm, байт/операцию).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LongLRUCacheBenchmark {
+
+    private static final int CAPACITY = 65_536;
+    private static final int OPERATIONS = 1 << 20; // степень двойки для маски индекса
+
+    private final String value = "payload";
+    private long[] keys;
+    private int index;
+    private LRUCache<Long, String> boxed;
+    private LongLRUCache<String> primitive;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        keys = new long[OPERATIONS];
+        for (int i = 0; i < keys.length; i++) {
+            // Ключи за пределами кеша Long.valueOf (-128..127), как реальные идентификаторы
+            keys[i] = 1_000_000L + random.nextInt(CAPACITY * 2);
+        }
+        boxed = new LRUCache<>(CAPACITY);
+        primitive = new LongLRUCache<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            boxed.put(keys[i], value);
+            primitive.put(keys[i], value);
+        }
+    }
+
+    @Benchmark
+    public String boxedLruCache() {
+        int i = index++ & (OPERATIONS - 1);
+        long key = keys[i];
+        if ((i & 7) < 2) {
+            return boxed.put(key, value);
+        }
+        return boxed.get(key);
+    }
+
+    @Benchmark
+    public String primitiveLongLruCache() {
+        int i = index++ & (OPERATIONS - 1);
+        long key = keys[i];
+        if ((i & 7) < 2) {
+            return primitive.put(key, value);
+        }
+        return primitive.get(key);
+    }
+}
@@ -0,0 +1,53 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-сравнение {@link MedianFinder} (две {@code PriorityQueue<Integer>}) и {@link PrimitiveMedianFinder.OfInt}.
+ * Одна операция - поток из {@code size} случайных чисел в новый трекер и чтение медианы.
+ * Выделение памяти смотреть профилировщиком JMH:
+ * `./gradlew jmh -PjmhArgs="MedianFinderBenchmark -prof gc"` (метрика gc.alloc.rate.norm, байт/операцию).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MedianFinderBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private int[] samples;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        samples = new int[size];
+        for (int i = 0; i < size; i++) {
+            samples[i] = 1_000 + random.nextInt(1_000_000); // Значения вне кеша Integer.valueOf
+        }
+    }
+
+    @Benchmark
+    public double boxedMedianFinder() {
+        MedianFinder finder = new MedianFinder();
+        for (int sample : samples) {
+            finder.addNum(sample);
+        }
+        return finder.findMedian();
+    }
+
+    @Benchmark
+    public double primitiveMedianFinder() {
+        PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt();
+        for (int sample : samples) {
+            finder.addNum(sample);
+        }
+        return finder.findMedian();
+    }
+}
@@ -0,0 +1,59 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многопоточный JMH-бенчмарк записи задержек: {@link MedianFinder} и {@link QuantileSketch}
+ * под общим {@code synchronized} против {@link ConcurrentQuantileRecorder}.
+ * Одна операция - запись одного значения. Масштабирование проверяется числом потоков:
+ * `./gradlew jmh -PjmhArgs="QuantileRecorderBenchmark -t 1"` ... `-t 16`;
+ * отсутствие выделения памяти на записи - `-prof gc` (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuantileRecorderBenchmark {
+
+    private final Object lock = new Object();
+    private MedianFinder medianFinder;
+    private QuantileSketch sketch;
+    private ConcurrentQuantileRecorder recorder;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        medianFinder = new MedianFinder(); // Растет без ограничений - пересоздается на каждой итерации
+        sketch = new QuantileSketch();
+        recorder = new ConcurrentQuantileRecorder();
+    }
+
+    private static int nextLatency() {
+        return 1_000 + ThreadLocalRandom.current().nextInt(100_000);
+    }
+
+    @Benchmark
+    public void synchronizedMedianFinder() {
+        int value = nextLatency();
+        synchronized (lock) {
+            medianFinder.addNum(value);
+        }
+    }
+
+    @Benchmark
+    public void synchronizedSketch() {
+        int value = nextLatency();
+        synchronized (lock) {
+            sketch.add(value);
+        }
+    }
+
+    @Benchmark
+    public void concurrentRecorder() {
+        recorder.record(nextLatency());
+    }
+}
@@ -0,0 +1,76 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-сравнение {@link ImplementStackQueue.MyStack}/{@link ImplementStackQueue.MyQueue} на {@code LinkedList}
+ * с {@link ImplementStackQueue.IntArrayStack}/{@link ImplementStackQueue.IntRingQueue} на массивах.
+ * Одна операция - {@code size} добавлений и {@code size} извлечений в новую структуру.
+ * Занимаемую память (байт на операцию, т.е. на {@code size} элементов) смотреть профилировщиком JMH:
+ * `./gradlew jmh -PjmhArgs="StackQueueBenchmark -prof gc"` (метрика gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StackQueueBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Benchmark
+    public long linkedListStack() {
+        ImplementStackQueue.MyStack stack = new ImplementStackQueue.MyStack();
+        for (int i = 0; i < size; i++) {
+            stack.push(i + 1_000); // Значения вне кеша Integer.valueOf
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayStack() {
+        ImplementStackQueue.IntArrayStack stack = new ImplementStackQueue.IntArrayStack();
+        for (int i = 0; i < size; i++) {
+            stack.push(i + 1_000);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long linkedListQueue() {
+        ImplementStackQueue.MyQueue queue = new ImplementStackQueue.MyQueue();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i + 1_000);
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long ringQueue() {
+        ImplementStackQueue.IntRingQueue queue = new ImplementStackQueue.IntRingQueue();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i + 1_000);
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многопоточный JMH-бенчмарк стека как пула объектов: одна операция - pop (взять объект) и push (вернуть).
+ * Сравниваются {@link ArrayDeque} под {@code synchronized} (аналог {@link ImplementStackQueue.MyStack} с блокировкой),
+ * {@link ConcurrentLinkedDeque}, {@link TreiberStack} без исключения и с массивом исключения.
+ * Масштабирование по потокам - запуском с разным числом потоков:
+ * `./gradlew jmh -PjmhArgs="TreiberStackBenchmark -t 1"`, затем `-t 2`, `-t 4`, `-t 8`, `-t 16`, `-t 32`.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreiberStackBenchmark {
+
+    private static final int POOLED_OBJECTS = 64;
+
+    @Param({"synchronized", "concurrentLinkedDeque", "treiber", "elimination"})
+    public String stackType;
+
+    private Pool pool;
+
+    /**
+     * Минимальный общий интерфейс реализаций для бенчмарка.
+     */
+    private interface Pool {
+        Object pop();
+
+        void push(Object element);
+    }
+
+    @Setup
+    public void setUp() {
+        switch (stackType) {
+            case "synchronized": {
+                ArrayDeque<Object> deque = new ArrayDeque<>();
+                pool = new Pool() {
+                    @Override
+                    public synchronized Object pop() {
+                        return deque.pollFirst();
+                    }
+
+                    @Override
+                    public synchronized void push(Object element) {
+                        deque.addFirst(element);
+                    }
+                };
+                break;
+            }
+            case "concurrentLinkedDeque": {
+                ConcurrentLinkedDeque<Object> deque = new ConcurrentLinkedDeque<>();
+                pool = new Pool() {
+                    @Override
+                    public Object pop() {
+                        return deque.pollFirst();
+                    }
+
+                    @Override
+                    public void push(Object element) {
+                        deque.addFirst(element);
+                    }
+                };
+                break;
+            }
+            case "treiber":
+            case "elimination": {
+                TreiberStack<Object> stack = "treiber".equals(stackType)
+                        ? new TreiberStack<>()
+                        : new TreiberStack<>(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+                pool = new Pool() {
+                    @Override
+                    public Object pop() {
+                        return stack.pop();
+                    }
+
+                    @Override
+                    public void push(Object element) {
+                        stack.push(element);
+                    }
+                };
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown stack type: " + stackType);
+        }
+        for (int i = 0; i < POOLED_OBJECTS; i++) {
+            pool.push(new Object());
+        }
+    }
+
+    @Benchmark
+    public Object borrowAndReturn() {
+        Object element = pool.pop();
+        if (element == null) {
+            element = new Object(); // Пул исчерпан - как в реальном пуле, создаем новый объект
+        }
+        pool.push(element);
+        return element;
+    }
+}
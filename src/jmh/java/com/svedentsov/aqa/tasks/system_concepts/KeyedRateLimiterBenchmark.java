@@ -0,0 +1,80 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многопоточный JMH-бенчмарк лимита по ключу в форме трафика API-шлюза: равномерно случайные ключи
+ * из {@code keyCount} (по умолчанию 10 млн), одна операция - одна проверка лимита.
+ * Сравниваются {@link KeyedRateLimiter} (одно {@code AtomicLong} на ключ, ленивое удаление) и
+ * наивная карта {@code ConcurrentHashMap<Long, TokenBucketRateLimiter>} без удаления.
+ * Все ключи создаются в {@code @Setup}, ключи-объекты {@code Long} заготовлены заранее, чтобы
+ * не измерять их выделение. Куча под 10 млн ключей задана в {@code @Fork}.
+ * Запуск: `./gradlew jmh -PjmhArgs="KeyedRateLimiterBenchmark -t 8"`; объем памяти на ключ - `-prof gc`
+ * (или heap dump), нагрузка от удаления - параметр idleTimeoutSeconds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class KeyedRateLimiterBenchmark {
+
+    private static final double PERMITS_PER_SECOND = 100;
+    private static final long BURST = 100;
+
+    @Param({"10000000"})
+    public int keyCount;
+
+    @Param({"keyed", "perKeyObject"})
+    public String limiterType;
+
+    @Param({"1", "60"})
+    public int idleTimeoutSeconds;
+
+    private Long[] keys;
+    private Limiter limiter;
+
+    /**
+     * Минимальный общий интерфейс реализаций для бенчмарка.
+     */
+    private interface Limiter {
+        boolean tryAcquire(Long key);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Long[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = ThreadLocalRandom.current().nextLong(); // Как хэши IP/API-ключей
+        }
+        switch (limiterType) {
+            case "keyed": {
+                KeyedRateLimiter<Long> keyed = new KeyedRateLimiter<>(
+                        PERMITS_PER_SECOND, BURST, idleTimeoutSeconds, TimeUnit.SECONDS);
+                limiter = keyed::tryAcquire;
+                break;
+            }
+            case "perKeyObject": {
+                ConcurrentHashMap<Long, TokenBucketRateLimiter> map = new ConcurrentHashMap<>();
+                limiter = key -> map.computeIfAbsent(key, k -> new TokenBucketRateLimiter(PERMITS_PER_SECOND, BURST))
+                        .tryAcquire();
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown limiter type: " + limiterType);
+        }
+        for (Long key : keys) {
+            limiter.tryAcquire(key);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquireRandomKey() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Многопоточный JMH-бенчмарк реализаций {@link RateLimiter}, вызываемых через интерфейс:
+ * одна операция - один {@code tryAcquire()}. Лимит (10 млн/с) подобран так, что часть вызовов
+ * проходит, а часть получает отказ, как у перегруженного API.
+ * Запуск: `./gradlew jmh -PjmhArgs="RateLimiterBenchmark -t 1"`, затем `-t 4`, `-t 16`;
+ * отсутствие выделения памяти на проверке - `-prof gc` (gc.alloc.rate.norm = 0).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int LIMIT_PER_SECOND = 10_000_000;
+
+    @Param({"tokenBucket", "fixedWindow", "slidingLog", "slidingWindowCounter"})
+    public String limiterType;
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        switch (limiterType) {
+            case "tokenBucket":
+                limiter = new TokenBucketRateLimiter(LIMIT_PER_SECOND);
+                break;
+            case "fixedWindow":
+                limiter = new FixedWindowRateLimiter(LIMIT_PER_SECOND, 1, TimeUnit.SECONDS);
+                break;
+            case "slidingLog":
+                limiter = new SlidingLogRateLimiter(LIMIT_PER_SECOND, 1, TimeUnit.SECONDS);
+                break;
+            case "slidingWindowCounter":
+                limiter = new SlidingWindowCounterRateLimiter(LIMIT_PER_SECOND, 1, TimeUnit.SECONDS, 10);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown limiter type: " + limiterType);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire();
+    }
+}
@@ -1,6 +1,16 @@
 package com.svedentsov.aqa.tasks.data_structures;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Решение задачи №23: Проверка сбалансированности скобок.
@@ -10,9 +20,24 @@ import java.util.*;
  * проверяет, правильно ли сбалансированы скобки `()`, `{}`, `[]` в строке `expression`.
  * Пример: `areBracketsBalanced("({[]})")` -> `true`. `areBracketsBalanced("([)]")` -> `false`.
  * `areBracketsBalanced("{[}")` -> `false`. `areBracketsBalanced("()")` -> `true`.
+ * Для больших входных данных (многогигабайтные конфигурации и JSON-дампы) есть потоковые методы
+ * {@code findFirstError} для {@link Reader}, {@link ByteBuffer} и файла: они не требуют всей строки в памяти,
+ * хранят открытые скобки в примитивном стеке байтов и возвращают смещение первой ошибки.
+ * Пример: `findFirstError(ByteBuffer.wrap("([)]".getBytes()))` -> `2`.
  */
 public class BalancedParenthesesCheck {
 
+    /**
+     * Размер фрагмента файла по умолчанию для параллельной проверки.
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 64 * 1024 * 1024;
+    private static final int READ_BUFFER_CHARS = 8192;
+    // Как часто (в байтах) фрагмент проверяет, не найдена ли уже ошибка раньше него
+    private static final int ERROR_BOUND_CHECK_BYTES = 64 * 1024;
+    // Код типа скобки по символу ASCII: 1 - '()', 2 - '[]', 3 - '{}', 0 - не скобка
+    private static final byte[] OPEN_TYPE = new byte[128];
+    private static final byte[] CLOSE_TYPE = new byte[128];
+
     // Карта: Закрывающая скобка -> Ожидаемая открывающая
     private static final Map<Character, Character> BRACKET_PAIRS;
     // Множество всех открывающих скобок для быстрой проверки
@@ -26,6 +51,12 @@ public class BalancedParenthesesCheck {
         pairsMap.put(']', '[');
         BRACKET_PAIRS = Collections.unmodifiableMap(pairsMap);
         OPENING_BRACKETS = Collections.unmodifiableSet(new HashSet<>(pairsMap.values()));
+        OPEN_TYPE['('] = 1;
+        OPEN_TYPE['['] = 2;
+        OPEN_TYPE['{'] = 3;
+        CLOSE_TYPE[')'] = 1;
+        CLOSE_TYPE[']'] = 2;
+        CLOSE_TYPE['}'] = 3;
     }
 
     /**
@@ -71,4 +102,228 @@ public class BalancedParenthesesCheck {
         // Если остались открывающие скобки - несбалансировано.
         return stack.isEmpty();
     }
+
+    /**
+     * Потоково проверяет скобки в символах из {@link Reader} (читает блоками, поток не закрывает).
+     *
+     * @param reader Источник символов (не null).
+     * @return -1, если скобки сбалансированы; иначе смещение (в символах) первой лишней или несовпадающей
+     * закрывающей скобки, а если не закрыты открывающие - длина входных данных.
+     * @throws IOException при ошибке чтения.
+     */
+    public long findFirstError(Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "Reader cannot be null");
+        Scan scan = new Scan(true);
+        char[] buffer = new char[READ_BUFFER_CHARS];
+        long offset = 0;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c < 128 && !scan.accept(c, offset + i)) {
+                    return scan.errorOffset;
+                }
+            }
+            offset += read;
+        }
+        return scan.openers.size > 0 ? offset : -1;
+    }
+
+    /**
+     * Потоково проверяет скобки в байтах от {@code position} до {@code limit} буфера (позиция не меняется).
+     * Подходит для ASCII и UTF-8: байты многобайтовых символов UTF-8 не совпадают с кодами скобок.
+     *
+     * @param buffer Данные (не null).
+     * @return -1, если скобки сбалансированы; иначе смещение первой ошибки относительно {@code position}
+     * (см. {@link #findFirstError(Reader)}).
+     */
+    public long findFirstError(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer cannot be null");
+        Scan scan = scan(buffer, 0, true, new AtomicLong(Long.MAX_VALUE));
+        if (scan.errorOffset >= 0) {
+            return scan.errorOffset;
+        }
+        return scan.openers.size > 0 ? buffer.remaining() : -1;
+    }
+
+    /**
+     * Параллельно проверяет скобки в файле фрагментами по {@link #DEFAULT_CHUNK_BYTES}.
+     *
+     * @param file Путь к файлу (не null).
+     * @return -1 или смещение первой ошибки в байтах (см. {@link #findFirstError(Reader)}).
+     * @throws IOException при ошибке чтения файла.
+     */
+    public long findFirstError(Path file) throws IOException {
+        return findFirstError(file, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Параллельно проверяет скобки в файле, отображенном в память фрагментами.
+     * Каждый фрагмент независимо сводится к паре (закрывающие скобки без пары внутри фрагмента,
+     * открывающие скобки без пары) - внутренние пары сокращаются. Затем сводки объединяются по порядку:
+     * "висящие" открывающие левой части закрываются "висящими" закрывающими правой.
+     * Объединение последовательное, но обрабатывает только непарные скобки, которых обычно мало.
+     * Первый фрагмент проверяется как начало входа: его лишняя закрывающая - сразу ошибка. Найденная
+     * ошибка ограничивает ответ сверху, поэтому фрагменты за ней прекращают работу - иначе файл из одних
+     * закрывающих копил бы в каждом фрагменте по 9 байт на символ.
+     *
+     * @param file       Путь к файлу (не null).
+     * @param chunkBytes Размер фрагмента в байтах (> 0).
+     * @return -1 или смещение первой ошибки в байтах (см. {@link #findFirstError(Reader)}).
+     * @throws IOException при ошибке чтения файла.
+     */
+    public long findFirstError(Path file, int chunkBytes) throws IOException {
+        Objects.requireNonNull(file, "File cannot be null");
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = Math.toIntExact((size + chunkBytes - 1) / chunkBytes);
+            AtomicLong errorBound = new AtomicLong(Long.MAX_VALUE); // Наименьшая известная несомненная ошибка
+            List<Scan> summaries;
+            try {
+                summaries = IntStream.range(0, chunks).parallel()
+                        .mapToObj(i -> scanChunk(channel, (long) i * chunkBytes,
+                                (int) Math.min(chunkBytes, size - (long) i * chunkBytes), i == 0, errorBound))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return combine(summaries, size);
+        }
+    }
+
+    private static Scan scanChunk(FileChannel channel, long start, int length, boolean first, AtomicLong errorBound) {
+        if (start > errorBound.get()) {
+            return new Scan(false); // Ответ уже найден раньше - фрагмент не понадобится при объединении
+        }
+        try {
+            return scan(channel.map(FileChannel.MapMode.READ_ONLY, start, length), start, first, errorBound);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Проверяет байты буфера. Ошибка на смещении X означает, что ответ не больше X: сканирование
+     * останавливается, как только дошло дальше {@code errorBound}, и само понижает его своей ошибкой.
+     * Фрагменты до ошибки никогда не прерываются, поэтому объединение до прерванных сводок не доходит.
+     */
+    private static Scan scan(ByteBuffer buffer, long baseOffset, boolean wholeInput, AtomicLong errorBound) {
+        Scan scan = new Scan(wholeInput);
+        int start = buffer.position();
+        int limit = buffer.limit();
+        for (int i = start; i < limit; i++) {
+            long offset = baseOffset + i - start;
+            if ((i - start) % ERROR_BOUND_CHECK_BYTES == 0 && offset > errorBound.get()) {
+                break;
+            }
+            byte b = buffer.get(i);
+            if (b >= 0 && !scan.accept(b, offset)) { // Отрицательные байты - не ASCII
+                errorBound.accumulateAndGet(offset, Math::min);
+                break;
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Объединяет сводки фрагментов слева направо с общим стеком открывающих скобок.
+     */
+    private static long combine(List<Scan> summaries, long totalLength) {
+        ByteStack open = new ByteStack();
+        for (Scan summary : summaries) {
+            for (int i = 0; i < summary.closerCount; i++) {
+                if (open.size == 0 || open.pop() != summary.closerTypes[i]) {
+                    return summary.closerOffsets[i];
+                }
+            }
+            if (summary.errorOffset >= 0) {
+                return summary.errorOffset; // Ошибка внутри фрагмента - после всех его непарных закрывающих
+            }
+            open.pushAll(summary.openers);
+        }
+        return open.size > 0 ? totalLength : -1;
+    }
+
+    /**
+     * Состояние проверки одного фрагмента (или всего входа при {@code wholeInput}):
+     * стек непарных открывающих, список непарных закрывающих со смещениями и первая несомненная ошибка.
+     */
+    private static final class Scan {
+        final boolean wholeInput; // Закрывающая без пары - сразу ошибка, а не ссылка на предыдущий фрагмент
+        final ByteStack openers = new ByteStack();
+        byte[] closerTypes = new byte[0];
+        long[] closerOffsets = new long[0];
+        int closerCount;
+        long errorOffset = -1;
+
+        Scan(boolean wholeInput) {
+            this.wholeInput = wholeInput;
+        }
+
+        /**
+         * Обрабатывает символ ASCII.
+         *
+         * @return {@code false}, если найдена ошибка и проверку можно прекратить.
+         */
+        boolean accept(int symbol, long offset) {
+            byte open = OPEN_TYPE[symbol];
+            if (open != 0) {
+                openers.push(open);
+                return true;
+            }
+            byte close = CLOSE_TYPE[symbol];
+            if (close == 0) {
+                return true;
+            }
+            if (openers.size > 0) {
+                if (openers.pop() == close) {
+                    return true;
+                }
+                errorOffset = offset; // Несовпадающий тип: открывающая внутри этого же фрагмента
+                return false;
+            }
+            if (wholeInput) {
+                errorOffset = offset;
+                return false;
+            }
+            if (closerCount == closerTypes.length) {
+                int capacity = Math.max(8, closerCount * 2);
+                closerTypes = Arrays.copyOf(closerTypes, capacity);
+                closerOffsets = Arrays.copyOf(closerOffsets, capacity);
+            }
+            closerTypes[closerCount] = close;
+            closerOffsets[closerCount++] = offset;
+            return true;
+        }
+    }
+
+    /**
+     * Растущий стек кодов скобок на массиве {@code byte} - без упаковки {@link Character}.
+     */
+    private static final class ByteStack {
+        private byte[] data = new byte[64];
+        private int size;
+
+        void push(byte value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        byte pop() {
+            return data[--size];
+        }
+
+        void pushAll(ByteStack other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + other.size, data.length * 2));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий сервис фоновой очистки для множества экземпляров {@link SimpleInMemoryCache}.
+ * Описание: {@code new SimpleInMemoryCache<>(ttl, true)} создает собственный поток очистки,
+ * поэтому сотни кешей - это сотни простаивающих потоков. Здесь все кеши регистрируются
+ * в одном сервисе с одним потоком:
+ * <ul>
+ *     <li>Поток просыпается раз в "тик" и вызывает {@link SimpleInMemoryCache#removeExpiredEntries()}
+ *     только у кешей, чей интервал очистки уже наступил. Стоимость очистки одного кеша
+ *     пропорциональна количеству истекших записей (корзины истечения).</li>
+ *     <li>Первый запуск каждого кеша сдвинут на случайную долю интервала, чтобы кеши с одинаковым TTL
+ *     не очищались все в одном тике (работа распределяется по тикам).</li>
+ *     <li>Кеши хранятся по слабым ссылкам: забытый без {@code shutdownCleanup()} кеш
+ *     собирается сборщиком мусора и удаляется из сервиса.</li>
+ * </ul>
+ * Поток создается переданной {@link ThreadFactory}; на Java 21+ можно передать
+ * {@code Thread.ofVirtual().factory()}. Сбой очистки одного кеша передается обработчику
+ * {@link Thread.UncaughtExceptionHandler} потока сервиса и не останавливает очистку остальных.
+ * Пример:
+ * `SimpleInMemoryCache<String, User> cache = SimpleInMemoryCache.<String, User>builder(60_000)`
+ * `        .maintenanceService(CacheMaintenanceService.shared()).build();`
+ */
+public final class CacheMaintenanceService implements AutoCloseable {
+
+    private static final long DEFAULT_TICK_MILLIS = 100;
+
+    private final ScheduledExecutorService scheduler;
+    private final Queue<Registration> registrations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Создает сервис с тиком 100 мс и потоком-демоном.
+     */
+    public CacheMaintenanceService() {
+        this(DEFAULT_TICK_MILLIS, r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true); // Поток не должен мешать завершению JVM
+            t.setName("SimpleCache-Maintenance-" + t.getId());
+            return t;
+        });
+    }
+
+    /**
+     * Создает сервис с заданным тиком и фабрикой потоков.
+     *
+     * @param tickMillis    Период пробуждения потока в мс (> 0).
+     * @param threadFactory Фабрика для единственного потока сервиса (не null).
+     * @throws IllegalArgumentException если tickMillis не положительный.
+     */
+    public CacheMaintenanceService(long tickMillis, ThreadFactory threadFactory) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        Objects.requireNonNull(threadFactory, "Thread factory cannot be null");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        // С фиксированной задержкой: медленный тик не приводит к накоплению пропущенных запусков
+        this.scheduler.scheduleWithFixedDelay(this::runDueMaintenance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Возвращает общий для всего приложения сервис (создается при первом обращении).
+     * Общий сервис живет до завершения JVM - закрывать его не нужно.
+     *
+     * @return Общий сервис очистки.
+     */
+    public static CacheMaintenanceService shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Регистрирует кеш для периодической очистки.
+     *
+     * @param cache          Кеш (не null).
+     * @param intervalMillis Интервал очистки кеша в мс (> 0).
+     * @return Регистрация, которую нужно отменить при остановке кеша.
+     * @throws IllegalStateException если сервис закрыт.
+     */
+    Registration register(SimpleInMemoryCache<?, ?> cache, long intervalMillis) {
+        Objects.requireNonNull(cache, "Cache cannot be null");
+        if (scheduler.isShutdown()) {
+            throw new IllegalStateException("Maintenance service is closed");
+        }
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        long firstRun = System.nanoTime() + intervalNanos / 2
+                + ThreadLocalRandom.current().nextLong(intervalNanos / 2 + 1);
+        Registration registration = new Registration(cache, intervalNanos, firstRun);
+        registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * Возвращает количество зарегистрированных кешей (включая еще не убранные отмененные).
+     *
+     * @return Количество регистраций.
+     */
+    public int registeredCount() {
+        return registrations.size();
+    }
+
+    /**
+     * Останавливает поток сервиса. Зарегистрированные кеши продолжают работать
+     * без фоновой очистки (устаревшие записи удаляются лениво).
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        registrations.clear();
+    }
+
+    /**
+     * Один тик: очищает кеши, чей срок наступил, и убирает отмененные или собранные GC регистрации.
+     */
+    private void runDueMaintenance() {
+        long now = System.nanoTime();
+        for (Iterator<Registration> it = registrations.iterator(); it.hasNext(); ) {
+            Registration registration = it.next();
+            SimpleInMemoryCache<?, ?> cache = registration.cache.get();
+            if (cache == null || registration.cancelled) {
+                it.remove();
+                continue;
+            }
+            if (now - registration.nextRunNanos >= 0) {
+                registration.nextRunNanos = now + registration.intervalNanos;
+                try {
+                    cache.removeExpiredEntries();
+                } catch (OutOfMemoryError e) {
+                    throw e; // Памяти нет у всей JVM - продолжать бессмысленно
+                } catch (Throwable e) {
+                    // Включая StackOverflowError: это сбой одного кеша (например, рекурсивный слушатель)
+                    // Сбой одного кеша не должен останавливать очистку остальных:
+                    // исключение из задачи ScheduledExecutorService отменило бы все будущие тики
+                    reportFailure(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Передает сбой обработчику потока сервиса: заданному фабрикой потоков, иначе
+     * {@link Thread#getDefaultUncaughtExceptionHandler()}, иначе печать в System.err.
+     */
+    private static void reportFailure(Throwable failure) {
+        Thread current = Thread.currentThread();
+        try {
+            current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+        } catch (RuntimeException ignored) {
+            // Сбой самого обработчика тоже не должен отменять тики
+        }
+    }
+
+    /**
+     * Регистрация кеша в сервисе.
+     */
+    static final class Registration {
+        private final WeakReference<SimpleInMemoryCache<?, ?>> cache;
+        private final long intervalNanos;
+        private long nextRunNanos; // Изменяется только потоком сервиса
+        private volatile boolean cancelled;
+
+        private Registration(SimpleInMemoryCache<?, ?> cache, long intervalNanos, long nextRunNanos) {
+            this.cache = new WeakReference<>(cache);
+            this.intervalNanos = intervalNanos;
+            this.nextRunNanos = nextRunNanos;
+        }
+
+        /**
+         * Отменяет регистрацию; сервис уберет ее на ближайшем тике.
+         */
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static final class SharedHolder {
+        static final CacheMaintenanceService INSTANCE = new CacheMaintenanceService();
+    }
+}
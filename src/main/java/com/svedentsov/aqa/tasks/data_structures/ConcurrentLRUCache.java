@@ -0,0 +1,370 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Потокобезопасный вариант {@link LRUCache} для многопоточного доступа.
+ * Описание: {@link LRUCache} наследует {@link java.util.LinkedHashMap} в режиме accessOrder,
+ * поэтому даже {@code get} меняет структуру и требует внешней синхронизации. Здесь данные
+ * хранятся в {@link ConcurrentHashMap}, а порядок использования (LRU-список) поддерживается
+ * отдельно и обновляется "пакетами" под одной блокировкой (идея из Caffeine / ConcurrentLinkedHashMap):
+ * <ul>
+ *     <li>Чтение не берет глобальную блокировку: факт доступа записывается в один из
+ *     полосатых (striped) кольцевых буферов, выбираемый по потоку. Буфер "теряющий" (lossy):
+ *     если он полон, событие просто отбрасывается - это влияет лишь на точность LRU.</li>
+ *     <li>Вставки и удаления попадают в очередь записей, которая обязательно будет применена.
+ *     Очередь ограничена: если записи обгоняют обслуживание (держатель блокировки, например,
+ *     вытеснен планировщиком), писатель дожидается блокировки и обслуживает буферы сам.</li>
+ *     <li>Буферы "проигрываются" в LRU-список тем потоком, который успел захватить
+ *     блокировку через {@code tryLock}, остальные потоки не ждут.</li>
+ * </ul>
+ * Вытеснение приближенно-LRU: при однопоточном использовании порядок совпадает с {@link LRUCache},
+ * при высокой конкуренции часть событий чтения может быть потеряна, а размер кеша может
+ * кратковременно превышать емкость до ближайшего обслуживания буферов.
+ * Пример:
+ * `ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(2);`
+ * `cache.put(1, "one"); cache.put(2, "two"); cache.get(1); cache.put(3, "three");` // Вытесняет 2
+ *
+ * @param <K> Тип ключей кеша.
+ * @param <V> Тип значений кеша.
+ */
+public class ConcurrentLRUCache<K, V> {
+
+    // Количество полос буфера чтения: степень двойки, не меньше числа процессоров
+    private static final int READ_BUFFER_STRIPES =
+            ceilingPowerOfTwo(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    // Количество слотов в одной полосе буфера чтения (степень двойки)
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    // Сколько накопленных событий чтения запускает попытку обслуживания
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 4;
+    // Сколько необслуженных записей заставляет писателя ждать блокировку
+    private static final int WRITE_BUFFER_MAX_PENDING = 16;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ReadBuffer<K, V>[] readBuffers;
+    // Очередь вставок/удалений: в отличие от буфера чтения, события не теряются
+    private final Queue<Node<K, V>> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    // Защищает LRU-список и счетчик linkedSize
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // Сторож двусвязного списка: head.next - самый старый элемент, head.prev - самый свежий
+    private final Node<K, V> head = new Node<>(null, null);
+    private final int capacity;
+    private int linkedSize; // Количество элементов в LRU-списке (под evictionLock)
+
+    /**
+     * Создает потокобезопасный LRU кеш с заданной максимальной емкостью.
+     *
+     * @param capacity Максимальное количество элементов в кеше. Должна быть > 0.
+     * @throws IllegalArgumentException если capacity не положительная.
+     */
+    public ConcurrentLRUCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.data = new ConcurrentHashMap<>((int) Math.ceil(capacity / 0.75f) + 1);
+        @SuppressWarnings("unchecked")
+        ReadBuffer<K, V>[] buffers = (ReadBuffer<K, V>[]) new ReadBuffer<?, ?>[READ_BUFFER_STRIPES];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ReadBuffer<>();
+        }
+        this.readBuffers = buffers;
+        head.prev = head;
+        head.next = head;
+    }
+
+    /**
+     * Возвращает значение по ключу. Не берет глобальную блокировку: доступ лишь
+     * регистрируется в буфере чтения, а LRU-порядок обновляется позже, пакетно.
+     *
+     * @param key Ключ для поиска (не null).
+     * @return Значение, связанное с ключом, или {@code null}, если ключ отсутствует.
+     */
+    public V get(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        V value = node.value;
+        if (!node.alive) {
+            return null; // Узел уже вытеснен, но еще не удален из карты
+        }
+        afterRead(node);
+        return value;
+    }
+
+    /**
+     * Добавляет или обновляет пару ключ-значение. Элемент становится самым недавно
+     * использованным; при превышении емкости вытесняются самые старые элементы.
+     *
+     * @param key   Ключ (не null).
+     * @param value Значение (не null).
+     * @return Предыдущее значение, связанное с ключом, или {@code null}, если ключа не было.
+     */
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        for (; ; ) {
+            Node<K, V> prior = data.get(key);
+            if (prior == null) {
+                Node<K, V> node = new Node<>(key, value);
+                prior = data.putIfAbsent(key, node);
+                if (prior == null) {
+                    afterWrite(node);
+                    return null;
+                }
+            }
+            V oldValue;
+            synchronized (prior) {
+                if (!prior.alive) {
+                    // Узел вытесняется прямо сейчас и вот-вот исчезнет из карты - повторяем
+                    Thread.onSpinWait();
+                    continue;
+                }
+                oldValue = prior.value;
+                prior.value = value;
+            }
+            afterRead(prior);
+            return oldValue;
+        }
+    }
+
+    /**
+     * Удаляет запись по ключу.
+     *
+     * @param key Ключ для удаления (не null).
+     * @return Удаленное значение или {@code null}, если ключа не было.
+     */
+    public V remove(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        V value;
+        synchronized (node) {
+            node.alive = false;
+            value = node.value;
+        }
+        afterWrite(node);
+        return value;
+    }
+
+    /**
+     * Возвращает текущее количество записей. Между обслуживаниями буферов значение
+     * может ненадолго превышать емкость.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Возвращает максимальную емкость кеша.
+     *
+     * @return Емкость кеша.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Принудительно применяет все накопленные события чтения/записи и выполняет вытеснение.
+     * После вызова (при отсутствии конкурирующих записей) {@code size() <= capacity()}.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+        if (!writeBuffer.isEmpty()) {
+            tryMaintenance(); // Запись, чей tryLock проиграл нам после drain
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        ReadBuffer<K, V> buffer = readBuffers[stripeIndex()];
+        if (buffer.offer(node) >= READ_BUFFER_DRAIN_THRESHOLD) {
+            tryMaintenance();
+        }
+    }
+
+    private void afterWrite(Node<K, V> node) {
+        writeBuffer.add(node);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX_PENDING) {
+            // Чтения применяются раньше записей пакета, поэтому длинный пакет записей вытеснил бы
+            // даже только что прочитанные ключи, а размер кеша рос бы без ограничения
+            evictionLock.lock();
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        tryMaintenance();
+    }
+
+    private void tryMaintenance() {
+        // Если блокировку держит другой поток, он обязан проиграть и наше событие:
+        // после unlock очередь записей перепроверяется, поэтому события не "зависают".
+        do {
+            if (!evictionLock.tryLock()) {
+                return;
+            }
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    // Вызывается только под evictionLock
+    private void maintenance() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            buffer.drainTo(this::onAccess);
+        }
+        Node<K, V> node;
+        while ((node = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            onWrite(node);
+        }
+        evict();
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.alive && node.isLinked()) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+
+    private void onWrite(Node<K, V> node) {
+        if (node.alive && !node.isLinked()) {
+            linkLast(node);
+        } else if (!node.alive && node.isLinked()) {
+            unlink(node);
+        }
+    }
+
+    private void evict() {
+        while (linkedSize > capacity) {
+            Node<K, V> eldest = head.next;
+            synchronized (eldest) {
+                eldest.alive = false; // Сначала помечаем, чтобы конкурентный put не обновил "мертвый" узел
+            }
+            unlink(eldest);
+            data.remove(eldest.key, eldest);
+        }
+    }
+
+    private void linkLast(Node<K, V> node) {
+        Node<K, V> last = head.prev;
+        node.prev = last;
+        node.next = head;
+        last.next = node;
+        head.prev = node;
+        linkedSize++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        linkedSize--;
+    }
+
+    private static int stripeIndex() {
+        // Перемешиваем id потока, чтобы соседние id попадали в разные полосы
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (READ_BUFFER_STRIPES - 1);
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(x - 1));
+    }
+
+    /**
+     * Узел кеша: запись карты и одновременно элемент LRU-списка.
+     * Поля prev/next изменяются только под evictionLock; alive/value - под монитором узла.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile boolean alive = true;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean isLinked() {
+            return prev != null;
+        }
+    }
+
+    /**
+     * Одна полоса буфера чтения: кольцевой буфер с множеством писателей и одним читателем.
+     * Писатели резервируют слот через CAS счетчика записи; при неудаче или переполнении
+     * событие отбрасывается. Читатель (держатель evictionLock) продвигает счетчик чтения.
+     * Слот, зарезервированный, но еще не записанный (писатель вытеснен между CAS и записью),
+     * читатель пропускает, а не ждет: иначе до возобновления писателя терялись бы все следующие
+     * события полосы. Опоздавшая запись остается в слоте и будет прочитана на следующем круге
+     * как лишнее событие доступа - это влияет лишь на точность LRU.
+     */
+    private static final class ReadBuffer<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * @return Количество ожидающих событий после записи (0, если событие отброшено).
+         */
+        int offer(Node<K, V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long pending = tail - head;
+            if (pending >= READ_BUFFER_SIZE) {
+                return READ_BUFFER_SIZE; // Буфер полон: событие теряется, но нужно обслуживание
+            }
+            if (!writeCounter.compareAndSet(tail, tail + 1)) {
+                return 0; // Конкуренция за слот: событие теряется
+            }
+            slots.lazySet((int) tail & READ_BUFFER_MASK, node);
+            return (int) pending + 1;
+        }
+
+        void drainTo(Consumer<Node<K, V>> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            while (head < tail) {
+                int index = (int) head & READ_BUFFER_MASK;
+                Node<K, V> node = slots.get(index);
+                head++;
+                if (node == null) {
+                    continue; // Писатель зарезервировал слот, но еще не записал узел - событие теряется
+                }
+                slots.lazySet(index, null);
+                consumer.accept(node);
+            }
+            readCounter = head;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный регистратор значений (задержек) для перцентилей p50/p95/p99 без общей блокировки -
+ * многопоточный вариант {@link QuantileSketch}.
+ * Описание: {@link MedianFinder} и {@link QuantileSketch} не потокобезопасны, и при записи из многих
+ * потоков запросов все они выстраиваются в очередь на внешней блокировке. Здесь счетчики разнесены
+ * по полосам (striping), как в {@link java.util.concurrent.atomic.LongAdder}:
+ * <ul>
+ *     <li>Каждая полоса - {@link AtomicLongArray} счетчиков корзин с той же раскладкой, что и
+ *     в {@link QuantileSketch}; поток пишет в полосу, выбранную по хешу идентификатора потока.
+ *     Полос не меньше числа процессоров, поэтому одновременные записи почти не попадают в одну полосу.</li>
+ *     <li>{@link #record(long)} - один атомарный инкремент без блокировок и без выделения памяти.</li>
+ *     <li>{@link #intervalSnapshot()} забирает счетчики атомарным обменом на 0 и складывает полосы
+ *     в {@link QuantileSketch}. Писатели не останавливаются: значение, записанное во время снимка,
+ *     попадает либо в этот интервал, либо в следующий, но не теряется и не учитывается дважды.</li>
+ * </ul>
+ * Точные min и max не отслеживаются (это потребовало бы CAS на общих полях), поэтому в снимке
+ * они известны с точностью до границ корзины.
+ * Пример:
+ * `ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder();`
+ * `recorder.record(latencyMicros);` // из любого потока
+ * `long p99 = recorder.intervalSnapshot().quantile(0.99);` // периодически, например раз в 10 с
+ */
+public class ConcurrentQuantileRecorder {
+
+    private static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Создает регистратор с точностью 7 бит и числом полос по количеству процессоров.
+     */
+    public ConcurrentQuantileRecorder() {
+        this(DEFAULT_PRECISION_BITS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Создает регистратор.
+     *
+     * @param precisionBits Точность корзин, от 1 до 12 (см. {@link QuantileSketch#QuantileSketch(int)}).
+     * @param stripes       Желаемое число полос (> 0), округляется вверх до степени двойки.
+     *                      Каждая полоса занимает {@code (64 - precisionBits) * 2^precisionBits * 8} байт.
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public ConcurrentQuantileRecorder(int precisionBits, int stripes) {
+        if (precisionBits < 1 || precisionBits > 12) {
+            throw new IllegalArgumentException("Precision bits must be in [1, 12]: " + precisionBits);
+        }
+        if (stripes <= 0 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("Stripes must be in [1, 65536]: " + stripes);
+        }
+        int count = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.precisionBits = precisionBits;
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new AtomicLongArray(QuantileSketch.bucketCount(precisionBits));
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Записывает значение. Безопасно вызывается из любого числа потоков.
+     *
+     * @param value Значение (>= 0).
+     * @throws IllegalArgumentException если значение отрицательное.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        stripes[stripeIndex()].getAndIncrement(QuantileSketch.bucketIndex(value, precisionBits));
+    }
+
+    /**
+     * Возвращает значения, записанные после предыдущего снимка, и начинает новый интервал.
+     *
+     * @return Новый скетч с точностью этого регистратора.
+     */
+    public QuantileSketch intervalSnapshot() {
+        QuantileSketch sketch = new QuantileSketch(precisionBits);
+        intervalSnapshot(sketch);
+        return sketch;
+    }
+
+    /**
+     * Добавляет значения, записанные после предыдущего снимка, в переданный скетч и начинает новый
+     * интервал. Позволяет читателю переиспользовать один скетч ({@link QuantileSketch#reset()}).
+     *
+     * @param target Скетч той же точности (не null).
+     * @throws IllegalArgumentException если точность скетча отличается.
+     */
+    public void intervalSnapshot(QuantileSketch target) {
+        Objects.requireNonNull(target, "Target sketch cannot be null");
+        if (target.precisionBits() != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge sketches with precision " + precisionBits
+                    + " and " + target.precisionBits());
+        }
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < stripe.length(); i++) {
+                // Дешевое чтение отсекает пустые корзины без атомарной записи в чужие строки кеша
+                if (stripe.get(i) != 0) {
+                    long count = stripe.getAndSet(i, 0);
+                    if (count != 0) {
+                        target.addBucketCount(i, count);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает точность регистратора в битах.
+     *
+     * @return Количество бит мантиссы.
+     */
+    public int precisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Возвращает фактическое число полос (степень двойки).
+     *
+     * @return Число полос.
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        // Перемешивание: соседние идентификаторы потоков попадают в разные полосы
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+}
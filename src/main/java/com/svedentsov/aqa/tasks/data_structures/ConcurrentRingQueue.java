@@ -0,0 +1,246 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Ограниченная неблокирующая (lock-free) очередь на кольцевом буфере для передачи задач между потоками -
+ * потокобезопасная альтернатива {@link ImplementStackQueue.MyQueue}.
+ * Описание: схема Д. Вьюкова (bounded MPMC queue) - у каждой ячейки буфера есть номер последовательности:
+ * <ul>
+ *     <li>{@code sequence == pos} - ячейка свободна для записи с позиции {@code pos}; производитель
+ *     захватывает позицию CAS-ом хвоста, пишет элемент и публикует {@code sequence = pos + 1}.</li>
+ *     <li>{@code sequence == pos + 1} - ячейка заполнена; потребитель захватывает позицию CAS-ом головы,
+ *     забирает элемент и освобождает ячейку для следующего круга: {@code sequence = pos + capacity}.</li>
+ *     <li>Производители и потребители соревнуются только между собой (CAS хвоста или головы), а
+ *     друг с другом общаются через ячейки. Голова и хвост выровнены полями-заполнителями, чтобы не
+ *     лежать в одной строке кеша (false sharing).</li>
+ * </ul>
+ * Если производитель или потребитель один, CAS не нужен - для этого есть специализации
+ * {@link #spsc(int)}, {@link #mpsc(int)} и {@link #spmc(int)}; ответственность за то, что сторона
+ * действительно одна, лежит на вызывающем коде.
+ * {@code null} не допускается: {@link #poll()} возвращает {@code null} для пустой очереди.
+ * Пример:
+ * `ConcurrentRingQueue<Runnable> queue = new ConcurrentRingQueue<>(1024);`
+ * `if (!queue.offer(task)) { ... }` // очередь полна
+ * `queue.drain(Runnable::run, 64);`
+ */
+public class ConcurrentRingQueue<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final boolean singleProducer;
+    private final boolean singleConsumer;
+    private final PaddedAtomicLong tail = new PaddedAtomicLong(); // Следующая позиция записи
+    private final PaddedAtomicLong head = new PaddedAtomicLong(); // Следующая позиция чтения
+
+    /**
+     * Создает очередь для многих производителей и многих потребителей (MPMC).
+     *
+     * @param capacity Емкость (> 0), округляется вверх до степени двойки.
+     * @throws IllegalArgumentException если емкость не положительная или больше 2^30.
+     */
+    public ConcurrentRingQueue(int capacity) {
+        this(capacity, false, false);
+    }
+
+    private ConcurrentRingQueue(int capacity, boolean singleProducer, boolean singleConsumer) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in [1, " + MAX_CAPACITY + "]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.singleProducer = singleProducer;
+        this.singleConsumer = singleConsumer;
+    }
+
+    /**
+     * Очередь для одного производителя и одного потребителя (SPSC).
+     */
+    public static <E> ConcurrentRingQueue<E> spsc(int capacity) {
+        return new ConcurrentRingQueue<>(capacity, true, true);
+    }
+
+    /**
+     * Очередь для многих производителей и одного потребителя (MPSC).
+     */
+    public static <E> ConcurrentRingQueue<E> mpsc(int capacity) {
+        return new ConcurrentRingQueue<>(capacity, false, true);
+    }
+
+    /**
+     * Очередь для одного производителя и многих потребителей (SPMC).
+     */
+    public static <E> ConcurrentRingQueue<E> spmc(int capacity) {
+        return new ConcurrentRingQueue<>(capacity, true, false);
+    }
+
+    /**
+     * Добавляет элемент, если есть место.
+     *
+     * @param element Элемент (не null).
+     * @return {@code true}, если элемент добавлен, {@code false}, если очередь полна.
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "Element cannot be null");
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.getAcquire(index) - pos;
+            if (diff == 0) {
+                if (singleProducer) {
+                    tail.lazySet(pos + 1);
+                    break;
+                }
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Ячейка еще не освобождена потребителем с прошлого круга
+            } else {
+                pos = tail.get(); // Другой производитель уже занял позицию
+            }
+        }
+        int index = (int) pos & mask;
+        buffer.setPlain(index, element);
+        sequences.setRelease(index, pos + 1); // Публикация: элемент виден потребителю после sequence
+        return true;
+    }
+
+    /**
+     * Извлекает элемент из начала очереди.
+     *
+     * @return Элемент или {@code null}, если очередь пуста.
+     */
+    public E poll() {
+        return pollMatching(null);
+    }
+
+    /**
+     * Извлекает элемент из начала очереди, только если он удовлетворяет условию. Остальные элементы
+     * не просматриваются: порядок очереди не нарушается.
+     *
+     * @param condition Условие для первого элемента (не null).
+     * @return Извлеченный элемент или {@code null}, если очередь пуста или первый элемент не подходит.
+     */
+    public E pollIf(Predicate<? super E> condition) {
+        return pollMatching(Objects.requireNonNull(condition, "Condition cannot be null"));
+    }
+
+    private E pollMatching(Predicate<? super E> condition) {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.getAcquire(index) - (pos + 1);
+            if (diff == 0) {
+                if (condition != null) {
+                    // Другой потребитель мог уже захватить позицию и обнулить ячейку (или производитель -
+                    // заполнить ее на следующем круге): элемент достоверен, только если голова все еще pos
+                    E candidate = buffer.getAcquire(index);
+                    if (candidate == null || head.get() != pos) {
+                        pos = head.get();
+                        continue;
+                    }
+                    if (!condition.test(candidate)) {
+                        return null;
+                    }
+                }
+                if (singleConsumer) {
+                    head.lazySet(pos + 1);
+                    break;
+                }
+                if (head.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null; // Ячейка еще не заполнена
+            } else {
+                pos = head.get();
+            }
+        }
+        int index = (int) pos & mask;
+        E element = buffer.getPlain(index);
+        buffer.setPlain(index, null); // Не удерживаем ссылку до следующего круга
+        sequences.setRelease(index, pos + mask + 1);
+        return element;
+    }
+
+    /**
+     * Извлекает до {@code max} элементов и передает их обработчику в порядке очереди.
+     *
+     * @param consumer Обработчик (не null).
+     * @param max      Максимальное количество элементов (>= 0).
+     * @return Количество обработанных элементов.
+     */
+    public int drain(Consumer<? super E> consumer, int max) {
+        Objects.requireNonNull(consumer, "Consumer cannot be null");
+        if (max < 0) {
+            throw new IllegalArgumentException("Max cannot be negative: " + max);
+        }
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Возвращает приблизительный размер: при параллельных операциях значение может устареть сразу после чтения.
+     *
+     * @return Количество элементов от 0 до емкости.
+     */
+    public int size() {
+        while (true) {
+            long before = head.get();
+            long currentTail = tail.get();
+            if (head.get() == before) {
+                return (int) Math.max(0, Math.min(capacity(), currentTail - before));
+            }
+        }
+    }
+
+    /**
+     * Проверяет, пуста ли очередь (приблизительно, как {@link #size()}).
+     *
+     * @return {@code true}, если элементов нет.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Возвращает емкость очереди (степень двойки).
+     *
+     * @return Емкость.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * {@link AtomicLong}, дополненный полями до размера больше строки кеша (64 байта): два таких счетчика,
+     * созданные подряд, не попадают в одну строку, и CAS хвоста не сбрасывает строку с головой.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedAtomicLong extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Derived from com.github.benmanes.caffeine.cache.FrequencySketch of the Caffeine library
+ * (https://github.com/ben-manes/caffeine), Copyright 2015 Ben Manes. All Rights Reserved.
+ * Modified: the table is sized once in the constructor (no ensureCapacity), Russian documentation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.svedentsov.aqa.tasks.data_structures;
+
+/**
+ * Компактный Count-Min Sketch с 4-битными счетчиками и периодическим "старением".
+ * Используется политикой допуска TinyLFU (см. {@link WTinyLfuCache}) для оценки
+ * популярности ключа без хранения самих ключей.
+ * Описание:
+ * <ul>
+ *     <li>Таблица - массив {@code long}, каждое слово содержит 16 счетчиков по 4 бита (максимум 15).</li>
+ *     <li>Для ключа выбираются 4 слова (4 хеш-функции) и в каждом - свой счетчик.
+ *     Оценка частоты - минимум из четырех счетчиков.</li>
+ *     <li>После {@code sampleSize} инкрементов все счетчики делятся пополам (aging),
+ *     поэтому старая популярность со временем "забывается".</li>
+ * </ul>
+ * Память: около 8 байт на элемент емкости кеша. Не потокобезопасен.
+ * Основан на {@code FrequencySketch} из библиотеки Caffeine (Ben Manes, Apache License 2.0):
+ * константы хеширования, маски и схема старения взяты оттуда - см. заголовок файла.
+ *
+ * @param <E> Тип элементов, частота которых оценивается.
+ */
+public class FrequencySketch<E> {
+
+    // Разные нечетные множители задают 4 независимые хеш-функции (значения из Caffeine)
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L; // Обнуляет старший бит каждого счетчика после сдвига
+    private static final long ONE_MASK = 0x1111111111111111L;   // Младшие биты всех счетчиков
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Создает скетч для кеша с заданной максимальной емкостью.
+     *
+     * @param maximumSize Ожидаемое количество элементов в кеше (> 0).
+     * @throws IllegalArgumentException если maximumSize не положительное.
+     */
+    public FrequencySketch(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        int tableSize = ceilingPowerOfTwo(Math.max(maximumSize, 16));
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        // Окно выборки в 10 раз больше емкости - рекомендация авторов TinyLFU
+        this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Возвращает оценку частоты элемента (от 0 до 15).
+     *
+     * @param element Элемент (не null).
+     * @return Оценка количества обращений с учетом старения.
+     */
+    public int frequency(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает оценку частоты элемента. Периодически запускает старение всех счетчиков.
+     *
+     * @param element Элемент (не null).
+     */
+    public void increment(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) { // Счетчик насыщается на 15
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Делит все счетчики пополам ("старение"), сохраняя относительный порядок популярности.
+     */
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        // Нечетные счетчики теряют 1/2 при делении - учитываем ошибку округления
+        additions = (additions - (oddCounters >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(x - 1));
+    }
+}
@@ -1,7 +1,9 @@
 package com.svedentsov.aqa.tasks.data_structures;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Решение задачи №35: Реализация базового Стека и Очереди.
@@ -10,7 +12,8 @@ import java.util.NoSuchElementException;
  * Задание: Реализуйте класс MyStack, используя java.util.LinkedList или массив,
  * который будет иметь методы push(int value), pop() (возвращает и удаляет
  * верхний элемент), peek() (возвращает верхний элемент без удаления) и isEmpty().
- * Дополнительно реализован MyQueue.
+ * Дополнительно реализован MyQueue, а также примитивные версии на массивах
+ * {@link IntArrayStack} и {@link IntRingQueue} без упаковки и узлов списка.
  */
 public class ImplementStackQueue {
 
@@ -151,4 +154,287 @@ public class ImplementStackQueue {
             return storage.size();
         }
     }
+
+    /**
+     * Стек {@code int} на растущем массиве - альтернатива {@link MyStack} с тем же API.
+     * {@link MyStack} хранит каждый элемент как узел {@link LinkedList} плюс упакованный {@link Integer}
+     * (~40 байт на элемент и переходы по указателям); здесь элемент занимает 4 байта подряд в массиве.
+     * Массив растет удвоением и не уменьшается. Не является потокобезопасным (non-thread-safe).
+     */
+    public static class IntArrayStack {
+        private static final int DEFAULT_CAPACITY = 16;
+
+        private int[] elements;
+        private int size;
+
+        /**
+         * Создает пустой стек.
+         */
+        public IntArrayStack() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Создает пустой стек, заранее выделяя память под {@code initialCapacity} элементов.
+         *
+         * @param initialCapacity Начальная емкость (>= 0).
+         * @throws IllegalArgumentException если емкость отрицательная.
+         */
+        public IntArrayStack(int initialCapacity) {
+            if (initialCapacity < 0) {
+                throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+            }
+            elements = new int[initialCapacity];
+        }
+
+        /**
+         * Добавляет элемент на вершину стека.
+         *
+         * @param value Значение для добавления.
+         */
+        public void push(int value) {
+            if (size == elements.length) {
+                grow(size + 1);
+            }
+            elements[size++] = value;
+        }
+
+        /**
+         * Добавляет элементы по порядку: последний элемент массива окажется на вершине.
+         *
+         * @param values Значения для добавления (не null).
+         */
+        public void pushAll(int... values) {
+            Objects.requireNonNull(values, "Values cannot be null");
+            if (size + values.length > elements.length) {
+                grow(size + values.length);
+            }
+            System.arraycopy(values, 0, elements, size, values.length);
+            size += values.length;
+        }
+
+        /**
+         * Удаляет и возвращает элемент с вершины стека.
+         *
+         * @return Элемент с вершины стека.
+         * @throws NoSuchElementException если стек пуст.
+         */
+        public int pop() {
+            if (isEmpty()) {
+                throw new NoSuchElementException("Cannot pop from an empty stack.");
+            }
+            return elements[--size];
+        }
+
+        /**
+         * Возвращает элемент с вершины стека без его удаления.
+         *
+         * @return Элемент с вершины стека.
+         * @throws NoSuchElementException если стек пуст.
+         */
+        public int peek() {
+            if (isEmpty()) {
+                throw new NoSuchElementException("Cannot peek into an empty stack.");
+            }
+            return elements[size - 1];
+        }
+
+        /**
+         * Извлекает до {@code target.length} элементов в порядке pop (от вершины к основанию).
+         *
+         * @param target Массив для элементов (не null).
+         * @return Количество извлеченных элементов.
+         */
+        public int drainTo(int[] target) {
+            Objects.requireNonNull(target, "Target cannot be null");
+            int count = Math.min(size, target.length);
+            for (int i = 0; i < count; i++) {
+                target[i] = elements[size - 1 - i];
+            }
+            size -= count;
+            return count;
+        }
+
+        /**
+         * Проверяет, пуст ли стек.
+         *
+         * @return {@code true}, если стек пуст, {@code false} иначе.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Возвращает количество элементов в стеке.
+         *
+         * @return Размер стека.
+         */
+        public int size() {
+            return size;
+        }
+
+        private void grow(int minCapacity) {
+            elements = Arrays.copyOf(elements, Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length * 2)));
+        }
+
+        /**
+         * Возвращает строковое представление стека (для отладки), как у {@link MyStack}.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("IntArrayStack (top -> bottom): [");
+            for (int i = size - 1; i >= 0; i--) {
+                sb.append(elements[i]);
+                if (i > 0) {
+                    sb.append(", ");
+                }
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    /**
+     * Очередь {@code int} на кольцевом буфере - альтернатива {@link MyQueue} с тем же API.
+     * Емкость - степень двойки, поэтому переход через конец буфера - маска {@code & (length - 1)}
+     * вместо деления. При заполнении буфер удваивается, и элементы переписываются подряд от начала.
+     * Не является потокобезопасным (non-thread-safe).
+     */
+    public static class IntRingQueue {
+        private static final int DEFAULT_CAPACITY = 16;
+        private static final int MAX_CAPACITY = 1 << 30;
+
+        private int[] elements;
+        private int head; // Индекс первого элемента
+        private int size;
+
+        /**
+         * Создает пустую очередь.
+         */
+        public IntRingQueue() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Создает пустую очередь; емкость округляется вверх до степени двойки.
+         *
+         * @param initialCapacity Начальная емкость (>= 0).
+         * @throws IllegalArgumentException если емкость отрицательная или больше 2^30.
+         */
+        public IntRingQueue(int initialCapacity) {
+            if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Capacity must be in [0, " + MAX_CAPACITY + "]: " + initialCapacity);
+            }
+            elements = new int[powerOfTwoAtLeast(Math.max(1, initialCapacity))];
+        }
+
+        /**
+         * Добавляет элемент в конец очереди.
+         *
+         * @param value Значение для добавления.
+         */
+        public void enqueue(int value) {
+            if (size == elements.length) {
+                grow(size + 1);
+            }
+            elements[(head + size) & (elements.length - 1)] = value;
+            size++;
+        }
+
+        /**
+         * Добавляет элементы в конец очереди по порядку (аналог {@link IntArrayStack#pushAll(int...)}).
+         *
+         * @param values Значения для добавления (не null).
+         */
+        public void enqueueAll(int... values) {
+            Objects.requireNonNull(values, "Values cannot be null");
+            if (size + values.length > elements.length) {
+                grow(size + values.length);
+            }
+            int tail = (head + size) & (elements.length - 1);
+            int first = Math.min(values.length, elements.length - tail); // До конца буфера
+            System.arraycopy(values, 0, elements, tail, first);
+            System.arraycopy(values, first, elements, 0, values.length - first);
+            size += values.length;
+        }
+
+        /**
+         * Удаляет и возвращает элемент из начала очереди.
+         *
+         * @return Элемент из начала очереди.
+         * @throws NoSuchElementException если очередь пуста.
+         */
+        public int dequeue() {
+            if (isEmpty()) {
+                throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+            }
+            int value = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return value;
+        }
+
+        /**
+         * Возвращает элемент из начала очереди без его удаления.
+         *
+         * @return Элемент из начала очереди.
+         * @throws NoSuchElementException если очередь пуста.
+         */
+        public int peek() {
+            if (isEmpty()) {
+                throw new NoSuchElementException("Cannot peek into an empty queue.");
+            }
+            return elements[head];
+        }
+
+        /**
+         * Извлекает до {@code target.length} элементов в порядке очереди.
+         *
+         * @param target Массив для элементов (не null).
+         * @return Количество извлеченных элементов.
+         */
+        public int drainTo(int[] target) {
+            Objects.requireNonNull(target, "Target cannot be null");
+            int count = Math.min(size, target.length);
+            int first = Math.min(count, elements.length - head);
+            System.arraycopy(elements, head, target, 0, first);
+            System.arraycopy(elements, 0, target, first, count - first);
+            head = (head + count) & (elements.length - 1);
+            size -= count;
+            return count;
+        }
+
+        /**
+         * Проверяет, пуста ли очередь.
+         *
+         * @return {@code true}, если очередь пуста, {@code false} иначе.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Возвращает количество элементов в очереди.
+         *
+         * @return Размер очереди.
+         */
+        public int size() {
+            return size;
+        }
+
+        private void grow(int minCapacity) {
+            if (minCapacity > MAX_CAPACITY) {
+                throw new IllegalStateException("Queue capacity exceeded: " + minCapacity);
+            }
+            int[] grown = new int[powerOfTwoAtLeast(Math.max(minCapacity, elements.length * 2))];
+            int count = drainTo(grown); // Элементы подряд с нулевого индекса
+            elements = grown;
+            head = 0;
+            size = count;
+        }
+
+        private static int powerOfTwoAtLeast(int value) {
+            int highest = Integer.highestOneBit(value);
+            return highest == value ? value : highest << 1;
+        }
+    }
 }
@@ -1,7 +1,18 @@
 package com.svedentsov.aqa.tasks.data_structures;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * Решение задачи №61: Реализация LRU Cache (Least Recently Used Cache).
@@ -22,13 +33,23 @@ import java.util.Map;
  * `cache.get(2);`       // Возвращает null (или -1 в задачах LeetCode)
  * `cache.get(1);`       // Возвращает 1
  * `cache.get(3);`       // Возвращает 3
+ * <p>
+ * Дополнительно поддерживается ограничение по "весу" (например, по размеру значений в байтах)
+ * вместо количества записей: см. {@link #LRUCache(long, ToLongFunction)}.
  *
  * @param <K> Тип ключей кеша.
  * @param <V> Тип значений кеша.
  */
 public class LRUCache<K, V> extends LinkedHashMap<K, V> {
 
+    private static final long serialVersionUID = 1L;
+
     private final int capacity;
+    // Режим ограничения по весу: weigher != null. Функция веса обычно не сериализуема (лямбда),
+    // поэтому не сериализуется: восстановленная копия работает без ограничения по весу
+    private final transient ToLongFunction<? super V> weigher;
+    private final long maximumWeight;
+    private long totalWeight;
 
     /**
      * Создает LRU кеш с заданной максимальной емкостью.
@@ -41,11 +62,46 @@ public class LRUCache<K, V> extends LinkedHashMap<K, V> {
         // initialCapacity: вычисляется для уменьшения рехеширований, с учетом loadFactor.
         // loadFactor: 0.75f (стандартный)
         // accessOrder: true - Ключевой параметр! Включает режим порядка доступа (LRU).
-        super((int) Math.ceil(capacity / 0.75f) + 1, 0.75f, true);
+        super(initialCapacity(capacity), 0.75f, true);
+        this.capacity = capacity;
+        this.weigher = null;
+        this.maximumWeight = capacity;
+    }
+
+    /**
+     * Создает LRU кеш, ограниченный суммарным весом значений, а не количеством записей.
+     * Вес каждого значения вычисляется функцией {@code weigher} при добавлении (например,
+     * {@code byte[]::length}). После вставки или обновления самые старые записи вытесняются,
+     * пока суммарный вес не станет {@code <= maximumWeight}. Запись тяжелее {@code maximumWeight}
+     * не сохраняется (прежнее значение ее ключа удаляется), остальные записи при этом не вытесняются.
+     * Вес значения не должен меняться, пока оно находится в кеше.
+     * <p>
+     * В этом режиме значения не могут быть null, представления {@link #keySet()},
+     * {@link #values()}, {@link #entrySet()} доступны только для чтения (включая {@code Entry.setValue}),
+     * {@link #replaceAll} пересчитывает вес, а методы {@code compute*}/{@code merge} не поддерживаются -
+     * иначе вес нельзя отследить. Функция веса не сериализуется: десериализованная копия содержит
+     * те же записи, но не ограничена ни по весу, ни по количеству.
+     *
+     * @param maximumWeight Максимальный суммарный вес записей (> 0).
+     * @param weigher       Функция веса значения (не null, результат >= 0).
+     * @throws IllegalArgumentException если maximumWeight не положительный.
+     */
+    public LRUCache(long maximumWeight, ToLongFunction<? super V> weigher) {
+        super(16, 0.75f, true);
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+        }
+        this.capacity = Integer.MAX_VALUE;
+        this.weigher = Objects.requireNonNull(weigher, "Weigher cannot be null");
+        this.maximumWeight = maximumWeight;
+    }
+
+    private static int initialCapacity(int capacity) {
+        // Проверка до вызова super(): иначе LinkedHashMap выбросит свое исключение для отрицательной емкости
         if (capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be positive: " + capacity);
         }
-        this.capacity = capacity;
+        return (int) Math.ceil(capacity / 0.75f) + 1;
     }
 
     /**
@@ -74,9 +130,176 @@ public class LRUCache<K, V> extends LinkedHashMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        // LinkedHashMap сам обрабатывает обновление порядка и вызывает removeEldestEntry
-        // после добавления элемента.
-        return super.put(key, value);
+        if (!isWeighted()) {
+            // LinkedHashMap сам обрабатывает обновление порядка и вызывает removeEldestEntry
+            // после добавления элемента.
+            return super.put(key, value);
+        }
+        Objects.requireNonNull(value, "Value cannot be null in weighted mode");
+        long weight = weigh(value);
+        if (weight > maximumWeight) {
+            // Вытеснение по старшинству освободило бы весь кеш, а затем удалило бы и эту запись
+            return remove(key);
+        }
+        // Вес добавляется до super.put, т.к. removeEldestEntry вызывается внутри него
+        totalWeight += weight;
+        V oldValue = super.put(key, value);
+        if (oldValue != null) {
+            // Обновление существующего ключа: removeEldestEntry не вызывался, вытесняем сами
+            totalWeight -= weigh(oldValue);
+            evictByWeight();
+        }
+        return oldValue;
+    }
+
+    /**
+     * Возвращает текущий суммарный вес записей. Без функции веса каждая запись весит 1,
+     * и результат совпадает с {@link #size()}.
+     *
+     * @return Суммарный вес записей.
+     */
+    public long weightedSize() {
+        return isWeighted() ? totalWeight : size();
+    }
+
+    /**
+     * Возвращает максимальный суммарный вес (в режиме по количеству - емкость).
+     *
+     * @return Максимальный вес.
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (!isWeighted()) {
+            super.putAll(m);
+            return;
+        }
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        if (!isWeighted()) {
+            return super.putIfAbsent(key, value);
+        }
+        V existing = get(key);
+        return existing != null ? existing : put(key, value);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (!isWeighted()) {
+            return super.replace(key, value);
+        }
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (!isWeighted()) {
+            return super.replace(key, oldValue, newValue);
+        }
+        if (containsKey(key) && Objects.equals(get(key), oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V removed = super.remove(key);
+        if (removed != null && isWeighted()) {
+            totalWeight -= weigh(removed);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!isWeighted()) {
+            return super.remove(key, value);
+        }
+        // Вычитается вес хранимого значения: равное по equals значение аргумента может весить иначе
+        V stored = super.get(key);
+        if (stored == null || !Objects.equals(stored, value) || !super.remove(key, value)) {
+            return false;
+        }
+        totalWeight -= weigh(stored);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        totalWeight = 0;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return isWeighted() ? readOnlyView().keySet() : super.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return isWeighted() ? readOnlyView().values() : super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return isWeighted() ? readOnlyView().entrySet() : super.entrySet();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        if (!isWeighted()) {
+            super.replaceAll(function);
+            return;
+        }
+        Objects.requireNonNull(function, "Function cannot be null");
+        List<K> oversized = new ArrayList<>();
+        super.replaceAll((key, value) -> {
+            V replacement = Objects.requireNonNull(function.apply(key, value), "Value cannot be null in weighted mode");
+            long weight = weigh(replacement);
+            if (weight > maximumWeight) {
+                oversized.add(key); // Удаляется после обхода, как в put
+            }
+            totalWeight += weight - weigh(value);
+            return replacement;
+        });
+        for (K key : oversized) {
+            remove(key);
+        }
+        evictByWeight();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        requireCountMode("compute");
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        requireCountMode("computeIfAbsent");
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        requireCountMode("computeIfPresent");
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        requireCountMode("merge");
+        return super.merge(key, value, remappingFunction);
     }
 
     /**
@@ -86,10 +309,63 @@ public class LRUCache<K, V> extends LinkedHashMap<K, V> {
      *
      * @param eldest Самая старая (наименее недавно использованная) запись в кеше.
      * @return {@code true}, если текущий размер кеша `size()` превышает емкость `capacity`.
+     * В режиме по весу вытеснение выполняется прямо здесь, и метод всегда возвращает {@code false}.
      */
     @Override
     protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (isWeighted()) {
+            // Может потребоваться удалить несколько записей - удаляем сами и возвращаем false
+            evictByWeight();
+            return false;
+        }
         // Удаляем самый старый элемент, если размер превысил емкость
         return size() > capacity;
     }
+
+    /**
+     * Вытесняет записи с самого старого конца, пока суммарный вес превышает максимум.
+     */
+    private void evictByWeight() {
+        while (totalWeight > maximumWeight && !isEmpty()) {
+            Iterator<K> eldestFirst = super.keySet().iterator();
+            remove(eldestFirst.next());
+        }
+    }
+
+    private long weigh(V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must be non-negative: " + weight);
+        }
+        return weight;
+    }
+
+    /**
+     * Представление только для чтения поверх собственных представлений {@link LinkedHashMap}:
+     * его записи отклоняют {@code setValue}, который изменил бы значение в обход веса.
+     * {@code Collections.unmodifiableMap(this)} не подходит - он вызвал бы переопределенный {@link #entrySet()}.
+     */
+    private Map<K, V> readOnlyView() {
+        return Collections.unmodifiableMap(new AbstractMap<K, V>() {
+            @Override
+            public Set<Map.Entry<K, V>> entrySet() {
+                return LRUCache.super.entrySet();
+            }
+
+            @Override
+            public int size() {
+                return LRUCache.this.size();
+            }
+        });
+    }
+
+    private boolean isWeighted() {
+        return weigher != null;
+    }
+
+    private void requireCountMode(String operation) {
+        if (isWeighted()) {
+            throw new UnsupportedOperationException(operation + " is not supported in weighted mode");
+        }
+    }
 }
@@ -0,0 +1,288 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * LRU кеш с примитивными ключами {@code long} - вариант {@link LRUCache} без упаковки (boxing).
+ * Описание: {@code LRUCache<Long, V>} на каждое обращение создает {@link Long}, а на каждую
+ * вставку - узел {@code LinkedHashMap.Entry}. Здесь все данные хранятся в параллельных массивах
+ * фиксированного размера, поэтому в установившемся режиме {@code get}/{@code put} не выделяют память:
+ * <ul>
+ *     <li>Записи: {@code keys[i]}, {@code values[i]} и индексы соседей {@code prev[i]}/{@code next[i]}
+ *     в списке давности (вместо ссылок - индексы {@code int}).</li>
+ *     <li>Хеш-таблица: открытая адресация с линейным пробированием, {@code table[slot]} хранит
+ *     индекс записи + 1 (0 - пустой слот). Заполненность не выше 50%.
+ *     Удаление - обратным сдвигом (backward shift), без "надгробий".</li>
+ *     <li>Освободившиеся индексы записей переиспользуются через список свободных.</li>
+ * </ul>
+ * Значения null не допускаются ({@code null} из {@link #get(long)} означает промах).
+ * Не является потокобезопасным (non-thread-safe), как и {@link LRUCache}.
+ * Пример:
+ * `LongLRUCache<String> cache = new LongLRUCache<>(2);`
+ * `cache.put(1L, "a"); cache.put(2L, "b"); cache.get(1L); cache.put(3L, "c");` // Вытесняет 2
+ *
+ * @param <V> Тип значений кеша.
+ */
+public class LongLRUCache<V> {
+
+    private static final int NIL = -1;
+
+    private final int capacity;
+    // Записи (индекс записи 0..capacity-1)
+    private final long[] keys;
+    private final Object[] values;
+    private final int[] prev;
+    private final int[] next;
+    // Хеш-таблица: индекс записи + 1, 0 - пусто
+    private final int[] table;
+    private final int tableMask;
+
+    private int head = NIL; // Самая старая запись (LRU)
+    private int tail = NIL; // Самая свежая запись (MRU)
+    private int freeList = NIL; // Освобожденные через remove индексы (связаны через next)
+    private int allocated; // Сколько индексов выдано хотя бы раз
+    private int size;
+
+    /**
+     * Создает кеш с заданной максимальной емкостью. Вся память выделяется сразу.
+     *
+     * @param capacity Максимальное количество элементов. Должна быть > 0.
+     * @throws IllegalArgumentException если capacity не положительная или слишком велика.
+     */
+    public LongLRUCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (capacity > (1 << 29)) {
+            throw new IllegalArgumentException("Capacity is too large: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1; // степень двойки >= 2 * capacity
+        this.table = new int[tableSize];
+        this.tableMask = tableSize - 1;
+    }
+
+    /**
+     * Возвращает значение по ключу и делает запись самой свежей.
+     *
+     * @param key Ключ.
+     * @return Значение или {@code null}, если ключ отсутствует.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        int index = table[slot] - 1;
+        moveToTail(index);
+        return (V) values[index];
+    }
+
+    /**
+     * Добавляет или обновляет значение. Запись становится самой свежей; если кеш полон,
+     * самая старая запись вытесняется, а ее индекс переиспользуется.
+     *
+     * @param key   Ключ.
+     * @param value Значение (не null).
+     * @return Предыдущее значение или {@code null}, если ключа не было.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            int index = table[slot] - 1;
+            V oldValue = (V) values[index];
+            values[index] = value;
+            moveToTail(index);
+            return oldValue;
+        }
+        int index;
+        if (size == capacity) {
+            index = head; // Переиспользуем индекс вытесняемой записи
+            deleteFromTable(findSlot(keys[index]));
+            unlink(index);
+            size--;
+        } else if (freeList != NIL) {
+            index = freeList;
+            freeList = next[index];
+        } else {
+            index = allocated++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        linkLast(index);
+        insertIntoTable(key, index);
+        size++;
+        return null;
+    }
+
+    /**
+     * Удаляет запись по ключу.
+     *
+     * @param key Ключ.
+     * @return Удаленное значение или {@code null}, если ключа не было.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        int index = table[slot] - 1;
+        V oldValue = (V) values[index];
+        deleteFromTable(slot);
+        unlink(index);
+        values[index] = null; // Не удерживаем значение от сборщика мусора
+        next[index] = freeList;
+        freeList = index;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Проверяет наличие ключа, не изменяя порядок использования.
+     *
+     * @param key Ключ.
+     * @return {@code true}, если ключ присутствует.
+     */
+    public boolean containsKey(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Возвращает ключи от самого старого к самому свежему (для отладки и тестов).
+     *
+     * @return Новый массив ключей в порядке LRU -> MRU.
+     */
+    public long[] keysInAccessOrder() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int index = head; index != NIL; index = next[index]) {
+            result[i++] = keys[index];
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, null);
+        head = NIL;
+        tail = NIL;
+        freeList = NIL;
+        allocated = 0;
+        size = 0;
+    }
+
+    /**
+     * Возвращает текущее количество записей.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает максимальную емкость кеша.
+     *
+     * @return Емкость кеша.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // --- Хеш-таблица с линейным пробированием ---
+
+    private int findSlot(long key) {
+        int slot = home(key);
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & tableMask) {
+            if (keys[entry - 1] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertIntoTable(long key, int index) {
+        int slot = home(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & tableMask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Удаление обратным сдвигом: последующие записи кластера сдвигаются в освободившийся слот,
+     * если он лежит между их "домашним" слотом и текущей позицией.
+     */
+    private void deleteFromTable(int slot) {
+        int hole = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & tableMask;
+            int entry = table[current];
+            if (entry == 0) {
+                break;
+            }
+            int home = home(keys[entry - 1]);
+            // Запись можно сдвинуть в hole, если hole циклически лежит в [home, current)
+            if (((current - home) & tableMask) >= ((current - hole) & tableMask)) {
+                table[hole] = entry;
+                hole = current;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h ^= h >>> 16;
+        return (int) h & tableMask;
+    }
+
+    // --- Список давности на индексах ---
+
+    private void moveToTail(int index) {
+        if (index != tail) {
+            unlink(index);
+            linkLast(index);
+        }
+    }
+
+    private void linkLast(int index) {
+        prev[index] = tail;
+        next[index] = NIL;
+        if (tail == NIL) {
+            head = index;
+        } else {
+            next[tail] = index;
+        }
+        tail = index;
+    }
+
+    private void unlink(int index) {
+        int p = prev[index];
+        int n = next[index];
+        if (p == NIL) {
+            head = n;
+        } else {
+            next[p] = n;
+        }
+        if (n == NIL) {
+            tail = p;
+        } else {
+            prev[n] = p;
+        }
+    }
+}
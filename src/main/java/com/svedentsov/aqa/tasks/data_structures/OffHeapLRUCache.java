@@ -0,0 +1,269 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Кеш байтовых массивов вне кучи (off-heap) с LRU-вытеснением по слабам - альтернатива
+ * {@code LRUCache<K, byte[]>} для больших объемов сериализованных данных.
+ * Описание: миллионы {@code byte[]} в старом поколении кучи увеличивают паузы GC.
+ * Здесь значения хранятся в "слабах" - прямых (direct) {@link ByteBuffer} фиксированного размера,
+ * которые сборщик мусора не сканирует:
+ * <ul>
+ *     <li>Значения дописываются последовательно в текущий слаб в формате {@code [int длина][данные]}
+ *     (log-structured), без фрагментации и освобождения отдельных записей.</li>
+ *     <li>Индекс на куче: ключ -> упакованный {@code long} (номер слаба << 32 | смещение).</li>
+ *     <li>Когда текущий слаб заполнен и свободных слабов нет, вытесняется целиком слаб
+ *     с самым давним обращением (LRU по слабам), а все его ключи удаляются из индекса.</li>
+ *     <li>{@link #get(Object)} возвращает read-only представление прямо в памяти слаба (zero-copy).</li>
+ * </ul>
+ * Перезапись и {@link #remove(Object)} не освобождают место сразу - оно возвращается
+ * при вытеснении слаба. Представление, полученное из {@code get}, действительно только
+ * до следующей записи в кеш (слаб может быть переиспользован).
+ * Не является потокобезопасным (non-thread-safe), как и {@link LRUCache}.
+ * Пример:
+ * `OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(256L << 20, 1 << 20);` // 256 МБ слабами по 1 МБ
+ * `cache.put("user:1", payload); ByteBuffer view = cache.get("user:1");`
+ *
+ * @param <K> Тип ключей кеша.
+ */
+public class OffHeapLRUCache<K> {
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final Map<K, Long> index = new HashMap<>();
+    private final Slab<K>[] slabs;
+    private final int slabSize;
+    private int allocatedSlabs; // Слабы выделяются лениво, по мере заполнения
+    private int usedSlabs; // Слабы [0, usedSlabs) заполнялись после clear; остальные выделенные свободны
+    private int currentSlab = -1;
+    private long clock; // Логические "часы" обращений для LRU по слабам
+
+    /**
+     * Создает кеш заданного объема.
+     *
+     * @param maxBytes Максимальный объем памяти вне кучи (>= slabSize).
+     * @param slabSize Размер одного слаба в байтах (> 4). Максимальный размер значения - {@code slabSize - 4}.
+     * @throws IllegalArgumentException при некорректных размерах.
+     */
+    public OffHeapLRUCache(long maxBytes, int slabSize) {
+        if (slabSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Slab size must be greater than " + HEADER_BYTES + ": " + slabSize);
+        }
+        if (maxBytes < slabSize) {
+            throw new IllegalArgumentException("Max bytes must be at least one slab: " + maxBytes);
+        }
+        long slabCount = maxBytes / slabSize;
+        if (slabCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many slabs: " + slabCount);
+        }
+        this.slabSize = slabSize;
+        @SuppressWarnings("unchecked")
+        Slab<K>[] slabs = (Slab<K>[]) new Slab<?>[(int) slabCount];
+        this.slabs = slabs;
+    }
+
+    /**
+     * Копирует значение в память вне кучи. Если ключ уже был, старая копия становится недоступной.
+     *
+     * @param key   Ключ (не null).
+     * @param value Значение (не null, длина не больше {@code slabSize - 4}).
+     * @throws IllegalArgumentException если значение не помещается в слаб.
+     */
+    public void put(K key, byte[] value) {
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        put(key, ByteBuffer.wrap(value));
+    }
+
+    /**
+     * Копирует оставшиеся байты буфера ({@code position..limit}) в память вне кучи.
+     * Позиция исходного буфера не меняется.
+     *
+     * @param key   Ключ (не null).
+     * @param value Буфер со значением (не null).
+     * @throws IllegalArgumentException если значение не помещается в слаб.
+     */
+    public void put(K key, ByteBuffer value) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        int length = value.remaining();
+        if (length > slabSize - HEADER_BYTES) {
+            throw new IllegalArgumentException("Value of " + length + " bytes does not fit into a slab of " + slabSize);
+        }
+        Slab<K> slab = slabFor(HEADER_BYTES + length);
+        int offset = slab.writePosition;
+        slab.buffer.putInt(offset, length);
+        slab.buffer.put(offset + HEADER_BYTES, value, value.position(), length);
+        slab.writePosition += HEADER_BYTES + length;
+        slab.keys.add(key);
+        slab.lastAccess = ++clock;
+        index.put(key, pack(currentSlab, offset));
+    }
+
+    /**
+     * Возвращает read-only представление значения без копирования (zero-copy).
+     * Представление действительно до следующей записи в кеш.
+     *
+     * @param key Ключ (не null).
+     * @return Буфер с позицией 0 и лимитом, равным длине значения, или {@code null}, если ключа нет.
+     */
+    public ByteBuffer get(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Long location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        Slab<K> slab = slabs[slabOf(location)];
+        int offset = offsetOf(location);
+        int length = slab.buffer.getInt(offset);
+        slab.lastAccess = ++clock;
+        return slab.buffer.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Возвращает копию значения в виде массива на куче.
+     *
+     * @param key Ключ (не null).
+     * @return Копия значения или {@code null}, если ключа нет.
+     */
+    public byte[] getBytes(K key) {
+        ByteBuffer view = get(key);
+        if (view == null) {
+            return null;
+        }
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        return copy;
+    }
+
+    /**
+     * Удаляет ключ из индекса. Память вне кучи освобождается при вытеснении слаба.
+     *
+     * @param key Ключ (не null).
+     * @return {@code true}, если ключ был в кеше.
+     */
+    public boolean remove(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        return index.remove(key) != null;
+    }
+
+    /**
+     * Проверяет наличие ключа, не изменяя LRU-порядок.
+     *
+     * @param key Ключ.
+     * @return {@code true}, если ключ присутствует.
+     */
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Возвращает количество доступных записей.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Возвращает объем выделенной памяти вне кучи (все созданные слабы).
+     *
+     * @return Байты вне кучи.
+     */
+    public long allocatedBytes() {
+        return (long) allocatedSlabs * slabSize;
+    }
+
+    /**
+     * Удаляет все записи. Слабы сохраняются и переиспользуются с первого: новые выделяются,
+     * только когда заполнены все уже выделенные.
+     */
+    public void clear() {
+        index.clear();
+        for (int i = 0; i < allocatedSlabs; i++) {
+            slabs[i].reset();
+        }
+        currentSlab = -1;
+        usedSlabs = 0;
+    }
+
+    /**
+     * Возвращает слаб, в котором есть {@code bytes} свободных байт, при необходимости
+     * переходя к новому слабу или вытесняя самый давно использованный.
+     */
+    private Slab<K> slabFor(int bytes) {
+        if (currentSlab >= 0 && slabSize - slabs[currentSlab].writePosition >= bytes) {
+            return slabs[currentSlab];
+        }
+        if (usedSlabs < allocatedSlabs) {
+            currentSlab = usedSlabs++; // Освобожденный clear слаб
+        } else if (allocatedSlabs < slabs.length) {
+            currentSlab = allocatedSlabs++;
+            usedSlabs++;
+            slabs[currentSlab] = new Slab<>(ByteBuffer.allocateDirect(slabSize));
+        } else {
+            currentSlab = leastRecentlyUsedSlab();
+            evict(currentSlab);
+        }
+        return slabs[currentSlab];
+    }
+
+    private int leastRecentlyUsedSlab() {
+        int victim = 0;
+        for (int i = 1; i < allocatedSlabs; i++) {
+            if (slabs[i].lastAccess < slabs[victim].lastAccess) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private void evict(int slabIndex) {
+        Slab<K> slab = slabs[slabIndex];
+        for (K key : slab.keys) {
+            Long location = index.get(key);
+            // Ключ мог быть перезаписан в другой слаб - удаляем только ссылки на вытесняемый
+            if (location != null && slabOf(location) == slabIndex) {
+                index.remove(key);
+            }
+        }
+        slab.reset();
+    }
+
+    private static long pack(int slab, int offset) {
+        return ((long) slab << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int slabOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    /**
+     * Слаб: прямой буфер, позиция записи, ключи записанных в него значений и время последнего обращения.
+     */
+    private static final class Slab<K> {
+        final ByteBuffer buffer;
+        final List<K> keys = new ArrayList<>();
+        int writePosition;
+        long lastAccess;
+
+        Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void reset() {
+            keys.clear();
+            writePosition = 0;
+            lastAccess = 0;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * Медиана потока чисел без упаковки (boxing) - специализации {@link MedianFinder}
+ * для {@code int}, {@code long} и {@code double}.
+ * Описание: {@link MedianFinder} хранит {@link Integer} в двух {@link java.util.PriorityQueue}
+ * и на каждое число выполняет 3-4 операции offer/poll, каждая из которых упаковывает значение.
+ * Здесь та же схема из двух куч построена на растущих примитивных массивах:
+ * <ul>
+ *     <li>Нижняя половина - max-куча, верхняя - min-куча; размер нижней равен размеру верхней или больше на 1.</li>
+ *     <li>Число сразу кладется в "свою" кучу (сравнение с вершиной нижней), и только при нарушении
+ *     баланса одна вершина переносится в другую кучу - обычно одна операция с кучей вместо трех-четырех.</li>
+ *     <li>Массивы растут удвоением; после разогрева {@code addNum} не выделяет память.</li>
+ * </ul>
+ * API повторяет {@link MedianFinder}: {@code addNum}, {@code findMedian} (0.0 для пустого потока), {@code getSize}.
+ * Не является потокобезопасным (non-thread-safe), как и {@link MedianFinder}.
+ * Пример:
+ * `PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt();`
+ * `finder.addNum(1); finder.addNum(2); finder.addNum(3); finder.findMedian();` // 2.0
+ */
+public final class PrimitiveMedianFinder {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private PrimitiveMedianFinder() {
+    }
+
+    /**
+     * Медиана потока {@code int}.
+     */
+    public static final class OfInt {
+        private final IntHeap lower; // Меньшая половина, вершина - максимум
+        private final IntHeap upper; // Большая половина, вершина - минимум
+
+        /**
+         * Создает пустой трекер медианы.
+         */
+        public OfInt() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Создает пустой трекер, заранее выделяя память под {@code expectedSize} чисел.
+         *
+         * @param expectedSize Ожидаемое количество чисел (>= 0).
+         * @throws IllegalArgumentException если expectedSize отрицательный.
+         */
+        public OfInt(int expectedSize) {
+            int half = halfCapacity(expectedSize);
+            lower = new IntHeap(half, true);
+            upper = new IntHeap(half, false);
+        }
+
+        /**
+         * Добавляет число в поток.
+         *
+         * @param num Добавляемое число.
+         */
+        public void addNum(int num) {
+            if (lower.size == 0 || num <= lower.peek()) {
+                lower.push(num);
+                if (lower.size > upper.size + 1) {
+                    upper.push(lower.pop());
+                }
+            } else {
+                upper.push(num);
+                if (upper.size > lower.size) {
+                    lower.push(upper.pop());
+                }
+            }
+        }
+
+        /**
+         * Возвращает медиану добавленных чисел.
+         *
+         * @return Медиана или 0.0, если чисел нет.
+         */
+        public double findMedian() {
+            if (lower.size == 0) {
+                return 0.0;
+            }
+            if (lower.size == upper.size) {
+                return ((long) lower.peek() + upper.peek()) / 2.0; // Сумма в long - без переполнения int
+            }
+            return lower.peek();
+        }
+
+        /**
+         * Возвращает количество добавленных чисел.
+         *
+         * @return Количество чисел.
+         */
+        public int getSize() {
+            return lower.size + upper.size;
+        }
+    }
+
+    /**
+     * Медиана потока {@code long}.
+     */
+    public static final class OfLong {
+        private final LongHeap lower;
+        private final LongHeap upper;
+
+        /**
+         * Создает пустой трекер медианы.
+         */
+        public OfLong() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Создает пустой трекер, заранее выделяя память под {@code expectedSize} чисел.
+         *
+         * @param expectedSize Ожидаемое количество чисел (>= 0).
+         * @throws IllegalArgumentException если expectedSize отрицательный.
+         */
+        public OfLong(int expectedSize) {
+            int half = halfCapacity(expectedSize);
+            lower = new LongHeap(half, true);
+            upper = new LongHeap(half, false);
+        }
+
+        /**
+         * Добавляет число в поток.
+         *
+         * @param num Добавляемое число.
+         */
+        public void addNum(long num) {
+            if (lower.size == 0 || num <= lower.peek()) {
+                lower.push(num);
+                if (lower.size > upper.size + 1) {
+                    upper.push(lower.pop());
+                }
+            } else {
+                upper.push(num);
+                if (upper.size > lower.size) {
+                    lower.push(upper.pop());
+                }
+            }
+        }
+
+        /**
+         * Возвращает медиану добавленных чисел.
+         *
+         * @return Медиана или 0.0, если чисел нет.
+         */
+        public double findMedian() {
+            if (lower.size == 0) {
+                return 0.0;
+            }
+            if (lower.size == upper.size) {
+                return lower.peek() / 2.0 + upper.peek() / 2.0; // Без переполнения суммы long
+            }
+            return lower.peek();
+        }
+
+        /**
+         * Возвращает количество добавленных чисел.
+         *
+         * @return Количество чисел.
+         */
+        public int getSize() {
+            return lower.size + upper.size;
+        }
+    }
+
+    /**
+     * Медиана потока {@code double}. NaN не допускается: он не упорядочен относительно других чисел.
+     */
+    public static final class OfDouble {
+        private final DoubleHeap lower;
+        private final DoubleHeap upper;
+
+        /**
+         * Создает пустой трекер медианы.
+         */
+        public OfDouble() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Создает пустой трекер, заранее выделяя память под {@code expectedSize} чисел.
+         *
+         * @param expectedSize Ожидаемое количество чисел (>= 0).
+         * @throws IllegalArgumentException если expectedSize отрицательный.
+         */
+        public OfDouble(int expectedSize) {
+            int half = halfCapacity(expectedSize);
+            lower = new DoubleHeap(half, true);
+            upper = new DoubleHeap(half, false);
+        }
+
+        /**
+         * Добавляет число в поток.
+         *
+         * @param num Добавляемое число (не NaN).
+         * @throws IllegalArgumentException если num - NaN.
+         */
+        public void addNum(double num) {
+            if (Double.isNaN(num)) {
+                throw new IllegalArgumentException("NaN cannot be added");
+            }
+            if (lower.size == 0 || num <= lower.peek()) {
+                lower.push(num);
+                if (lower.size > upper.size + 1) {
+                    upper.push(lower.pop());
+                }
+            } else {
+                upper.push(num);
+                if (upper.size > lower.size) {
+                    lower.push(upper.pop());
+                }
+            }
+        }
+
+        /**
+         * Возвращает медиану добавленных чисел.
+         *
+         * @return Медиана или 0.0, если чисел нет.
+         */
+        public double findMedian() {
+            if (lower.size == 0) {
+                return 0.0;
+            }
+            if (lower.size == upper.size) {
+                return lower.peek() / 2.0 + upper.peek() / 2.0;
+            }
+            return lower.peek();
+        }
+
+        /**
+         * Возвращает количество добавленных чисел.
+         *
+         * @return Количество чисел.
+         */
+        public int getSize() {
+            return lower.size + upper.size;
+        }
+    }
+
+    private static int halfCapacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        return Math.max(1, expectedSize / 2 + 1);
+    }
+
+    /**
+     * Двоичная куча на массиве {@code int}: max-куча при {@code max == true}, иначе min-куча.
+     */
+    private static final class IntHeap {
+        private final boolean max;
+        private int[] heap;
+        private int size;
+
+        IntHeap(int capacity, boolean max) {
+            this.heap = new int[capacity];
+            this.max = max;
+        }
+
+        /**
+         * {@code true}, если {@code a} должен быть ближе к вершине, чем {@code b}.
+         */
+        private boolean above(int a, int b) {
+            return max ? a > b : a < b;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void push(int value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            // Просеивание вверх: родители, уступающие value, сдвигаются вниз
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(value, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int i = 0;
+            // Просеивание вниз: на место вершины поднимается лучший из потомков
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && above(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!above(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+
+    /**
+     * Двоичная куча на массиве {@code long}: max-куча при {@code max == true}, иначе min-куча.
+     */
+    private static final class LongHeap {
+        private final boolean max;
+        private long[] heap;
+        private int size;
+
+        LongHeap(int capacity, boolean max) {
+            this.heap = new long[capacity];
+            this.max = max;
+        }
+
+        private boolean above(long a, long b) {
+            return max ? a > b : a < b;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(value, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && above(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!above(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+
+    /**
+     * Двоичная куча на массиве {@code double}: max-куча при {@code max == true}, иначе min-куча.
+     */
+    private static final class DoubleHeap {
+        private final boolean max;
+        private double[] heap;
+        private int size;
+
+        DoubleHeap(int capacity, boolean max) {
+            this.heap = new double[capacity];
+            this.max = max;
+        }
+
+        private boolean above(double a, double b) {
+            return max ? a > b : a < b;
+        }
+
+        double peek() {
+            return heap[0];
+        }
+
+        void push(double value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(value, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        double pop() {
+            double top = heap[0];
+            double last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && above(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!above(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
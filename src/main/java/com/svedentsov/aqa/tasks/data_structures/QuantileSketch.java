@@ -0,0 +1,333 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Квантильный скетч фиксированного размера для неотрицательных {@code long} (задержки, размеры)
+ * - альтернатива {@link MedianFinder} для длинных потоков и перцентилей p50/p95/p99.
+ * Описание: {@link MedianFinder} хранит каждое значение и отвечает только на p50.
+ * Здесь значения раскладываются по корзинам логарифмически-линейной гистограммы (как в HdrHistogram):
+ * <ul>
+ *     <li>Каждая степень двойки делится на {@code 2^precisionBits} равных корзин, поэтому
+ *     относительная ошибка квантиля не больше {@code 2^-(precisionBits+1)}
+ *     (0.39% при точности по умолчанию 7 бит). Значения меньше {@code 2^precisionBits} хранятся точно.</li>
+ *     <li>Память фиксирована: {@code (64 - precisionBits) * 2^precisionBits} счетчиков
+ *     (57 КБ при 7 битах) и не зависит от количества значений.</li>
+ *     <li>Номер корзины вычисляется сдвигами и {@link Long#numberOfLeadingZeros(long)}, без логарифмов.</li>
+ *     <li>{@link #merge(QuantileSketch)} складывает счетчики - результат совпадает со скетчем,
+ *     в который добавили оба потока, поэтому скетчи отдельных потоков или узлов можно объединять.</li>
+ *     <li>{@link #toByteArray()} кодирует только непустые корзины переменной длиной (varint).</li>
+ * </ul>
+ * Не является потокобезопасным (non-thread-safe), как и {@link MedianFinder}.
+ * Пример:
+ * `QuantileSketch sketch = new QuantileSketch(); sketch.add(latencyMicros);`
+ * `long p99 = sketch.quantile(0.99);`
+ */
+public class QuantileSketch {
+
+    private static final int DEFAULT_PRECISION_BITS = 7;
+    private static final int MAX_PRECISION_BITS = 12;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int precisionBits;
+    private final long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Создает скетч с точностью 7 бит (относительная ошибка не больше 0.39%).
+     */
+    public QuantileSketch() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Создает скетч с заданной точностью.
+     *
+     * @param precisionBits Количество бит мантиссы, от 1 до 12. Больше - точнее, но больше памяти.
+     * @throws IllegalArgumentException если точность вне диапазона.
+     */
+    public QuantileSketch(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS) {
+            throw new IllegalArgumentException("Precision bits must be in [1, " + MAX_PRECISION_BITS + "]: "
+                    + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        this.counts = new long[bucketCount(precisionBits)];
+    }
+
+    /**
+     * Добавляет значение.
+     *
+     * @param value Значение (>= 0).
+     * @throws IllegalArgumentException если значение отрицательное.
+     */
+    public void add(long value) {
+        add(value, 1);
+    }
+
+    /**
+     * Добавляет значение {@code count} раз.
+     *
+     * @param value Значение (>= 0).
+     * @param count Количество повторений (> 0).
+     * @throws IllegalArgumentException если значение отрицательное или count не положительный.
+     */
+    public void add(long value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        counts[bucketIndex(value, precisionBits)] += count;
+        totalCount += count;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Оценивает квантиль: значение, которого не превышает доля {@code q} добавленных значений.
+     * Результат - середина корзины, в которую попал квантиль, ограниченная точными min и max;
+     * для q = 0 и q = 1 возвращаются сами min и max.
+     *
+     * @param q Квантиль в диапазоне [0, 1] (0.5 - медиана, 0.99 - p99).
+     * @return Оценка квантиля или 0, если значений нет.
+     * @throws IllegalArgumentException если q вне [0, 1].
+     */
+    public long quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        if (q == 0 || q == 1) {
+            return q == 0 ? min : max; // Крайние квантили известны точно
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long lower = bucketLowerBound(i, precisionBits);
+                long upper = bucketUpperBound(i, precisionBits);
+                long mid = lower + (upper - lower) / 2;
+                return Math.max(min, Math.min(max, mid));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Добавляет в этот скетч все значения другого скетча той же точности.
+     *
+     * @param other Другой скетч (не null).
+     * @throws IllegalArgumentException если точности скетчей различаются.
+     */
+    public void merge(QuantileSketch other) {
+        Objects.requireNonNull(other, "Sketch cannot be null");
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge sketches with precision " + precisionBits
+                    + " and " + other.precisionBits);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Удаляет все значения; память счетчиков переиспользуется.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     *
+     * @return Количество значений.
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Возвращает точный минимум.
+     *
+     * @return Минимум или 0, если значений нет.
+     */
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Возвращает точный максимум.
+     *
+     * @return Максимум или 0, если значений нет.
+     */
+    public long max() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    /**
+     * Возвращает точность скетча в битах.
+     *
+     * @return Количество бит мантиссы.
+     */
+    public int precisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Сериализует скетч: {@code [версия][точность][varint количество, min, max, число корзин]},
+     * затем для каждой непустой корзины {@code [varint смещение от предыдущей][varint счетчик]}.
+     *
+     * @return Компактное двоичное представление.
+     */
+    public byte[] toByteArray() {
+        int nonEmpty = 0;
+        for (long c : counts) {
+            if (c != 0) {
+                nonEmpty++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 4 * 10 + nonEmpty * 20); // varint long - до 10 байт
+        buffer.put(FORMAT_VERSION).put((byte) precisionBits);
+        putVarLong(buffer, totalCount);
+        putVarLong(buffer, min());
+        putVarLong(buffer, max());
+        putVarLong(buffer, nonEmpty);
+        int previous = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                putVarLong(buffer, i - previous);
+                putVarLong(buffer, counts[i]);
+                previous = i;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Восстанавливает скетч из {@link #toByteArray()}.
+     *
+     * @param bytes Двоичное представление (не null).
+     * @return Новый скетч.
+     * @throws IllegalArgumentException если данные повреждены или версия формата неизвестна.
+     */
+    public static QuantileSketch fromByteArray(byte[] bytes) {
+        Objects.requireNonNull(bytes, "Bytes cannot be null");
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported sketch format version: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(buffer.get());
+            long totalCount = getVarLong(buffer);
+            long min = getVarLong(buffer);
+            long max = getVarLong(buffer);
+            long nonEmpty = getVarLong(buffer);
+            long sum = 0;
+            int index = 0;
+            for (long i = 0; i < nonEmpty; i++) {
+                index = Math.addExact(index, Math.toIntExact(getVarLong(buffer)));
+                long count = getVarLong(buffer);
+                sketch.counts[index] = count;
+                sum += count;
+            }
+            if (sum != totalCount || buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Corrupted sketch data");
+            }
+            sketch.totalCount = totalCount;
+            if (totalCount > 0) {
+                sketch.min = min;
+                sketch.max = max;
+            }
+            return sketch;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException | ArithmeticException e) {
+            throw new IllegalArgumentException("Corrupted sketch data", e);
+        }
+    }
+
+    /**
+     * Добавляет {@code count} значений сразу в корзину {@code index}, когда точные значения неизвестны
+     * (слияние счетчиков {@link ConcurrentQuantileRecorder}). Min и max расширяются до границ корзины.
+     */
+    void addBucketCount(int index, long count) {
+        counts[index] += count;
+        totalCount += count;
+        min = Math.min(min, bucketLowerBound(index, precisionBits));
+        max = Math.max(max, bucketUpperBound(index, precisionBits));
+    }
+
+    // --- Логарифмически-линейная раскладка корзин ---
+
+    /**
+     * Количество корзин для точности {@code p}: 2^p точных значений, затем по 2^p корзин
+     * на каждую из оставшихся степеней двойки.
+     */
+    static int bucketCount(int precisionBits) {
+        return (64 - precisionBits) << precisionBits;
+    }
+
+    static int bucketIndex(long value, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if (value < subBuckets) {
+            return (int) value; // Малые значения - точно
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precisionBits;
+        int mantissa = (int) (value >>> shift); // В диапазоне [2^p, 2^(p+1))
+        return ((shift + 1) << precisionBits) + mantissa - subBuckets;
+    }
+
+    static long bucketLowerBound(int index, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        long mantissa = subBuckets + (index & (subBuckets - 1));
+        return mantissa << shift;
+    }
+
+    static long bucketUpperBound(int index, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        return bucketLowerBound(index, precisionBits) + ((1L << shift) - 1);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
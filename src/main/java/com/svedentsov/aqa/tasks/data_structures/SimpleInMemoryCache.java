@@ -1,10 +1,32 @@
 package com.svedentsov.aqa.tasks.data_structures;
 
-import java.time.Instant;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Решение задачи №89: Реализовать простой кеш в памяти.
@@ -16,19 +38,87 @@ import java.util.concurrent.*;
  * `put(String key, Object value)` и `get(String key)`. Добавьте базовую
  * логику очистки старых записей (например, по TTL).
  * Пример: `cache.put("user:1", userData); Object data = cache.get("user:1");`
+ * <p>
+ * Время истечения считается по {@link System#nanoTime()}. Для активной очистки записи
+ * раскладываются по "корзинам истечения" (bucketed expiry queues): корзина - это интервал
+ * времени длиной ~16.8 мс (2^24 нс), корзины упорядочены в {@link ConcurrentSkipListMap}.
+ * {@link #removeExpiredEntries()} забирает только корзины, чье время уже прошло,
+ * поэтому стоимость очистки пропорциональна количеству истекших записей, а не размеру кеша.
+ * <p>
+ * Загрузка при промахе: {@link #get(Object, Function)} и {@link #getAsync(Object, Function)}
+ * объединяют одновременные промахи по одному ключу в одну загрузку (single-flight),
+ * что защищает источник данных от "лавины" запросов при истечении популярного ключа.
+ * <p>
+ * Обновление до истечения (refresh-ahead, stale-while-revalidate): если через {@link #builder(long)}
+ * задан {@code refreshAfter} (короче TTL), чтение записи старше {@code refreshAfter} сразу
+ * возвращает текущее значение и запускает одно фоновое обновление на настраиваемом исполнителе.
+ * Запись исчезает только по истечении полного TTL, поэтому популярный ключ не "проваливается" в промах.
+ * <p>
+ * Ограничение размера ({@code maximumSize}) с выборочным вытеснением, как в Redis: при переполнении
+ * из кеша берется выборка из нескольких записей, и вытесняется лучший кандидат по
+ * {@link EvictionPolicy} (уже истекшие записи удаляются в первую очередь). Глобального LRU-списка нет,
+ * путь чтения остается без блокировок; блокировку берут только записи, переполнившие кеш.
+ * Покинувшие карту записи (вытеснение, перезапись, удаление) сразу убираются из корзин истечения,
+ * поэтому {@code maximumSize} ограничивает и память, а не только {@link #size()}.
+ * <p>
+ * Статистика (попадания, промахи, истечения, удаления, вытеснения, загрузки и гистограмма времени
+ * загрузки) включается через {@link Builder#recordStats()} и читается методом {@link #snapshot()}.
+ * Счетчики построены на {@link LongAdder}, а выключенная статистика - пустые вызовы, которые JIT убирает.
+ * <p>
+ * Теплый старт: {@link #snapshotTo(Path, Serializer, Serializer)} сохраняет актуальные записи
+ * с оставшимся TTL в компактный двоичный файл, {@link #loadFrom(Path, Serializer, Serializer)}
+ * восстанавливает их после перезапуска, параллельно разбирая блоки файла, отображенные в память.
+ * <p>
+ * Фоновая очистка выполняется либо собственным потоком кеша ({@code backgroundCleanup}), либо общим
+ * {@link CacheMaintenanceService} ({@link Builder#maintenanceService}), когда кешей много.
  *
  * @param <K> Тип ключей кеша.
  * @param <V> Тип значений кеша.
  */
 public class SimpleInMemoryCache<K, V> {
 
+    // Ширина корзины истечения: 2^24 нс ~ 16.8 мс
+    private static final int BUCKET_SHIFT = 24;
+    // Грубые "часы" последнего обращения: 2^20 нс ~ 1 мс, чтобы чтения редко писали в запись
+    private static final int ACCESS_TICK_SHIFT = 20;
+    // Размер выборки по умолчанию (как maxmemory-samples в Redis)
+    private static final int DEFAULT_EVICTION_SAMPLE_SIZE = 5;
+    // Формат снимка: [int magic "SIMC"][int версия][long время снимка, мс UTC], затем блоки
+    // [int длина данных][int количество записей][записи: int+ключ, int+значение, long оставшийся TTL в мс]
+    private static final int SNAPSHOT_MAGIC = 0x53494D43;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    private static final int SNAPSHOT_BLOCK_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int SNAPSHOT_BLOCK_SIZE = 1 << 20; // Блок - единица параллельной загрузки
+
     // Основное хранилище кеша: потокобезопасная карта K -> CacheEntry<V>
-    private final Map<K, CacheEntry<V>> cache = new ConcurrentHashMap<>();
+    private final Map<K, CacheEntry<K, V>> cache = new ConcurrentHashMap<>();
+    // Корзины истечения: номер корзины (expiryNanos >> BUCKET_SHIFT) -> записи, истекающие в этом интервале
+    private final ConcurrentSkipListMap<Long, ExpiryBucket<K, V>> expiryBuckets = new ConcurrentSkipListMap<>();
+    // Загрузки, выполняющиеся прямо сейчас: все промахи по ключу ждут одну и ту же загрузку
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
     // Время жизни по умолчанию для записей в миллисекундах.
     private final long defaultTtlMillis;
     // Планировщик для фоновой очистки (опционально).
     private final ScheduledExecutorService cleanupScheduler;
-    private final boolean backgroundCleanupEnabled;
+    // Регистрация в общем сервисе очистки (вместо собственного потока, опционально).
+    private final CacheMaintenanceService.Registration maintenance;
+    // Возраст записи, после которого чтение запускает фоновое обновление (0 - выключено)
+    private final long refreshAfterNanos;
+    // Функция обновления для get(K); get(K, loader) и getAsync обновляют своим загрузчиком
+    private final Function<? super K, ? extends V> refreshLoader;
+    // Исполнитель фоновых обновлений
+    private final Executor refreshExecutor;
+    // Максимальное количество записей (0 - без ограничения)
+    private final long maximumSize;
+    private final int evictionSampleSize;
+    private final EvictionPolicy evictionPolicy;
+    private final LongAdder evictionCount = new LongAdder();
+    // Счетчики статистики (StatsCounter.DISABLED, если статистика не включена)
+    private final StatsCounter stats;
+    // Вытеснение выполняет один поток за раз; курсор обходит карту по кругу между вытеснениями
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<CacheEntry<K, V>> evictionCursor;
 
     /**
      * Создает кеш с указанным временем жизни по умолчанию и опциональной фоновой очисткой.
@@ -38,13 +128,35 @@ public class SimpleInMemoryCache<K, V> {
      * @throws IllegalArgumentException если defaultTtlMillis не положительное.
      */
     public SimpleInMemoryCache(long defaultTtlMillis, boolean enableBackgroundCleanup) {
-        if (defaultTtlMillis <= 0) {
-            throw new IllegalArgumentException("Default TTL must be positive.");
-        }
-        this.defaultTtlMillis = defaultTtlMillis;
-        this.backgroundCleanupEnabled = enableBackgroundCleanup;
+        this(SimpleInMemoryCache.<K, V>builder(defaultTtlMillis).backgroundCleanup(enableBackgroundCleanup));
+    }
+
+    /**
+     * Создает кеш с TTL по умолчанию и без фоновой очистки.
+     *
+     * @param defaultTtlMillis Время жизни по умолчанию в мс (> 0).
+     */
+    public SimpleInMemoryCache(long defaultTtlMillis) {
+        this(defaultTtlMillis, false);
+    }
 
-        if (enableBackgroundCleanup) {
+    private SimpleInMemoryCache(Builder<K, V> builder) {
+        this.defaultTtlMillis = builder.defaultTtlMillis;
+        this.refreshAfterNanos = TimeUnit.MILLISECONDS.toNanos(builder.refreshAfterMillis);
+        this.refreshLoader = builder.refreshLoader;
+        this.refreshExecutor = builder.refreshExecutor;
+        this.maximumSize = builder.maximumSize;
+        this.evictionSampleSize = builder.evictionSampleSize;
+        this.evictionPolicy = builder.evictionPolicy;
+        this.stats = builder.recordStats ? new ConcurrentStatsCounter() : StatsCounter.DISABLED;
+
+        long cleanupInterval = Math.max(1000, defaultTtlMillis); // Интервал очистки (минимум 1 сек)
+        if (builder.maintenanceService != null) {
+            // Общий поток для всех кешей сервиса
+            this.cleanupScheduler = null;
+            this.maintenance = builder.maintenanceService.register(this, cleanupInterval);
+        } else if (builder.backgroundCleanup) {
+            this.maintenance = null;
             // Создаем фабрику потоков для именования и установки демона
             ThreadFactory threadFactory = r -> {
                 Thread t = Executors.defaultThreadFactory().newThread(r);
@@ -54,21 +166,28 @@ public class SimpleInMemoryCache<K, V> {
             };
             // Создаем и запускаем планировщик
             this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
-            long cleanupInterval = Math.max(1000, defaultTtlMillis); // Интервал очистки (минимум 1 сек)
             this.cleanupScheduler.scheduleAtFixedRate(this::removeExpiredEntries,
                     cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
         } else {
             this.cleanupScheduler = null;
+            this.maintenance = null;
         }
     }
 
     /**
-     * Создает кеш с TTL по умолчанию и без фоновой очистки.
+     * Возвращает построитель кеша для настроек, не покрытых конструкторами (обновление до истечения и т.д.).
+     * Пример:
+     * `SimpleInMemoryCache<String, User> cache = SimpleInMemoryCache.<String, User>builder(60_000)`
+     * `        .refreshAfter(45_000).refreshLoader(userService::load).build();`
      *
-     * @param defaultTtlMillis Время жизни по умолчанию в мс (> 0).
+     * @param defaultTtlMillis Время жизни записей по умолчанию в мс (> 0).
+     * @param <K>              Тип ключей кеша.
+     * @param <V>              Тип значений кеша.
+     * @return Новый построитель.
+     * @throws IllegalArgumentException если defaultTtlMillis не положительное.
      */
-    public SimpleInMemoryCache(long defaultTtlMillis) {
-        this(defaultTtlMillis, false);
+    public static <K, V> Builder<K, V> builder(long defaultTtlMillis) {
+        return new Builder<>(defaultTtlMillis);
     }
 
     /**
@@ -93,7 +212,34 @@ public class SimpleInMemoryCache<K, V> {
         Objects.requireNonNull(value, "Cache value cannot be null");
 
         long effectiveTtl = (ttlMillis > 0) ? ttlMillis : defaultTtlMillis;
-        cache.put(key, new CacheEntry<>(value, effectiveTtl));
+        putEntry(new CacheEntry<>(key, value, effectiveTtl, System.nanoTime()));
+    }
+
+    /**
+     * Добавляет/обновляет пачку значений с TTL по умолчанию.
+     * Все записи пачки получают один момент записи (одно обращение к часам на пачку).
+     *
+     * @param entries Пары ключ-значение (ключи и значения не null).
+     */
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Objects.requireNonNull(entries, "Entries cannot be null");
+        long now = System.nanoTime();
+        for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+            K key = Objects.requireNonNull(e.getKey(), "Cache key cannot be null");
+            V value = Objects.requireNonNull(e.getValue(), "Cache value cannot be null");
+            putEntry(new CacheEntry<>(key, value, defaultTtlMillis, now));
+        }
+    }
+
+    private void putEntry(CacheEntry<K, V> entry) {
+        CacheEntry<K, V> previous = cache.put(entry.key, entry);
+        if (previous != null) {
+            unscheduleExpiry(previous);
+        }
+        scheduleIfCurrent(entry);
+        if (maximumSize > 0 && cache.size() > maximumSize) {
+            evictIfNeeded();
+        }
     }
 
     /**
@@ -105,18 +251,394 @@ public class SimpleInMemoryCache<K, V> {
      */
     public Optional<V> get(K key) {
         Objects.requireNonNull(key, "Cache key cannot be null");
+        long now = System.nanoTime();
+        CacheEntry<K, V> entry = lookup(key, now);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (refreshLoader != null && isRefreshDue(entry, now)) {
+            refresh(entry, () -> CompletableFuture.completedFuture(refreshLoader.apply(key)));
+        }
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Возвращает значение из кеша, а при промахе загружает его функцией {@code loader}
+     * и сохраняет с TTL по умолчанию. Одновременные промахи по одному ключу выполняют
+     * только одну загрузку: остальные потоки ждут ее результат.
+     * Ошибка загрузки не кешируется - она передается всем ожидающим, а следующий вызов
+     * снова обратится к {@code loader}. Если {@code loader} вернул null, значение не кешируется.
+     * Функция загрузки не должна обращаться к кешу по тому же ключу (взаимная блокировка).
+     * Если задан {@code refreshAfter}, чтение "постаревшей" записи возвращает ее сразу,
+     * а {@code loader} вызывается в фоне для обновления.
+     *
+     * @param key    Ключ (не null).
+     * @param loader Функция загрузки значения (не null).
+     * @return Значение из кеша или загруженное значение (может быть null, если loader вернул null).
+     * @throws RuntimeException исключение, выброшенное функцией загрузки.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(loader, "Loader cannot be null");
+        long now = System.nanoTime();
+        CacheEntry<K, V> entry = lookup(key, now);
+        if (entry != null) {
+            if (isRefreshDue(entry, now)) {
+                refresh(entry, () -> CompletableFuture.completedFuture(loader.apply(key)));
+            }
+            return entry.value;
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlightLoads.putIfAbsent(key, load);
+        if (existing != null) {
+            return join(existing); // Кто-то уже загружает этот ключ - ждем его результат
+        }
+        try {
+            // Повторная проверка: предыдущая загрузка могла завершиться между промахом и putIfAbsent
+            V value = getIfPresent(key);
+            if (value == null) {
+                long start = System.nanoTime();
+                try {
+                    value = loader.apply(key);
+                } catch (RuntimeException | Error e) {
+                    stats.recordLoadFailure(System.nanoTime() - start);
+                    throw e;
+                }
+                recordLoad(value, System.nanoTime() - start);
+                if (value != null) {
+                    put(key, value);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
 
-        CacheEntry<V> entry = cache.get(key);
+    /**
+     * Асинхронный вариант {@link #get(Object, Function)}: при промахе запускает загрузку
+     * {@code loader} и возвращает ее будущий результат. Одновременные промахи по ключу
+     * получают одну и ту же загрузку. Неуспешные загрузки не кешируются.
+     * Каждый вызов получает собственную копию future: отмена или завершение ее вызывающим
+     * кодом не влияет на других ожидающих.
+     * Если задан {@code refreshAfter}, "постаревшая" запись возвращается сразу, а {@code loader}
+     * запускается в фоне для ее обновления.
+     *
+     * @param key    Ключ (не null).
+     * @param loader Функция, запускающая асинхронную загрузку (не null).
+     * @return Future со значением из кеша или результатом загрузки.
+     */
+    public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(loader, "Loader cannot be null");
+        long now = System.nanoTime();
+        CacheEntry<K, V> entry = lookup(key, now);
+        if (entry != null) {
+            if (isRefreshDue(entry, now)) {
+                refresh(entry, () -> loader.apply(key));
+            }
+            return CompletableFuture.completedFuture(entry.value);
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlightLoads.putIfAbsent(key, load);
+        if (existing != null) {
+            return existing.copy();
+        }
+        V value = getIfPresent(key);
+        if (value != null) {
+            inFlightLoads.remove(key, load);
+            load.complete(value);
+            return load.copy();
+        }
+        long start = System.nanoTime();
+        CompletableFuture<? extends V> source;
+        try {
+            source = Objects.requireNonNull(loader.apply(key), "Loader returned null future");
+        } catch (RuntimeException | Error e) {
+            stats.recordLoadFailure(System.nanoTime() - start);
+            inFlightLoads.remove(key, load);
+            load.completeExceptionally(e);
+            return load.copy();
+        }
+        source.whenComplete((loaded, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error != null) {
+                stats.recordLoadFailure(elapsed);
+            } else {
+                recordLoad(loaded, elapsed);
+            }
+            if (error == null && loaded != null) {
+                put(key, loaded); // Сначала в кеш, затем снимаем отметку о загрузке
+            }
+            inFlightLoads.remove(key, load);
+            if (error != null) {
+                load.completeExceptionally(error);
+            } else {
+                load.complete(loaded);
+            }
+        });
+        return load.copy();
+    }
+
+    /**
+     * Возвращает актуальные значения для пачки ключей. Время проверяется один раз на всю пачку.
+     * Отсутствующие и устаревшие ключи в результат не попадают.
+     *
+     * @param keys Ключи (не null, без null-элементов).
+     * @return Новая карта найденных ключей и значений.
+     */
+    public Map<K, V> getAll(Iterable<? extends K> keys) {
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        long now = System.nanoTime();
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            Objects.requireNonNull(key, "Cache key cannot be null");
+            CacheEntry<K, V> entry = lookup(key, now);
+            if (entry != null) {
+                result.put(key, entry.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает значения для пачки ключей, загружая все промахи одним вызовом {@code batchLoader}
+     * (один запрос к источнику вместо запроса на каждый ключ). Загруженные значения кешируются
+     * с TTL по умолчанию, включая ключи, которые загрузчик вернул сверх запрошенных.
+     * Промахи, которые уже загружаются другим потоком ({@link #get(Object, Function)} и т.п.),
+     * не передаются в {@code batchLoader}, а ожидаются; ключи этого вызова, в свою очередь,
+     * видны как загружаемые для других потоков. Ключи, для которых загрузчик не вернул значение,
+     * в результат не попадают. Ошибка загрузчика передается вызывающему и ожидающим и не кешируется.
+     *
+     * @param keys        Ключи (не null, без null-элементов).
+     * @param batchLoader Функция загрузки пачки отсутствующих ключей (не null, не должна возвращать null).
+     * @return Новая карта найденных и загруженных значений.
+     * @throws RuntimeException исключение, выброшенное загрузчиком.
+     */
+    public Map<K, V> getAll(Iterable<? extends K> keys,
+                            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        Objects.requireNonNull(batchLoader, "Loader cannot be null");
+        long now = System.nanoTime();
+        Map<K, V> result = new HashMap<>();
+        Map<K, CompletableFuture<V>> owned = new HashMap<>();
+        Map<K, CompletableFuture<V>> awaited = new HashMap<>();
+        for (K key : keys) {
+            Objects.requireNonNull(key, "Cache key cannot be null");
+            if (result.containsKey(key) || owned.containsKey(key) || awaited.containsKey(key)) {
+                continue; // Повтор ключа в пачке
+            }
+            CacheEntry<K, V> entry = lookup(key, now);
+            if (entry != null) {
+                result.put(key, entry.value);
+                continue;
+            }
+            CompletableFuture<V> load = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlightLoads.putIfAbsent(key, load);
+            if (existing != null) {
+                awaited.put(key, existing); // Ключ уже загружается - ждем чужую загрузку
+            } else {
+                owned.put(key, load);
+            }
+        }
+        if (!owned.isEmpty()) {
+            loadAll(owned, batchLoader, result);
+        }
+        for (Map.Entry<K, CompletableFuture<V>> e : awaited.entrySet()) {
+            V value = join(e.getValue());
+            if (value != null) {
+                result.put(e.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Загружает ключи, за загрузку которых отвечает этот поток, и завершает их future.
+     */
+    private void loadAll(Map<K, CompletableFuture<V>> owned,
+                         Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader,
+                         Map<K, V> result) {
+        try {
+            Set<K> missing = new HashSet<>(owned.keySet());
+            missing.removeIf(key -> {
+                // Повторная проверка: загрузка могла завершиться между промахом и putIfAbsent
+                V value = getIfPresent(key);
+                if (value != null) {
+                    result.put(key, value);
+                    CompletableFuture<V> load = owned.remove(key);
+                    inFlightLoads.remove(key, load);
+                    load.complete(value);
+                    return true;
+                }
+                return false;
+            });
+            Map<? extends K, ? extends V> loaded = Map.of();
+            if (!missing.isEmpty()) {
+                long start = System.nanoTime();
+                try {
+                    loaded = Objects.requireNonNull(batchLoader.apply(Collections.unmodifiableSet(missing)),
+                            "Loader returned null map");
+                } catch (RuntimeException | Error e) {
+                    stats.recordLoadFailure(System.nanoTime() - start);
+                    throw e;
+                }
+                stats.recordLoadSuccess(System.nanoTime() - start);
+            }
+            long now = System.nanoTime();
+            for (Map.Entry<? extends K, ? extends V> e : loaded.entrySet()) {
+                if (e.getKey() != null && e.getValue() != null) {
+                    putEntry(new CacheEntry<>(e.getKey(), e.getValue(), defaultTtlMillis, now));
+                }
+            }
+            for (Map.Entry<K, CompletableFuture<V>> e : owned.entrySet()) {
+                V value = loaded.get(e.getKey());
+                if (value != null) {
+                    result.put(e.getKey(), value);
+                }
+                e.getValue().complete(value);
+            }
+        } catch (RuntimeException | Error e) {
+            owned.values().forEach(load -> load.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inFlightLoads::remove);
+        }
+    }
+
+    /**
+     * Поиск записи для публичных методов чтения: то же, что getEntryIfPresent, плюс учет попадания/промаха.
+     */
+    private CacheEntry<K, V> lookup(K key, long nowNanos) {
+        CacheEntry<K, V> entry = getEntryIfPresent(key, nowNanos);
+        if (entry != null) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+        }
+        return entry;
+    }
+
+    /**
+     * Учитывает завершенную загрузку: null, как и исключение, считается неуспешной загрузкой.
+     */
+    private void recordLoad(V loaded, long elapsedNanos) {
+        if (loaded != null) {
+            stats.recordLoadSuccess(elapsedNanos);
+        } else {
+            stats.recordLoadFailure(elapsedNanos);
+        }
+    }
+
+    /**
+     * Возвращает актуальное значение или null. Устаревшая запись удаляется ("ленивое" удаление).
+     */
+    private V getIfPresent(K key) {
+        CacheEntry<K, V> entry = getEntryIfPresent(key, System.nanoTime());
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Возвращает актуальную запись или null. Устаревшая запись удаляется ("ленивое" удаление).
+     */
+    private CacheEntry<K, V> getEntryIfPresent(K key, long nowNanos) {
+        CacheEntry<K, V> entry = cache.get(key);
         if (entry == null) {
-            return Optional.empty(); // Не найдено
+            return null; // Не найдено
         }
 
-        if (entry.isExpired()) {
+        if (entry.isExpired(nowNanos)) {
             // Атомарно удаляем, только если значение не изменилось с момента чтения
-            cache.remove(key, entry);
-            return Optional.empty(); // Устарело
+            if (cache.remove(key, entry)) {
+                unscheduleExpiry(entry);
+                stats.recordExpiration();
+            }
+            return null; // Устарело
+        }
+        if (maximumSize > 0) {
+            entry.recordAccess(nowNanos);
+        }
+        return entry; // Найдено и актуально
+    }
+
+    private boolean isRefreshDue(CacheEntry<K, V> entry, long nowNanos) {
+        return refreshAfterNanos > 0 && nowNanos - entry.writeNanos >= refreshAfterNanos;
+    }
+
+    /**
+     * Запускает фоновое обновление записи, если по ее ключу еще не идет загрузка или обновление.
+     * Обновление регистрируется в {@code inFlightLoads}, поэтому промахи по ключу во время
+     * обновления ждут его, а не запускают собственную загрузку.
+     * Новое значение заменяет запись, только если ее не перезаписали и не удалили за время обновления.
+     * При ошибке или null остается старое значение - до истечения TTL.
+     */
+    private void refresh(CacheEntry<K, V> stale, Supplier<? extends CompletableFuture<? extends V>> reload) {
+        CompletableFuture<V> refresh = new CompletableFuture<>();
+        if (inFlightLoads.putIfAbsent(stale.key, refresh) != null) {
+            return; // Ключ уже обновляется
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                long start = System.nanoTime();
+                CompletableFuture<? extends V> source;
+                try {
+                    source = Objects.requireNonNull(reload.get(), "Loader returned null future");
+                } catch (RuntimeException | Error e) {
+                    completeRefresh(stale, refresh, null, e, System.nanoTime() - start);
+                    return;
+                }
+                source.whenComplete((loaded, error) ->
+                        completeRefresh(stale, refresh, loaded, error, System.nanoTime() - start));
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightLoads.remove(stale.key, refresh);
+            refresh.completeExceptionally(e);
+        }
+    }
+
+    private void completeRefresh(CacheEntry<K, V> stale, CompletableFuture<V> refresh, V loaded, Throwable error,
+                                 long elapsedNanos) {
+        if (error != null) {
+            stats.recordLoadFailure(elapsedNanos);
+        } else {
+            recordLoad(loaded, elapsedNanos);
+        }
+        if (error == null && loaded != null) {
+            long ttlMillis = TimeUnit.NANOSECONDS.toMillis(stale.expiryNanos - stale.writeNanos);
+            CacheEntry<K, V> fresh = new CacheEntry<>(stale.key, loaded, ttlMillis);
+            if (cache.replace(stale.key, stale, fresh)) {
+                unscheduleExpiry(stale); // Иначе корзина держит старое значение до его прежнего срока
+                scheduleIfCurrent(fresh);
+            }
+        }
+        inFlightLoads.remove(stale.key, refresh);
+        if (error != null) {
+            refresh.completeExceptionally(error);
+        } else {
+            refresh.complete(loaded);
+        }
+    }
+
+    /**
+     * Ожидает чужую загрузку и пробрасывает ее исключение без обертки, если это возможно.
+     */
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
         }
-        return Optional.of(entry.value); // Найдено и актуально
     }
 
     /**
@@ -126,7 +648,23 @@ public class SimpleInMemoryCache<K, V> {
      */
     public void remove(K key) {
         Objects.requireNonNull(key, "Cache key cannot be null");
-        cache.remove(key);
+        CacheEntry<K, V> removed = cache.remove(key);
+        if (removed != null) {
+            unscheduleExpiry(removed);
+            stats.recordRemoval();
+        }
+    }
+
+    /**
+     * Удаляет записи для пачки ключей.
+     *
+     * @param keys Ключи для удаления (не null, без null-элементов).
+     */
+    public void invalidateAll(Iterable<? extends K> keys) {
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        for (K key : keys) {
+            remove(key);
+        }
     }
 
     /**
@@ -134,6 +672,7 @@ public class SimpleInMemoryCache<K, V> {
      */
     public void clear() {
         cache.clear();
+        expiryBuckets.clear();
     }
 
     /**
@@ -147,64 +686,973 @@ public class SimpleInMemoryCache<K, V> {
     }
 
     /**
-     * Внутренний класс для хранения записи кеша: значение и время устаревания.
+     * Сохраняет актуальные записи в файл для последующего теплого старта.
+     * Для каждой записи сохраняется оставшийся TTL; уже устаревшие записи пропускаются.
+     * Файл пишется во временный рядом с целевым и затем атомарно переименовывается,
+     * поэтому прерванный снимок не портит предыдущий. Конкурентные изменения кеша во время
+     * снимка допустимы: снимок отражает слабосогласованный обход карты.
+     *
+     * @param path            Путь к файлу снимка (не null).
+     * @param keySerializer   Сериализатор ключей (не null).
+     * @param valueSerializer Сериализатор значений (не null).
+     * @return Количество сохраненных записей.
+     * @throws IOException при ошибке записи.
+     */
+    public long snapshotTo(Path path, Serializer<? super K> keySerializer, Serializer<? super V> valueSerializer)
+            throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        Objects.requireNonNull(keySerializer, "Key serializer cannot be null");
+        Objects.requireNonNull(valueSerializer, "Value serializer cannot be null");
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(System.currentTimeMillis()).flip();
+            writeFully(channel, header);
+            SnapshotBlockWriter writer = new SnapshotBlockWriter(channel);
+            long now = System.nanoTime();
+            for (CacheEntry<K, V> entry : cache.values()) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(entry.expiryNanos - now);
+                if (remainingMillis > 0) {
+                    writer.write(keySerializer.serialize(entry.key), valueSerializer.serialize(entry.value),
+                            remainingMillis);
+                    written++;
+                }
+            }
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Загружает записи из снимка, созданного {@link #snapshotTo(Path, Serializer, Serializer)}.
+     * Оставшийся TTL каждой записи уменьшается на время, прошедшее с момента снимка (по системным
+     * часам); записи, устаревшие за это время, пропускаются. Записи, уже присутствующие в кеше,
+     * не перезаписываются - они свежее снимка.
+     * Файл читается потоково: сначала по заголовкам находятся блоки, затем блоки отображаются
+     * в память и разбираются параллельно, поэтому сериализаторы должны быть потокобезопасными.
+     *
+     * @param path            Путь к файлу снимка (не null).
+     * @param keySerializer   Сериализатор ключей (не null).
+     * @param valueSerializer Сериализатор значений (не null).
+     * @return Количество загруженных записей.
+     * @throws IOException при ошибке чтения или если файл не является снимком кеша.
+     */
+    public long loadFrom(Path path, Serializer<? extends K> keySerializer, Serializer<? extends V> valueSerializer)
+            throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        Objects.requireNonNull(keySerializer, "Key serializer cannot be null");
+        Objects.requireNonNull(valueSerializer, "Value serializer cannot be null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, SNAPSHOT_HEADER_BYTES);
+            if (header.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            int version = header.getInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            long elapsedMillis = Math.max(0, System.currentTimeMillis() - header.getLong());
+            List<SnapshotBlock> blocks = new ArrayList<>();
+            long size = channel.size();
+            for (long offset = SNAPSHOT_HEADER_BYTES; offset < size; ) {
+                ByteBuffer blockHeader = readFully(channel, offset, SNAPSHOT_BLOCK_HEADER_BYTES);
+                int length = blockHeader.getInt();
+                int entryCount = blockHeader.getInt();
+                long dataOffset = offset + SNAPSHOT_BLOCK_HEADER_BYTES;
+                if (length < 0 || entryCount < 0 || dataOffset + length > size) {
+                    throw new IOException("Corrupted snapshot block at offset " + offset);
+                }
+                blocks.add(new SnapshotBlock(dataOffset, length, entryCount));
+                offset = dataOffset + length;
+            }
+            LongAdder loaded = new LongAdder();
+            try {
+                blocks.parallelStream().forEach(block ->
+                        loaded.add(loadBlock(channel, block, keySerializer, valueSerializer, elapsedMillis)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return loaded.sum();
+        }
+    }
+
+    private long loadBlock(FileChannel channel, SnapshotBlock block, Serializer<? extends K> keySerializer,
+                           Serializer<? extends V> valueSerializer, long elapsedMillis) {
+        try {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, block.offset, block.length);
+            long loaded = 0;
+            for (int i = 0; i < block.entryCount; i++) {
+                K key = keySerializer.deserialize(readBytes(data));
+                V value = valueSerializer.deserialize(readBytes(data));
+                long ttlMillis = data.getLong() - elapsedMillis;
+                if (ttlMillis > 0 && insertIfAbsent(key, value, ttlMillis)) {
+                    loaded++;
+                }
+            }
+            return loaded;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new UncheckedIOException(new IOException("Corrupted snapshot block at offset " + block.offset, e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Добавляет запись, если ключа нет или его запись устарела.
+     */
+    private boolean insertIfAbsent(K key, V value, long ttlMillis) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, ttlMillis);
+        CacheEntry<K, V> existing = cache.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!(existing.isExpired(System.nanoTime()) && cache.replace(key, existing, entry))) {
+                return false;
+            }
+            unscheduleExpiry(existing);
+        }
+        scheduleIfCurrent(entry);
+        if (maximumSize > 0 && cache.size() > maximumSize) {
+            evictIfNeeded();
+        }
+        return true;
+    }
+
+    private static byte[] readBytes(ByteBuffer data) {
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of snapshot at offset " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Сериализатор ключей или значений для снимков кеша.
+     *
+     * @param <T> Тип сериализуемых объектов.
+     */
+    public interface Serializer<T> {
+
+        /**
+         * Преобразует объект в байты.
+         *
+         * @param value Объект (не null).
+         * @return Байтовое представление.
+         */
+        byte[] serialize(T value);
+
+        /**
+         * Восстанавливает объект из байтов.
+         *
+         * @param bytes Байтовое представление.
+         * @return Объект.
+         */
+        T deserialize(byte[] bytes);
+
+        /**
+         * Сериализатор строк в UTF-8.
+         *
+         * @return Сериализатор строк.
+         */
+        static Serializer<String> utf8() {
+            return new Serializer<>() {
+                @Override
+                public byte[] serialize(String value) {
+                    return value.getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public String deserialize(byte[] bytes) {
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+    }
+
+    /**
+     * Положение блока снимка в файле: смещение данных, их длина и количество записей.
+     */
+    private static final class SnapshotBlock {
+        final long offset;
+        final int length;
+        final int entryCount;
+
+        SnapshotBlock(long offset, int length, int entryCount) {
+            this.offset = offset;
+            this.length = length;
+            this.entryCount = entryCount;
+        }
+    }
+
+    /**
+     * Накапливает записи в буфере размером с блок и сбрасывает их в канал целыми блоками.
+     * Запись больше блока пишется отдельным блоком.
+     */
+    private static final class SnapshotBlockWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BLOCK_SIZE);
+        private int entryCount;
+
+        SnapshotBlockWriter(FileChannel channel) {
+            this.channel = channel;
+            buffer.position(SNAPSHOT_BLOCK_HEADER_BYTES);
+        }
+
+        void write(byte[] key, byte[] value, long ttlMillis) throws IOException {
+            int entryBytes = 2 * Integer.BYTES + key.length + value.length + Long.BYTES;
+            if (entryBytes > buffer.remaining()) {
+                flush();
+            }
+            if (entryBytes > buffer.remaining()) {
+                ByteBuffer single = ByteBuffer.allocate(SNAPSHOT_BLOCK_HEADER_BYTES + entryBytes);
+                single.putInt(entryBytes).putInt(1);
+                putEntry(single, key, value, ttlMillis);
+                writeFully(channel, single.flip());
+                return;
+            }
+            putEntry(buffer, key, value, ttlMillis);
+            entryCount++;
+        }
+
+        void flush() throws IOException {
+            if (entryCount == 0) {
+                return;
+            }
+            buffer.putInt(0, buffer.position() - SNAPSHOT_BLOCK_HEADER_BYTES).putInt(Integer.BYTES, entryCount);
+            writeFully(channel, buffer.flip());
+            buffer.clear().position(SNAPSHOT_BLOCK_HEADER_BYTES);
+            entryCount = 0;
+        }
+
+        private static void putEntry(ByteBuffer target, byte[] key, byte[] value, long ttlMillis) {
+            target.putInt(key.length).put(key).putInt(value.length).put(value).putLong(ttlMillis);
+        }
+    }
+
+    /**
+     * Возвращает количество записей, вытесненных из-за ограничения {@code maximumSize}
+     * (без учета удаленных по истечении TTL).
+     *
+     * @return Количество вытеснений.
+     */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Возвращает снимок статистики кеша. Если статистика не включена ({@link Builder#recordStats()}),
+     * все счетчики, кроме количества вытеснений, равны нулю.
+     *
+     * @return Неизменяемый снимок счетчиков.
+     */
+    public CacheStats snapshot() {
+        return stats.snapshot(evictionCount.sum());
+    }
+
+    /**
+     * Вытесняет записи, пока их количество превышает {@code maximumSize}.
+     * Каждая жертва выбирается из выборки {@code evictionSampleSize} записей.
+     */
+    private void evictIfNeeded() {
+        evictionLock.lock();
+        try {
+            while (cache.size() > maximumSize) {
+                long now = System.nanoTime();
+                CacheEntry<K, V> victim = sampleVictim(now);
+                if (victim == null) {
+                    return; // Карту опустошили конкурентные удаления
+                }
+                if (cache.remove(victim.key, victim)) {
+                    unscheduleExpiry(victim);
+                    if (victim.isExpired(now)) {
+                        stats.recordExpiration();
+                    } else {
+                        evictionCount.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Берет очередные записи из курсора (порядок хеш-таблицы не связан ни с давностью, ни со сроком
+     * жизни, поэтому подряд идущие записи - это фактически случайная выборка) и выбирает жертву.
+     * Истекшая запись выбирается сразу.
+     */
+    private CacheEntry<K, V> sampleVictim(long nowNanos) {
+        CacheEntry<K, V> victim = null;
+        for (int i = 0; i < evictionSampleSize; i++) {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                evictionCursor = cache.values().iterator();
+                if (!evictionCursor.hasNext()) {
+                    break;
+                }
+            }
+            CacheEntry<K, V> candidate = evictionCursor.next();
+            if (candidate.isExpired(nowNanos)) {
+                return candidate;
+            }
+            if (victim == null || evictionPolicy.prefers(candidate, victim)) {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Политика выбора жертвы среди выборки при превышении {@code maximumSize}.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Вытесняется запись с самым давним обращением (приближенный LRU, точность ~1 мс).
+         */
+        LEAST_RECENTLY_USED {
+            @Override
+            boolean prefers(CacheEntry<?, ?> candidate, CacheEntry<?, ?> victim) {
+                return candidate.lastAccessTick < victim.lastAccessTick;
+            }
+        },
+        /**
+         * Вытесняется запись, которая истечет раньше остальных (аналог volatile-ttl в Redis).
+         */
+        SOONEST_EXPIRING {
+            @Override
+            boolean prefers(CacheEntry<?, ?> candidate, CacheEntry<?, ?> victim) {
+                return candidate.expiryNanos - victim.expiryNanos < 0;
+            }
+        };
+
+        /**
+         * Возвращает {@code true}, если {@code candidate} - лучшая жертва, чем {@code victim}.
+         */
+        abstract boolean prefers(CacheEntry<?, ?> candidate, CacheEntry<?, ?> victim);
+    }
+
+    /**
+     * Внутренний класс для хранения записи кеша: ключ, значение и момент устаревания.
      * Сделан static, т.к. не требует доступа к полям внешнего класса Cache.
+     * Ключ хранится в записи, чтобы корзина истечения могла удалить запись из карты.
      */
-    private static class CacheEntry<V> {
+    private static class CacheEntry<K, V> {
+        final K key;
         final V value;
-        final Instant expiryTime; // Время устаревания UTC
+        final long writeNanos; // Момент записи - от него отсчитывается refreshAfter
+        final long expiryNanos; // Момент устаревания по шкале System.nanoTime()
+        volatile long lastAccessTick; // Последнее обращение в грубых "тиках" (только для maximumSize)
 
-        CacheEntry(V value, long ttlMillis) {
+        CacheEntry(K key, V value, long ttlMillis) {
+            this(key, value, ttlMillis, System.nanoTime());
+        }
+
+        CacheEntry(K key, V value, long ttlMillis, long nowNanos) {
+            this.key = key;
             this.value = value;
-            // Рассчитываем время устаревания от текущего момента
-            this.expiryTime = Instant.now().plusMillis(ttlMillis);
+            // Рассчитываем время устаревания от момента записи
+            this.writeNanos = nowNanos;
+            this.expiryNanos = writeNanos + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            this.lastAccessTick = writeNanos >> ACCESS_TICK_SHIFT;
         }
 
         /**
-         * Проверяет, истекло ли время жизни записи.
+         * Запоминает обращение. Запись в поле выполняется не чаще раза за тик,
+         * чтобы частые чтения не "гоняли" строку кеша процессора между ядрами.
          */
-        boolean isExpired() {
-            return !Instant.now().isBefore(expiryTime); // Истекло, если now >= expiryTime
+        void recordAccess(long nowNanos) {
+            long tick = nowNanos >> ACCESS_TICK_SHIFT;
+            if (lastAccessTick != tick) {
+                lastAccessTick = tick;
+            }
+        }
+
+        /**
+         * Проверяет, истекло ли время жизни записи на момент {@code nowNanos}.
+         */
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiryNanos >= 0; // Истекло, если now >= expiry (с учетом переполнения nanoTime)
         }
 
         @Override
         public String toString() {
-            return "CacheEntry{value=" + value + ", expires=" + expiryTime + '}';
+            return "CacheEntry{key=" + key + ", value=" + value + ", expiryNanos=" + expiryNanos + '}';
         }
     }
 
+    /**
+     * Корзина истечения: записи, чье время устаревания попадает в один интервал шириной 2^BUCKET_SHIFT нс.
+     * После того как очистка "закрыла" корзину, добавление в нее невозможно - писатель создаст новую.
+     */
+    private static final class ExpiryBucket<K, V> {
+        // Множество по идентичности записи (equals не переопределен) - вытеснение удаляет запись за O(1)
+        private final Set<CacheEntry<K, V>> entries = new HashSet<>();
+        private boolean closed;
+
+        synchronized boolean add(CacheEntry<K, V> entry) {
+            if (closed) {
+                return false;
+            }
+            entries.add(entry);
+            return true;
+        }
+
+        /**
+         * Закрывает корзину и забирает ее записи. Возвращается копия, снятая под монитором: живое
+         * множество нельзя обходить без блокировки - конкурентный {@link #remove} бросил бы
+         * ConcurrentModificationException в потоке очистки.
+         */
+        synchronized Collection<CacheEntry<K, V>> close() {
+            closed = true;
+            List<CacheEntry<K, V>> drained = new ArrayList<>(entries);
+            entries.clear();
+            return drained;
+        }
+
+        synchronized void remove(CacheEntry<K, V> entry) {
+            entries.remove(entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void removeExpired(long nowNanos, Map<K, CacheEntry<K, V>> cache, StatsCounter stats) {
+            entries.removeIf(entry -> {
+                if (entry.isExpired(nowNanos)) {
+                    if (cache.remove(entry.key, entry)) {
+                        stats.recordExpiration();
+                    }
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Регистрирует запись в корзине истечения, соответствующей ее времени устаревания.
+     */
+    private void scheduleExpiry(CacheEntry<K, V> entry) {
+        long bucket = entry.expiryNanos >> BUCKET_SHIFT;
+        while (!expiryBuckets.computeIfAbsent(bucket, b -> new ExpiryBucket<>()).add(entry)) {
+            // Корзину только что закрыла очистка и уже удалила из карты - создаем новую
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Регистрирует только что опубликованную в карте запись. Если ее успели заменить или удалить
+     * до регистрации, заменивший поток не нашел ее в корзине - убираем ее оттуда сами.
+     */
+    private void scheduleIfCurrent(CacheEntry<K, V> entry) {
+        scheduleExpiry(entry);
+        if (cache.get(entry.key) != entry) {
+            unscheduleExpiry(entry);
+        }
+    }
+
+    /**
+     * Убирает покинувшую карту запись (перезапись, удаление, вытеснение) из ее корзины,
+     * чтобы корзина не удерживала ее до истечения TTL.
+     */
+    private void unscheduleExpiry(CacheEntry<K, V> entry) {
+        ExpiryBucket<K, V> bucket = expiryBuckets.get(entry.expiryNanos >> BUCKET_SHIFT);
+        if (bucket != null) {
+            bucket.remove(entry);
+        }
+    }
+
+    /**
+     * Возвращает общее количество записей во всех корзинах истечения (для тестов удержания памяти).
+     */
+    int scheduledEntryCount() {
+        int count = 0;
+        for (ExpiryBucket<K, V> bucket : expiryBuckets.values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
     /**
      * Принудительно удаляет все устаревшие записи из кеша.
      * Может быть вызван вручную или фоновым потоком.
+     * Просматриваются только корзины истечения, чье время наступило: полностью прошедшие
+     * корзины удаляются целиком, в текущей (частично прошедшей) проверяется каждая запись.
+     * Записи, которые были перезаписаны или удалены, в карте не трогаются
+     * (удаление выполняется по паре ключ + конкретная запись).
      */
     public void removeExpiredEntries() {
-        if (backgroundCleanupEnabled) { // Добавим лог только если включена фоновая очистка
-            System.out.println("[Cache Cleanup] Checking for expired entries... Size before: " + cache.size());
+        long now = System.nanoTime();
+        long currentBucket = now >> BUCKET_SHIFT;
+        Map.Entry<Long, ExpiryBucket<K, V>> first;
+        while ((first = expiryBuckets.firstEntry()) != null && first.getKey() < currentBucket) {
+            if (expiryBuckets.remove(first.getKey(), first.getValue())) {
+                // Корзина целиком в прошлом - все ее записи гарантированно устарели
+                for (CacheEntry<K, V> entry : first.getValue().close()) {
+                    if (cache.remove(entry.key, entry)) {
+                        stats.recordExpiration();
+                    }
+                }
+            }
         }
-        // removeIf - потокобезопасный способ удаления из ConcurrentHashMap во время итерации
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        if (backgroundCleanupEnabled) {
-            System.out.println("[Cache Cleanup] Cleanup finished. Size after: " + cache.size());
+        ExpiryBucket<K, V> partial = expiryBuckets.get(currentBucket);
+        if (partial != null) {
+            partial.removeExpired(now, cache, stats);
         }
     }
 
     /**
-     * Останавливает фоновый поток очистки, если он был запущен.
+     * Останавливает фоновый поток очистки, если он был запущен,
+     * или отменяет регистрацию кеша в общем {@link CacheMaintenanceService}.
      */
     public void shutdownCleanup() {
+        if (maintenance != null) {
+            maintenance.cancel();
+        }
         if (cleanupScheduler != null && !cleanupScheduler.isShutdown()) {
-            System.out.println("[Cache] Shutting down cleanup scheduler...");
             cleanupScheduler.shutdown();
             try {
                 if (!cleanupScheduler.awaitTermination(1, TimeUnit.SECONDS)) {
                     cleanupScheduler.shutdownNow();
                 }
-                System.out.println("[Cache] Cleanup scheduler shut down.");
             } catch (InterruptedException e) {
                 cleanupScheduler.shutdownNow();
                 Thread.currentThread().interrupt();
-                System.err.println("[Cache] Cleanup shutdown interrupted.");
             }
         }
     }
+
+    /**
+     * Неизменяемый снимок статистики кеша.
+     * Гистограмма времени загрузки логарифмическая: корзина {@code i} считает загрузки
+     * длительностью [2^i, 2^(i+1)) нс, поэтому перцентили точны с точностью до степени двойки.
+     */
+    public static final class CacheStats {
+        private final long hitCount;
+        private final long missCount;
+        private final long expirationCount;
+        private final long removalCount;
+        private final long evictionCount;
+        private final long loadSuccessCount;
+        private final long loadFailureCount;
+        private final long totalLoadTimeNanos;
+        private final long[] loadLatencyHistogram;
+
+        CacheStats(long hitCount, long missCount, long expirationCount, long removalCount, long evictionCount,
+                   long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos, long[] loadLatencyHistogram) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.expirationCount = expirationCount;
+            this.removalCount = removalCount;
+            this.evictionCount = evictionCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTimeNanos = totalLoadTimeNanos;
+            this.loadLatencyHistogram = loadLatencyHistogram;
+        }
+
+        /**
+         * Количество обращений, нашедших актуальную запись.
+         */
+        public long hitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Количество обращений, не нашедших актуальную запись.
+         */
+        public long missCount() {
+            return missCount;
+        }
+
+        /**
+         * Общее количество обращений (попадания + промахи).
+         */
+        public long requestCount() {
+            return hitCount + missCount;
+        }
+
+        /**
+         * Доля попаданий среди обращений (1.0, если обращений не было).
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        /**
+         * Количество записей, удаленных по истечении TTL (лениво, фоновой очисткой или при вытеснении).
+         */
+        public long expirationCount() {
+            return expirationCount;
+        }
+
+        /**
+         * Количество явных удалений через {@link SimpleInMemoryCache#remove(Object)}.
+         */
+        public long removalCount() {
+            return removalCount;
+        }
+
+        /**
+         * Количество вытеснений из-за {@code maximumSize}.
+         */
+        public long evictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Количество загрузок, вернувших значение.
+         */
+        public long loadSuccessCount() {
+            return loadSuccessCount;
+        }
+
+        /**
+         * Количество неуспешных загрузок: исключение или null от загрузчика.
+         */
+        public long loadFailureCount() {
+            return loadFailureCount;
+        }
+
+        /**
+         * Общее количество загрузок, включая фоновые обновления.
+         */
+        public long loadCount() {
+            return loadSuccessCount + loadFailureCount;
+        }
+
+        /**
+         * Суммарное время всех загрузок в нс.
+         */
+        public long totalLoadTimeNanos() {
+            return totalLoadTimeNanos;
+        }
+
+        /**
+         * Среднее время загрузки в нс (0, если загрузок не было).
+         */
+        public double averageLoadPenaltyNanos() {
+            long loads = loadCount();
+            return loads == 0 ? 0.0 : (double) totalLoadTimeNanos / loads;
+        }
+
+        /**
+         * Возвращает копию гистограммы времени загрузки: элемент {@code i} - количество загрузок
+         * длительностью [2^i, 2^(i+1)) нс.
+         */
+        public long[] loadLatencyHistogram() {
+            return loadLatencyHistogram.clone();
+        }
+
+        /**
+         * Оценивает перцентиль времени загрузки как верхнюю границу корзины гистограммы.
+         *
+         * @param percentile Перцентиль в диапазоне (0, 100].
+         * @return Время в нс (0, если загрузок не было).
+         * @throws IllegalArgumentException если перцентиль вне диапазона.
+         */
+        public long loadLatencyPercentileNanos(double percentile) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+            }
+            long total = loadCount();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < loadLatencyHistogram.length; i++) {
+                seen += loadLatencyHistogram[i];
+                if (seen >= rank) {
+                    return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStats{hits=" + hitCount + ", misses=" + missCount
+                    + ", hitRate=" + String.format("%.4f", hitRate())
+                    + ", expirations=" + expirationCount + ", removals=" + removalCount
+                    + ", evictions=" + evictionCount + ", loadSuccess=" + loadSuccessCount
+                    + ", loadFailure=" + loadFailureCount + ", totalLoadTimeNanos=" + totalLoadTimeNanos + '}';
+        }
+    }
+
+    /**
+     * Приемник событий статистики. {@link #DISABLED} ничего не делает: вызовы его пустых
+     * методов JIT встраивает и удаляет, поэтому выключенная статистика почти ничего не стоит.
+     */
+    private interface StatsCounter {
+        StatsCounter DISABLED = new StatsCounter() {
+        };
+
+        default void recordHit() {
+        }
+
+        default void recordMiss() {
+        }
+
+        default void recordExpiration() {
+        }
+
+        default void recordRemoval() {
+        }
+
+        default void recordLoadSuccess(long loadNanos) {
+        }
+
+        default void recordLoadFailure(long loadNanos) {
+        }
+
+        default CacheStats snapshot(long evictions) {
+            return new CacheStats(0, 0, 0, 0, evictions, 0, 0, 0, new long[Long.SIZE]);
+        }
+    }
+
+    /**
+     * Потокобезопасные счетчики на {@link LongAdder}: конкурентные инкременты расходятся
+     * по разным ячейкам и не конкурируют за одну строку кеша процессора.
+     */
+    private static final class ConcurrentStatsCounter implements StatsCounter {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder expirations = new LongAdder();
+        private final LongAdder removals = new LongAdder();
+        private final LongAdder loadSuccesses = new LongAdder();
+        private final LongAdder loadFailures = new LongAdder();
+        private final LongAdder totalLoadTime = new LongAdder();
+        private final LongAdder[] loadLatency = new LongAdder[Long.SIZE];
+
+        ConcurrentStatsCounter() {
+            for (int i = 0; i < loadLatency.length; i++) {
+                loadLatency[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void recordHit() {
+            hits.increment();
+        }
+
+        @Override
+        public void recordMiss() {
+            misses.increment();
+        }
+
+        @Override
+        public void recordExpiration() {
+            expirations.increment();
+        }
+
+        @Override
+        public void recordRemoval() {
+            removals.increment();
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadNanos) {
+            loadSuccesses.increment();
+            recordLoadTime(loadNanos);
+        }
+
+        @Override
+        public void recordLoadFailure(long loadNanos) {
+            loadFailures.increment();
+            recordLoadTime(loadNanos);
+        }
+
+        private void recordLoadTime(long loadNanos) {
+            long nanos = Math.max(1, loadNanos);
+            totalLoadTime.add(nanos);
+            loadLatency[Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos)].increment(); // floor(log2(nanos))
+        }
+
+        @Override
+        public CacheStats snapshot(long evictions) {
+            long[] histogram = new long[loadLatency.length];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = loadLatency[i].sum();
+            }
+            return new CacheStats(hits.sum(), misses.sum(), expirations.sum(), removals.sum(), evictions,
+                    loadSuccesses.sum(), loadFailures.sum(), totalLoadTime.sum(), histogram);
+        }
+    }
+
+    /**
+     * Построитель {@link SimpleInMemoryCache}.
+     *
+     * @param <K> Тип ключей кеша.
+     * @param <V> Тип значений кеша.
+     */
+    public static final class Builder<K, V> {
+        private final long defaultTtlMillis;
+        private boolean backgroundCleanup;
+        private CacheMaintenanceService maintenanceService;
+        private long refreshAfterMillis;
+        private Function<? super K, ? extends V> refreshLoader;
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+        private long maximumSize;
+        private int evictionSampleSize = DEFAULT_EVICTION_SAMPLE_SIZE;
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+        private boolean recordStats;
+
+        private Builder(long defaultTtlMillis) {
+            if (defaultTtlMillis <= 0) {
+                throw new IllegalArgumentException("Default TTL must be positive.");
+            }
+            this.defaultTtlMillis = defaultTtlMillis;
+        }
+
+        /**
+         * Включает периодическую фоновую очистку устаревших записей.
+         *
+         * @param enabled {@code true} для запуска фоновой очистки.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> backgroundCleanup(boolean enabled) {
+            this.backgroundCleanup = enabled;
+            return this;
+        }
+
+        /**
+         * Включает фоновую очистку в общем сервисе вместо собственного потока кеша:
+         * количество потоков не зависит от количества кешей.
+         *
+         * @param service Сервис очистки (не null), например {@link CacheMaintenanceService#shared()}.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> maintenanceService(CacheMaintenanceService service) {
+            this.maintenanceService = Objects.requireNonNull(service, "Maintenance service cannot be null");
+            return this;
+        }
+
+        /**
+         * Задает возраст записи, после которого чтение запускает фоновое обновление.
+         * Должен быть меньше TTL по умолчанию.
+         *
+         * @param refreshAfterMillis Возраст записи в мс (> 0).
+         * @return Этот построитель.
+         * @throws IllegalArgumentException если значение не положительное.
+         */
+        public Builder<K, V> refreshAfter(long refreshAfterMillis) {
+            if (refreshAfterMillis <= 0) {
+                throw new IllegalArgumentException("Refresh interval must be positive.");
+            }
+            this.refreshAfterMillis = refreshAfterMillis;
+            return this;
+        }
+
+        /**
+         * Задает функцию обновления для {@link SimpleInMemoryCache#get(Object)}.
+         * {@code get(key, loader)} и {@code getAsync} обновляют запись переданным загрузчиком.
+         *
+         * @param refreshLoader Функция загрузки значения (не null).
+         * @return Этот построитель.
+         */
+        public Builder<K, V> refreshLoader(Function<? super K, ? extends V> refreshLoader) {
+            this.refreshLoader = Objects.requireNonNull(refreshLoader, "Loader cannot be null");
+            return this;
+        }
+
+        /**
+         * Задает исполнитель фоновых обновлений (по умолчанию {@link ForkJoinPool#commonPool()}).
+         * Для блокирующих загрузчиков лучше выделенный пул; на Java 21+ подойдет
+         * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+         *
+         * @param executor Исполнитель (не null).
+         * @return Этот построитель.
+         */
+        public Builder<K, V> refreshExecutor(Executor executor) {
+            this.refreshExecutor = Objects.requireNonNull(executor, "Executor cannot be null");
+            return this;
+        }
+
+        /**
+         * Ограничивает количество записей. При переполнении вытесняется запись,
+         * выбранная по {@link EvictionPolicy} из случайной выборки.
+         *
+         * @param maximumSize Максимальное количество записей (> 0).
+         * @return Этот построитель.
+         * @throws IllegalArgumentException если значение не положительное.
+         */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Задает размер выборки для выбора жертвы (по умолчанию 5). Больше - точнее, но дороже вытеснение.
+         *
+         * @param sampleSize Количество записей в выборке (> 0).
+         * @return Этот построитель.
+         * @throws IllegalArgumentException если значение не положительное.
+         */
+        public Builder<K, V> evictionSampleSize(int sampleSize) {
+            if (sampleSize <= 0) {
+                throw new IllegalArgumentException("Eviction sample size must be positive: " + sampleSize);
+            }
+            this.evictionSampleSize = sampleSize;
+            return this;
+        }
+
+        /**
+         * Задает политику выбора жертвы (по умолчанию {@link EvictionPolicy#LEAST_RECENTLY_USED}).
+         *
+         * @param policy Политика (не null).
+         * @return Этот построитель.
+         */
+        public Builder<K, V> evictionPolicy(EvictionPolicy policy) {
+            this.evictionPolicy = Objects.requireNonNull(policy, "Eviction policy cannot be null");
+            return this;
+        }
+
+        /**
+         * Включает сбор статистики, доступной через {@link SimpleInMemoryCache#snapshot()}.
+         *
+         * @return Этот построитель.
+         */
+        public Builder<K, V> recordStats() {
+            this.recordStats = true;
+            return this;
+        }
+
+        /**
+         * Создает кеш с заданными настройками.
+         *
+         * @return Новый кеш.
+         * @throws IllegalArgumentException если refreshAfter не меньше TTL по умолчанию.
+         */
+        public SimpleInMemoryCache<K, V> build() {
+            if (refreshAfterMillis >= defaultTtlMillis) {
+                throw new IllegalArgumentException("Refresh interval must be shorter than the default TTL.");
+            }
+            return new SimpleInMemoryCache<>(this);
+        }
+    }
 }
@@ -0,0 +1,234 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Objects;
+
+/**
+ * Медиана скользящего окна из последних N чисел - вариант {@link MedianFinder} для потока,
+ * в котором старые значения должны "забываться" (например, медиана последних N задержек запросов).
+ * Описание: та же схема из двух куч, но каждую кучу можно уменьшить не только с вершины:
+ * <ul>
+ *     <li>Значения окна лежат в кольцевом буфере; самое старое значение - в ячейке, куда будет
+ *     записано следующее.</li>
+ *     <li>Кучи хранят не значения, а номера ячеек буфера и для каждой ячейки помнят ее позицию
+ *     в куче (indexed heap), поэтому вытеснение самого старого значения - удаление из середины
+ *     кучи за O(log N), без "ленивого" удаления и карты отложенных удалений.</li>
+ *     <li>После каждого добавления размеры куч выравниваются: нижняя (max-куча) равна верхней
+ *     (min-куче) или больше на 1.</li>
+ * </ul>
+ * {@code add} - O(log N), {@code median} - O(1); после создания память не выделяется.
+ * Не является потокобезопасным (non-thread-safe), как и {@link MedianFinder}.
+ * Пример:
+ * `SlidingWindowMedian.medians(new int[]{1, 3, -1, -3, 5, 3, 6, 7}, 3)` // [1.0, -1.0, -1.0, 3.0, 5.0, 6.0]
+ */
+public class SlidingWindowMedian {
+
+    private final int window;
+    private final int[] values;    // Кольцевой буфер значений окна
+    private final int[] position;  // Ячейка -> индекс в ее куче
+    private final boolean[] inLower; // Ячейка -> лежит ли в нижней куче
+    private final IndexedHeap lower; // Меньшая половина, вершина - максимум
+    private final IndexedHeap upper; // Большая половина, вершина - минимум
+    private int next; // Ячейка для следующего значения (при полном окне - самое старое значение)
+    private int size;
+
+    /**
+     * Создает пустое окно заданного размера.
+     *
+     * @param window Размер окна (> 0).
+     * @throws IllegalArgumentException если window не положительный.
+     */
+    public SlidingWindowMedian(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        this.values = new int[window];
+        this.position = new int[window];
+        this.inLower = new boolean[window];
+        // До выравнивания одна куча может временно содержать на 1-2 элемента больше половины окна
+        this.lower = new IndexedHeap(window + 1, true);
+        this.upper = new IndexedHeap(window + 1, false);
+    }
+
+    /**
+     * Вычисляет медианы всех окон массива (для пересчета по сохраненным данным).
+     *
+     * @param data   Данные (не null).
+     * @param window Размер окна (> 0).
+     * @return Массив из {@code data.length - window + 1} медиан (пустой, если данных меньше окна).
+     * @throws IllegalArgumentException если window не положительный.
+     */
+    public static double[] medians(int[] data, int window) {
+        Objects.requireNonNull(data, "Data cannot be null");
+        SlidingWindowMedian median = new SlidingWindowMedian(window);
+        if (data.length < window) {
+            return new double[0];
+        }
+        double[] result = new double[data.length - window + 1];
+        for (int i = 0; i < data.length; i++) {
+            median.add(data[i]);
+            if (i >= window - 1) {
+                result[i - window + 1] = median.median();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Добавляет значение; если окно заполнено, самое старое значение вытесняется.
+     *
+     * @param value Добавляемое значение.
+     */
+    public void add(int value) {
+        int slot = next;
+        if (size == window) {
+            heapOf(slot).remove(position[slot]);
+        } else {
+            size++;
+        }
+        values[slot] = value;
+        if (lower.size == 0 || value <= values[lower.top()]) {
+            inLower[slot] = true;
+            lower.push(slot);
+        } else {
+            inLower[slot] = false;
+            upper.push(slot);
+        }
+        rebalance();
+        next = slot + 1 == window ? 0 : slot + 1;
+    }
+
+    /**
+     * Возвращает медиану значений в окне.
+     *
+     * @return Медиана или 0.0, если значений еще нет (как в {@link MedianFinder}).
+     */
+    public double median() {
+        if (size == 0) {
+            return 0.0;
+        }
+        if (lower.size == upper.size) {
+            return ((long) values[lower.top()] + values[upper.top()]) / 2.0; // Сумма в long - без переполнения
+        }
+        return values[lower.top()];
+    }
+
+    /**
+     * Возвращает количество значений в окне (не больше размера окна).
+     *
+     * @return Количество значений.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает размер окна.
+     *
+     * @return Размер окна.
+     */
+    public int window() {
+        return window;
+    }
+
+    private IndexedHeap heapOf(int slot) {
+        return inLower[slot] ? lower : upper;
+    }
+
+    private void rebalance() {
+        while (lower.size > upper.size + 1) {
+            int slot = lower.pop();
+            inLower[slot] = false;
+            upper.push(slot);
+        }
+        while (upper.size > lower.size) {
+            int slot = upper.pop();
+            inLower[slot] = true;
+            lower.push(slot);
+        }
+    }
+
+    /**
+     * Двоичная куча номеров ячеек, упорядоченная по {@code values[ячейка]}, с поддержкой удаления
+     * по индексу: позиция каждой ячейки в куче хранится в {@code position}.
+     */
+    private final class IndexedHeap {
+        private final int[] slots;
+        private final boolean max;
+        private int size;
+
+        IndexedHeap(int capacity, boolean max) {
+            this.slots = new int[capacity];
+            this.max = max;
+        }
+
+        int top() {
+            return slots[0];
+        }
+
+        void push(int slot) {
+            set(size, slot);
+            siftUp(size++);
+        }
+
+        int pop() {
+            int top = slots[0];
+            remove(0);
+            return top;
+        }
+
+        void remove(int index) {
+            int last = slots[--size];
+            if (index == size) {
+                return;
+            }
+            set(index, last);
+            // Перемещенный элемент может нарушать порядок в любую сторону
+            siftDown(index);
+            siftUp(position[last]);
+        }
+
+        /**
+         * {@code true}, если ячейка {@code a} должна быть ближе к вершине, чем {@code b}.
+         */
+        private boolean above(int a, int b) {
+            return max ? values[a] > values[b] : values[a] < values[b];
+        }
+
+        private void siftUp(int index) {
+            int slot = slots[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!above(slot, slots[parent])) {
+                    break;
+                }
+                set(index, slots[parent]);
+                index = parent;
+            }
+            set(index, slot);
+        }
+
+        private void siftDown(int index) {
+            int slot = slots[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < size && above(slots[right], slots[child])) {
+                    child = right;
+                }
+                if (!above(slots[child], slot)) {
+                    break;
+                }
+                set(index, slots[child]);
+                index = child;
+            }
+            set(index, slot);
+        }
+
+        private void set(int index, int slot) {
+            slots[index] = slot;
+            position[slot] = index;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Неблокирующий (lock-free) стек Трайбера с необязательным массивом исключения (elimination backoff) -
+ * потокобезопасная альтернатива {@link ImplementStackQueue.MyStack}, например для пула объектов.
+ * Описание:
+ * <ul>
+ *     <li>Стек - односвязный список, вершина - {@link AtomicReference}. {@code push} и {@code pop}
+ *     подменяют вершину CAS-ом и повторяют попытку, если вершину успел изменить другой поток.
+ *     Каждый {@code push} создает новый узел, поэтому проблемы ABA нет: узел не переиспользуется,
+ *     пока на него есть ссылки (за этим следит сборщик мусора).</li>
+ *     <li>При сильной конкуренции все потоки бьются в одну вершину. Если CAS не удался, поток
+ *     обращается к случайной ячейке массива исключения: {@code push} оставляет там свой узел
+ *     на короткое время, а {@code pop} забирает его оттуда. Встретившиеся push и pop "взаимно
+ *     уничтожаются" без обращения к вершине: это эквивалентно push, сразу за которым выполнен pop.</li>
+ * </ul>
+ * {@code null} не допускается: {@link #pop()} возвращает {@code null} для пустого стека.
+ * Пример:
+ * `TreiberStack<ByteBuffer> pool = new TreiberStack<>(8);`
+ * `ByteBuffer buffer = pool.pop(); if (buffer == null) buffer = ByteBuffer.allocate(4096);`
+ * `pool.push(buffer);`
+ */
+public class TreiberStack<E> {
+
+    private static final int ELIMINATION_SPINS = 64; // Сколько итераций push ждет встречный pop
+    private static final Object TAKEN = new Object(); // Ячейка: узел забран, владелец еще не очистил
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+    private final AtomicReferenceArray<Object> eliminationSlots; // null, если исключение выключено
+
+    /**
+     * Создает стек без массива исключения.
+     */
+    public TreiberStack() {
+        this(0);
+    }
+
+    /**
+     * Создает стек с массивом исключения.
+     *
+     * @param eliminationSlots Количество ячеек (>= 0); 0 - без исключения.
+     *                         Разумное значение - порядка половины числа конкурирующих потоков.
+     * @throws IllegalArgumentException если количество отрицательное.
+     */
+    public TreiberStack(int eliminationSlots) {
+        if (eliminationSlots < 0) {
+            throw new IllegalArgumentException("Elimination slots cannot be negative: " + eliminationSlots);
+        }
+        this.eliminationSlots = eliminationSlots == 0 ? null : new AtomicReferenceArray<>(eliminationSlots);
+    }
+
+    /**
+     * Кладет элемент на вершину стека.
+     *
+     * @param element Элемент (не null).
+     */
+    public void push(E element) {
+        Node<E> node = new Node<>(Objects.requireNonNull(element, "Element cannot be null"));
+        while (true) {
+            Node<E> current = top.get();
+            node.next = current;
+            if (top.compareAndSet(current, node)) {
+                return;
+            }
+            if (eliminationSlots != null && tryEliminatePush(node)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Снимает элемент с вершины стека.
+     *
+     * @return Элемент или {@code null}, если стек пуст.
+     */
+    public E pop() {
+        while (true) {
+            Node<E> current = top.get();
+            if (current == null) {
+                // Параллельный push, ожидающий в массиве исключения, можно считать выполненным до этого pop
+                return eliminationSlots != null ? tryEliminatePop() : null;
+            }
+            if (top.compareAndSet(current, current.next)) {
+                return current.item;
+            }
+            if (eliminationSlots != null) {
+                E eliminated = tryEliminatePop();
+                if (eliminated != null) {
+                    return eliminated;
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает элемент с вершины без удаления.
+     *
+     * @return Элемент или {@code null}, если стек пуст.
+     */
+    public E peek() {
+        Node<E> current = top.get();
+        return current == null ? null : current.item;
+    }
+
+    /**
+     * Проверяет, пуст ли стек.
+     *
+     * @return {@code true}, если элементов нет.
+     */
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    /**
+     * Подсчитывает элементы обходом списка - O(n); при параллельных операциях результат приблизителен.
+     *
+     * @return Количество элементов.
+     */
+    public int size() {
+        int size = 0;
+        for (Node<E> node = top.get(); node != null && size < Integer.MAX_VALUE; node = node.next) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Оставляет узел в случайной ячейке и ждет встречный pop.
+     *
+     * @return {@code true}, если узел забран (push выполнен), {@code false} - повторить CAS вершины.
+     */
+    private boolean tryEliminatePush(Node<E> node) {
+        int index = ThreadLocalRandom.current().nextInt(eliminationSlots.length());
+        if (!eliminationSlots.compareAndSet(index, null, node)) {
+            return false; // Ячейка занята другим push
+        }
+        for (int i = 0; i < ELIMINATION_SPINS; i++) {
+            if (eliminationSlots.get(index) != node) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        if (eliminationSlots.compareAndSet(index, node, null)) {
+            return false; // Никто не пришел - забираем узел обратно
+        }
+        eliminationSlots.set(index, null); // Узел забран (TAKEN) - освобождаем ячейку
+        return true;
+    }
+
+    /**
+     * Забирает узел, оставленный push в случайной ячейке.
+     *
+     * @return Элемент или {@code null}, если в ячейке нет узла.
+     */
+    @SuppressWarnings("unchecked")
+    private E tryEliminatePop() {
+        int index = ThreadLocalRandom.current().nextInt(eliminationSlots.length());
+        Object value = eliminationSlots.get(index);
+        if (value instanceof Node && eliminationSlots.compareAndSet(index, value, TAKEN)) {
+            return ((Node<E>) value).item;
+        }
+        return null;
+    }
+
+    /**
+     * Узел списка. {@code next} записывается до публикации узла CAS-ом вершины и больше не меняется.
+     */
+    private static final class Node<E> {
+        final E item;
+        Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Кеш с политикой вытеснения W-TinyLFU - альтернатива {@link LRUCache} для нагрузки
+ * с "проходами" (scan) по большому количеству однократно запрашиваемых ключей.
+ * Описание: {@link LRUCache} вытесняет строго по давности, поэтому один массовый проход
+ * вымывает "горячее" рабочее множество. W-TinyLFU добавляет фильтр допуска по частоте:
+ * <ul>
+ *     <li><b>Окно (window, ~1% емкости)</b> - маленький LRU, куда попадают все новые записи.
+ *     Позволяет пережить короткие всплески популярности новых ключей.</li>
+ *     <li><b>Основная область (main, ~99%)</b> - Segmented LRU из двух частей:
+ *     испытательной (probation) и защищенной (protected, 80% основной области).
+ *     Повторное обращение к записи в probation переводит ее в protected.</li>
+ *     <li><b>Допуск (admission)</b> - запись, вытесненная из окна (кандидат), попадает
+ *     в основную область, только если {@link FrequencySketch} оценивает ее частоту выше,
+ *     чем у жертвы - самой старой записи probation. Иначе вытесняется сам кандидат.</li>
+ * </ul>
+ * API повторяет {@link LRUCache}: {@code get}, {@code put}, емкость задается в конструкторе.
+ * Не является потокобезопасным (non-thread-safe), как и {@link LRUCache}.
+ *
+ * @param <K> Тип ключей кеша.
+ * @param <V> Тип значений кеша.
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final double WINDOW_PERCENT = 0.01;
+    private static final double PROTECTED_PERCENT = 0.80;
+
+    private final Map<K, Node<K, V>> data;
+    private final FrequencySketch<K> sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedSegment = new AccessOrderDeque<>();
+    private final int capacity;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+
+    /**
+     * Создает W-TinyLFU кеш с заданной максимальной емкостью.
+     *
+     * @param capacity Максимальное количество элементов в кеше. Должна быть > 0.
+     * @throws IllegalArgumentException если capacity не положительная.
+     */
+    public WTinyLfuCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.windowCapacity = Math.max(1, (int) (capacity * WINDOW_PERCENT));
+        this.protectedCapacity = (int) ((capacity - windowCapacity) * PROTECTED_PERCENT);
+        this.data = new HashMap<>((int) Math.ceil(capacity / 0.75f) + 1);
+        this.sketch = new FrequencySketch<>(capacity);
+    }
+
+    /**
+     * Возвращает значение по ключу. Любое обращение (даже промах) учитывается в частоте ключа.
+     *
+     * @param key Ключ для поиска (не null).
+     * @return Значение или {@code null}, если ключ отсутствует.
+     */
+    public V get(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Добавляет или обновляет пару ключ-значение. Новая запись попадает в окно;
+     * при переполнении решение о вытеснении принимает фильтр допуска.
+     *
+     * @param key   Ключ (не null).
+     * @param value Значение (не null).
+     * @return Предыдущее значение или {@code null}, если ключа не было.
+     */
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Objects.requireNonNull(value, "Cache value cannot be null");
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            V oldValue = node.value;
+            node.value = value;
+            onHit(node);
+            return oldValue;
+        }
+        node = new Node<>(key, value);
+        data.put(key, node);
+        node.segment = Segment.WINDOW;
+        window.addLast(node);
+        if (window.size() > windowCapacity) {
+            // Самая старая запись окна становится кандидатом в основную область
+            Node<K, V> candidate = window.pollFirst();
+            candidate.segment = Segment.PROBATION;
+            probation.addLast(candidate);
+        }
+        if (data.size() > capacity) {
+            evict();
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет запись по ключу.
+     *
+     * @param key Ключ для удаления (не null).
+     * @return Удаленное значение или {@code null}, если ключа не было.
+     */
+    public V remove(K key) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        segmentOf(node).remove(node);
+        return node.value;
+    }
+
+    /**
+     * Возвращает текущее количество записей.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Возвращает максимальную емкость кеша.
+     *
+     * @return Емкость кеша.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Проверяет наличие ключа, не изменяя порядок и частоту.
+     *
+     * @param key Ключ (не null).
+     * @return {@code true}, если ключ присутствует в кеше.
+     */
+    public boolean containsKey(K key) {
+        return data.containsKey(key);
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                // Повторное обращение - запись заслуживает защищенной области
+                probation.remove(node);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.addLast(node);
+                if (protectedSegment.size() > protectedCapacity) {
+                    Node<K, V> demoted = protectedSegment.pollFirst();
+                    demoted.segment = Segment.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+        }
+    }
+
+    /**
+     * Сравнивает кандидата (самая свежая запись probation, только что пришедшая из окна)
+     * с жертвой (самая старая запись probation) и вытесняет менее популярную.
+     */
+    private void evict() {
+        Node<K, V> victim = probation.peekFirst();
+        Node<K, V> candidate = probation.peekLast();
+        Node<K, V> evicted;
+        if (victim == null) {
+            // Основная область пуста (очень малая емкость) - вытесняем из защищенной или окна
+            evicted = protectedSegment.isEmpty() ? window.peekFirst() : protectedSegment.peekFirst();
+        } else if (victim == candidate) {
+            evicted = victim;
+        } else {
+            evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+        }
+        segmentOf(evicted).remove(evicted);
+        data.remove(evicted.key);
+    }
+
+    private AccessOrderDeque<K, V> segmentOf(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedSegment;
+        }
+    }
+
+    private enum Segment {WINDOW, PROBATION, PROTECTED}
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        Segment segment;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Интрузивный двусвязный список узлов: голова - самый старый, хвост - самый свежий.
+     * Все операции O(1) и не создают объектов.
+     */
+    private static final class AccessOrderDeque<K, V> {
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        Node<K, V> peekFirst() {
+            return first;
+        }
+
+        Node<K, V> peekLast() {
+            return last;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель "Fixed Window Counter" из {@link RateLimiterConcept}: не более {@code limit}
+ * разрешений в каждом интервале {@code window}, отсчитываемом от создания ограничителя.
+ * Описание: номер окна (старшие 32 бита) и счетчик в нем (младшие) упакованы в один {@link AtomicLong},
+ * поэтому смена окна и увеличение счетчика - один CAS без блокировок и выделения памяти.
+ * Недостаток алгоритма сохранен намеренно: на стыке окон проходит до {@code 2 * limit} запросов
+ * (см. {@link SlidingWindowCounterRateLimiter}).
+ * Пример:
+ * `RateLimiter limiter = new FixedWindowRateLimiter(100, 1, TimeUnit.MINUTES);`
+ */
+public class FixedWindowRateLimiter implements RateLimiter {
+
+    private final int limit;
+    private final long windowNanos;
+    private final long origin;
+    private final LongSupplier nanoClock;
+    private final AtomicLong state; // Старшие 32 бита - номер окна, младшие - выданные в нем разрешения
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param limit  Разрешений на окно (> 0).
+     * @param window Длина окна (> 0).
+     * @param unit   Единица времени окна (не null).
+     * @throws IllegalArgumentException если параметры не положительны.
+     */
+    public FixedWindowRateLimiter(int limit, long window, TimeUnit unit) {
+        this(limit, Objects.requireNonNull(unit, "Unit cannot be null").toNanos(window), System::nanoTime);
+    }
+
+    /**
+     * Конструктор с подменяемыми часами (для тестов).
+     */
+    FixedWindowRateLimiter(int limit, long windowNanos, LongSupplier nanoClock) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + windowNanos);
+        }
+        this.limit = limit;
+        this.windowNanos = windowNanos;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.origin = nanoClock.getAsLong();
+        this.state = new AtomicLong(0); // Окно 0, ничего не выдано
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits <= 0 || permits > limit) {
+            throw new IllegalArgumentException("Permits must be in [1, " + limit + "]: " + permits);
+        }
+        while (true) {
+            long current = state.get();
+            // Часы читаются после состояния: окно в state не может оказаться новее вычисленного
+            int window = (int) ((nanoClock.getAsLong() - origin) / windowNanos);
+            int used = (int) (current >>> 32) == window ? (int) current : 0; // Новое окно - счетчик с нуля
+            if (used + permits > limit) {
+                return false;
+            }
+            if (state.compareAndSet(current, ((long) window << 32) | (used + permits))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Возвращает лимит разрешений на окно.
+     *
+     * @return Лимит.
+     */
+    public int limit() {
+        return limit;
+    }
+}
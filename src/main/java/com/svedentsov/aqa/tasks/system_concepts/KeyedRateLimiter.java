@@ -0,0 +1,224 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель скорости по ключу (per-user, per-IP, per-API-key) из {@link RateLimiterConcept}
+ * для миллионов ключей.
+ * Описание: у каждого ключа свое ведро Token Bucket с общими параметрами {@code permitsPerSecond}
+ * и {@code burst}. Состояние ведра - одно число в {@link AtomicLong} (момент "пустого ведра", как в
+ * {@link TokenBucketRateLimiter}), поэтому запись в {@link ConcurrentHashMap} занимает фиксированный
+ * объем: узел карты, {@code AtomicLong} и ссылка в таблице - около 60 байт плюс сам ключ.
+ * Ведро, простоявшее полным дольше {@code idleTimeout}, ничем не отличается от нового, поэтому его
+ * можно удалить без изменения поведения. Удаление ленивое: примерно каждый 64-й вызов проходит
+ * следующую порцию карты (по {@value #SWEEP_BATCH} записей) общим итератором, отдельного потока нет;
+ * полный проход занимает около {@code 4 * size()} вызовов, поэтому память ограничена ключами, активными
+ * за {@code idleTimeout} плюс время прохода. Порция мала намеренно: каждая запись - промах кэша.
+ * Удаляемое ведро сначала помечается CAS-ом, и поток, успевший его прочитать, повторяет поиск, -
+ * токены не теряются и не выдаются дважды.
+ * Пример:
+ * `KeyedRateLimiter<String> limiter = new KeyedRateLimiter<>(10, 20, 1, TimeUnit.MINUTES);`
+ * `if (!limiter.tryAcquire(clientIp)) { return 429; }`
+ *
+ * @param <K> Тип ключа.
+ */
+public class KeyedRateLimiter<K> {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * Метка удаленного ведра. Настоящее значение {@code nanoTime() - burstNanos} ей не равно на практике.
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+    private static final int SWEEP_BATCH = 16;
+    private static final int SWEEP_EVERY_MASK = 63;
+
+    private final long nanosPerPermit;
+    private final long burst;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private Iterator<Map.Entry<K, AtomicLong>> sweepCursor; // Доступ только под флагом sweeping
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param permitsPerSecond Скорость пополнения ведра каждого ключа (> 0, не больше 10^9).
+     * @param burst            Емкость ведра - максимальный всплеск (> 0).
+     * @param idleTimeout      Сколько ведро должно простоять полным, чтобы ключ удалили (>= 0).
+     * @param unit             Единица времени idleTimeout (не null).
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public KeyedRateLimiter(double permitsPerSecond, long burst, long idleTimeout, TimeUnit unit) {
+        this(permitsPerSecond, burst, Objects.requireNonNull(unit, "Unit cannot be null").toNanos(idleTimeout),
+                System::nanoTime);
+    }
+
+    /**
+     * Конструктор с подменяемыми часами (для тестов).
+     */
+    KeyedRateLimiter(double permitsPerSecond, long burst, long idleNanos, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0 && permitsPerSecond <= NANOS_PER_SECOND)) {
+            throw new IllegalArgumentException("Permits per second must be in (0, 1e9]: " + permitsPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+        if (idleNanos < 0) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative: " + idleNanos);
+        }
+        this.nanosPerPermit = Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+        if (burst > Long.MAX_VALUE / 4 / nanosPerPermit) {
+            throw new IllegalArgumentException("Burst is too large for the rate: " + burst);
+        }
+        this.burst = burst;
+        this.burstNanos = burst * nanosPerPermit;
+        this.idleNanos = Math.min(idleNanos, Long.MAX_VALUE / 4);
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+    }
+
+    /**
+     * Пытается взять один токен для ключа без ожидания.
+     *
+     * @param key Ключ (не null).
+     * @return {@code true}, если токен получен.
+     */
+    public boolean tryAcquire(K key) {
+        return tryAcquire(key, 1);
+    }
+
+    /**
+     * Пытается взять {@code permits} токенов для ключа без ожидания: берутся все или ни одного.
+     * Новый ключ начинает с полного ведра; отказ не создает запись в карте.
+     *
+     * @param key     Ключ (не null).
+     * @param permits Количество токенов (от 1 до burst).
+     * @return {@code true}, если токены получены.
+     * @throws IllegalArgumentException если permits вне диапазона.
+     */
+    public boolean tryAcquire(K key, int permits) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        long cost = costOf(permits);
+        long now = nanoClock.getAsLong();
+        if ((ThreadLocalRandom.current().nextInt() & SWEEP_EVERY_MASK) == 0) {
+            sweepStep(now);
+        }
+        while (true) {
+            AtomicLong state = buckets.get(key);
+            if (state == null) {
+                AtomicLong created = new AtomicLong(now - burstNanos + cost); // Полное ведро минус запрос
+                state = buckets.putIfAbsent(key, created);
+                if (state == null) {
+                    return true;
+                }
+            }
+            long current = state.get();
+            if (current == EVICTED) {
+                buckets.remove(key, state); // Помогаем завершить удаление и ищем заново
+                continue;
+            }
+            long next = refilled(current, now) + cost;
+            if (next - now > 0) {
+                return false;
+            }
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество доступных сейчас токенов ключа (burst для неизвестного ключа).
+     *
+     * @param key Ключ (не null).
+     * @return Количество токенов от 0 до burst.
+     */
+    public long availablePermits(K key) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        AtomicLong state = buckets.get(key);
+        long current = state == null ? EVICTED : state.get();
+        if (current == EVICTED) {
+            return burst;
+        }
+        long now = nanoClock.getAsLong();
+        return (now - refilled(current, now)) / nanosPerPermit;
+    }
+
+    /**
+     * Полностью проходит карту и удаляет простаивающие ключи, не дожидаясь ленивой очистки.
+     *
+     * @return Количество удаленных ключей.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<K, AtomicLong> entry : buckets.entrySet()) {
+            if (tryEvict(entry.getKey(), entry.getValue(), now)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Возвращает количество ключей в карте (включая еще не удаленные простаивающие).
+     *
+     * @return Количество ключей.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Обрабатывает следующую порцию карты. Если очистку уже ведет другой поток, сразу возвращается.
+     */
+    private void sweepStep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (sweepCursor == null || !sweepCursor.hasNext()) {
+                sweepCursor = buckets.entrySet().iterator(); // Новый проход
+            }
+            for (int i = 0; i < SWEEP_BATCH && sweepCursor.hasNext(); i++) {
+                Map.Entry<K, AtomicLong> entry = sweepCursor.next();
+                tryEvict(entry.getKey(), entry.getValue(), now);
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Удаляет ключ, если его ведро полно не меньше idleTimeout. Метка EVICTED ставится CAS-ом,
+     * поэтому конкурентный tryAcquire либо успевает взять токен (и ключ остается), либо видит метку.
+     */
+    private boolean tryEvict(K key, AtomicLong state, long now) {
+        long current = state.get();
+        if (current != EVICTED && now - current >= burstNanos + idleNanos && state.compareAndSet(current, EVICTED)) {
+            buckets.remove(key, state);
+            return true;
+        }
+        return false;
+    }
+
+    private long refilled(long current, long now) {
+        return now - current > burstNanos ? now - burstNanos : current;
+    }
+
+    private long costOf(int permits) {
+        if (permits <= 0 || permits > burst) {
+            throw new IllegalArgumentException("Permits must be in [1, " + burst + "]: " + permits);
+        }
+        return permits * nanosPerPermit;
+    }
+}
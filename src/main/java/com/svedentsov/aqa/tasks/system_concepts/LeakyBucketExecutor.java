@@ -0,0 +1,257 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import com.svedentsov.aqa.tasks.data_structures.ConcurrentRingQueue;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Планировщик по алгоритму Leaky Bucket из {@link RateLimiterConcept}: задачи попадают в очередь
+ * фиксированной емкости и выпускаются с постоянной скоростью {@code tasksPerSecond}.
+ * Описание: в отличие от {@link RateLimiter}, который сразу отказывает, здесь всплеск сглаживается
+ * ожиданием в очереди, а отказ ({@link RejectedExecutionException}) происходит, только когда очередь полна.
+ * <ul>
+ *     <li>Очередь - {@link ConcurrentRingQueue}: {@link #submit(Callable)} не блокируется, емкость
+ *     округляется вверх до степени двойки.</li>
+ *     <li>Выпуском занимается один поток-таймер: он просыпается к моменту следующего выпуска, отдает
+ *     наступившие задачи исполнителю {@code downstream} и засыпает снова; при пустой очереди таймер
+ *     не запланирован вовсе. Спящего потока на каждую задачу нет.</li>
+ *     <li>Время простоя не копится в "кредит": после паузы задачи снова идут не чаще
+ *     одной за {@code 1 / tasksPerSecond}. При скорости выше разрешения таймера (порядка миллисекунды)
+ *     задачи выпускаются пачками, наступившими к моменту пробуждения.</li>
+ *     <li>Задачи выполняются в {@code downstream}; на Java 21+ можно передать
+ *     {@code Executors.newVirtualThreadPerTaskExecutor()} - поток на задачу без затрат платформенных потоков.</li>
+ * </ul>
+ * Пример:
+ * `LeakyBucketExecutor pacer = new LeakyBucketExecutor(50, 1000, ForkJoinPool.commonPool());`
+ * `CompletableFuture<Response> response = pacer.submit(() -> downstreamApi.call(request));`
+ */
+public final class LeakyBucketExecutor implements AutoCloseable {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Predicate<PacedTask<?>> CANCELLED = task -> task.future.isDone();
+
+    private final long nanosPerTask;
+    private final Executor downstream;
+    private final ConcurrentRingQueue<PacedTask<?>> queue;
+    private final ScheduledExecutorService timer;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private long nextReleaseAt; // Доступ только из потока таймера
+    private boolean idle = true; // Очередь опустела на прошлом выпуске; доступ только из потока таймера
+
+    /**
+     * Создает планировщик с потоком-демоном в качестве таймера.
+     *
+     * @param tasksPerSecond Скорость выпуска задач (> 0, не больше 10^9).
+     * @param capacity       Емкость очереди (> 0), округляется вверх до степени двойки.
+     * @param downstream     Исполнитель выпущенных задач (не null).
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public LeakyBucketExecutor(double tasksPerSecond, int capacity, Executor downstream) {
+        this(tasksPerSecond, capacity, downstream, r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true); // Поток не должен мешать завершению JVM
+            t.setName("LeakyBucket-Timer-" + t.getId());
+            return t;
+        });
+    }
+
+    /**
+     * Создает планировщик с заданной фабрикой для потока-таймера.
+     *
+     * @param tasksPerSecond     Скорость выпуска задач (> 0, не больше 10^9).
+     * @param capacity           Емкость очереди (> 0), округляется вверх до степени двойки.
+     * @param downstream         Исполнитель выпущенных задач (не null).
+     * @param timerThreadFactory Фабрика для единственного потока-таймера (не null).
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public LeakyBucketExecutor(double tasksPerSecond, int capacity, Executor downstream,
+                               ThreadFactory timerThreadFactory) {
+        if (!(tasksPerSecond > 0 && tasksPerSecond <= NANOS_PER_SECOND)) {
+            throw new IllegalArgumentException("Tasks per second must be in (0, 1e9]: " + tasksPerSecond);
+        }
+        this.nanosPerTask = Math.max(1, Math.round(NANOS_PER_SECOND / tasksPerSecond));
+        this.queue = new ConcurrentRingQueue<>(capacity);
+        this.downstream = Objects.requireNonNull(downstream, "Downstream executor cannot be null");
+        Objects.requireNonNull(timerThreadFactory, "Thread factory cannot be null");
+        this.timer = Executors.newSingleThreadScheduledExecutor(timerThreadFactory);
+    }
+
+    /**
+     * Ставит задачу в очередь.
+     *
+     * @param task Задача (не null).
+     * @param <T>  Тип результата.
+     * @return Future с результатом или исключением задачи. Отмененная до выпуска задача не выполняется,
+     * но занимает место в очереди, пока не окажется в ее начале: тогда место освобождает выпуск
+     * или {@code submit}, заставший очередь полной.
+     * @throws RejectedExecutionException если очередь полна или планировщик закрыт.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        if (closed) {
+            throw new RejectedExecutionException("Executor is closed");
+        }
+        PacedTask<T> paced = new PacedTask<>(task);
+        if (!offer(paced)) {
+            throw new RejectedExecutionException("Queue is full: " + queue.capacity());
+        }
+        if (closed) {
+            cancelQueued(); // close() мог вычистить очередь до нашего offer
+        } else {
+            scheduleDrain();
+        }
+        return paced.future;
+    }
+
+    /**
+     * Ставит задачу без результата в очередь.
+     *
+     * @param task Задача (не null).
+     * @return Future, завершающийся после выполнения задачи.
+     * @throws RejectedExecutionException если очередь полна или планировщик закрыт.
+     */
+    public CompletableFuture<Void> submit(Runnable task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает количество задач, ожидающих выпуска.
+     *
+     * @return Приблизительный размер очереди.
+     */
+    public int queuedTasks() {
+        return queue.size();
+    }
+
+    /**
+     * Возвращает емкость очереди.
+     *
+     * @return Емкость (степень двойки).
+     */
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * Останавливает таймер и отменяет еще не выпущенные задачи. Уже переданные в {@code downstream}
+     * задачи выполняются до конца; сам {@code downstream} не закрывается.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdownNow();
+        cancelQueued();
+    }
+
+    /**
+     * Ставит задачу в очередь; если очередь полна, сначала убирает отмененные задачи из ее начала.
+     */
+    private boolean offer(PacedTask<?> task) {
+        while (!queue.offer(task)) {
+            if (queue.pollIf(CANCELLED) == null) {
+                return false; // В начале очереди живая задача - места действительно нет
+            }
+        }
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                timer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                cancelQueued(); // Таймер уже остановлен в close()
+            }
+        }
+    }
+
+    /**
+     * Выпускает наступившие задачи и планирует следующее пробуждение. Выполняется только в потоке таймера.
+     */
+    private void drain() {
+        long now = System.nanoTime();
+        if (idle && nextReleaseAt - now < 0) {
+            nextReleaseAt = now; // Простой не дает права на всплеск
+        }
+        idle = false; // Опоздание таймера при непустой очереди, наоборот, наверстывается
+        while (nextReleaseAt - now <= 0) {
+            PacedTask<?> task = queue.poll();
+            if (task == null) {
+                break;
+            }
+            if (CANCELLED.test(task)) {
+                continue; // Отменена до выпуска - место в расписании не тратится
+            }
+            release(task);
+            nextReleaseAt += nanosPerTask;
+        }
+        if (queue.isEmpty()) {
+            idle = true;
+            drainScheduled.set(false);
+            // submit мог положить задачу между проверкой и сбросом флага и не запланировать выпуск
+            if (queue.isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        try {
+            timer.schedule(this::drain, Math.max(0, nextReleaseAt - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            cancelQueued();
+        }
+    }
+
+    private void release(PacedTask<?> task) {
+        try {
+            downstream.execute(task);
+        } catch (Throwable e) {
+            // Например, downstream отказал: иначе исключение прервало бы drain и выпуск остановился бы навсегда
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    private void cancelQueued() {
+        PacedTask<?> task;
+        while ((task = queue.poll()) != null) {
+            task.future.cancel(false);
+        }
+    }
+
+    /**
+     * Задача в очереди вместе с ее результатом.
+     */
+    private static final class PacedTask<T> implements Runnable {
+        final Callable<T> task;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        PacedTask(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
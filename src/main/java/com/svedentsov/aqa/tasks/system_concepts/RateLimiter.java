@@ -0,0 +1,32 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+/**
+ * Общий интерфейс ограничителей скорости из {@link RateLimiterConcept}: алгоритм можно заменить,
+ * не меняя вызывающий код.
+ * Описание: проверка не ждет и не выделяет память - либо разрешения выдаются сразу, либо нет.
+ * Реализации: {@link TokenBucketRateLimiter}, {@link FixedWindowRateLimiter},
+ * {@link SlidingLogRateLimiter}, {@link SlidingWindowCounterRateLimiter}.
+ * Пример:
+ * `RateLimiter limiter = new SlidingWindowCounterRateLimiter(100, 1, TimeUnit.SECONDS, 10);`
+ * `if (!limiter.tryAcquire()) { return 429; }`
+ */
+public interface RateLimiter {
+
+    /**
+     * Пытается получить одно разрешение без ожидания.
+     *
+     * @return {@code true}, если разрешение получено.
+     */
+    default boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Пытается получить {@code permits} разрешений без ожидания: выдаются все или ни одного.
+     *
+     * @param permits Количество разрешений (от 1 до лимита реализации).
+     * @return {@code true}, если разрешения получены.
+     * @throws IllegalArgumentException если permits вне допустимого диапазона.
+     */
+    boolean tryAcquire(int permits);
+}
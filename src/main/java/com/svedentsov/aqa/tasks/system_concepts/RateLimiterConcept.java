@@ -10,6 +10,8 @@ package com.svedentsov.aqa.tasks.system_concepts;
  * использовали? (Например, Token Bucket или Leaky Bucket).
  * Пример: Обсуждение использования `Map<UserId, Timestamp/Counter>` или
  * `Map<UserId, TokenBucketState>`.
+ * Рабочая неблокирующая реализация Token Bucket - {@link TokenBucketRateLimiter}; оконные алгоритмы -
+ * реализации общего интерфейса {@link RateLimiter}.
  */
 public class RateLimiterConcept {
 
@@ -40,6 +42,7 @@ public class RateLimiterConcept {
         System.out.println("     - Плюсы: Позволяет кратковременные всплески (bursts) до `C`. Прост.");
         System.out.println("     - Минусы: Требует хранения состояния (кол-во токенов, время последнего пополнения).");
         System.out.println("     - Данные (per-key): `{ long lastRefillTimestamp, double currentTokens }`");
+        System.out.println("     - Реализация: TokenBucketRateLimiter (состояние - один AtomicLong, обновление CAS-ом).");
 
         System.out.println("\n  Б) Leaky Bucket (Дырявое ведро):");
         System.out.println("     - Концепция: Запросы попадают в очередь фикс. размера (`C`). Обрабатываются с пост. скоростью (`R`).");
@@ -47,6 +50,7 @@ public class RateLimiterConcept {
         System.out.println("     - Плюсы: Гарантирует плавную, постоянную скорость обработки. Сглаживает всплески.");
         System.out.println("     - Минусы: Всплески могут быть отброшены. Увеличивает задержку.");
         System.out.println("     - Данные (per-key): `{ Queue requestQueue, long lastLeakTimestamp }` (или счетчик + время).");
+        System.out.println("     - Реализация: LeakyBucketExecutor (ограниченная очередь, один поток-таймер, CompletableFuture).");
 
         System.out.println("\n  В) Fixed Window Counter (Счетчик в фиксированном окне):");
         System.out.println("     - Концепция: Время делится на интервалы (`T`, н-р, 1 минута). Считаем запросы в текущем интервале.");
@@ -54,6 +58,7 @@ public class RateLimiterConcept {
         System.out.println("     - Плюсы: Очень прост, требует мало памяти (счетчик + время начала окна). Легко реализовать в Redis (INCR + EXPIRE).");
         System.out.println("     - Минусы: Проблема 'граничного всплеска' (burst на стыке окон может пропустить 2*N запросов).");
         System.out.println("     - Данные (per-key): `{ long windowStartTimestamp, AtomicInteger counter }`.");
+        System.out.println("     - Реализация: FixedWindowRateLimiter (номер окна и счетчик в одном AtomicLong).");
 
         System.out.println("\n  Г) Sliding Window Log (Лог в скользящем окне):");
         System.out.println("     - Концепция: Храним временные метки всех запросов за последний период `T`.");
@@ -61,12 +66,14 @@ public class RateLimiterConcept {
         System.out.println("     - Плюсы: Наиболее точный. Нет проблемы граничного всплеска.");
         System.out.println("     - Минусы: Требует много памяти для хранения меток.");
         System.out.println("     - Данные (per-key): `{ SortedSet<Timestamp> requestTimestamps }` (или в Redis Sorted Set).");
+        System.out.println("     - Реализация: SlidingLogRateLimiter (кольцевой буфер long[limit] вместо SortedSet).");
 
         System.out.println("\n  Д) Sliding Window Counter (Счетчик в скользящем окне):");
         System.out.println("     - Концепция: Компромисс. Хранит счетчики для текущего и предыдущего окон. Оценка запросов в скользящем окне.");
         System.out.println("     - Плюсы: Точнее Fixed Window, требует меньше памяти, чем Sliding Log.");
         System.out.println("     - Минусы: Реализация сложнее Fixed Window, аппроксимация.");
         System.out.println("     - Данные (per-key): `{ long prevWindowTimestamp, int prevCount, long currentWindowTimestamp, int currentCount }`.");
+        System.out.println("     - Реализация: SlidingWindowCounterRateLimiter (N частей окна, каждая обновляется CAS-ом).");
 
         System.out.println("\n[4] Хранение Состояния (для распределенных систем):");
         System.out.println("    - Ключ: Обычно UserId, IP-адрес, ApiKey.");
@@ -0,0 +1,84 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель "Sliding Window Log" из {@link RateLimiterConcept}: не более {@code limit}
+ * разрешений за любые {@code window} наносекунд - самый точный из оконных алгоритмов.
+ * Описание: вместо {@code SortedSet<Timestamp>} метки последних {@code limit} выдач хранятся
+ * в кольцевом буфере {@code long[limit]}. Метки пишутся по возрастанию, поэтому {@code head} -
+ * самая старая из них, а {@code n} разрешений можно выдать, если {@code n}-я по старшинству метка
+ * уже вышла из окна. Удалять устаревшие метки не нужно - их перезаписывают новые.
+ * Проверка - одно сравнение и запись {@code n} ячеек под {@code synchronized}, без выделения памяти;
+ * память - 8 байт на разрешение лимита (для больших лимитов - {@link SlidingWindowCounterRateLimiter}).
+ * Пример:
+ * `RateLimiter limiter = new SlidingLogRateLimiter(100, 1, TimeUnit.SECONDS);`
+ */
+public class SlidingLogRateLimiter implements RateLimiter {
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final long[] timestamps;
+    private int head; // Индекс самой старой метки - следующая перезаписываемая ячейка
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param limit  Разрешений за окно (> 0) - размер кольцевого буфера.
+     * @param window Длина окна (> 0).
+     * @param unit   Единица времени окна (не null).
+     * @throws IllegalArgumentException если параметры не положительны.
+     */
+    public SlidingLogRateLimiter(int limit, long window, TimeUnit unit) {
+        this(limit, Objects.requireNonNull(unit, "Unit cannot be null").toNanos(window), System::nanoTime);
+    }
+
+    /**
+     * Конструктор с подменяемыми часами (для тестов).
+     */
+    SlidingLogRateLimiter(int limit, long windowNanos, LongSupplier nanoClock) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + windowNanos);
+        }
+        this.windowNanos = windowNanos;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.timestamps = new long[limit];
+        Arrays.fill(timestamps, nanoClock.getAsLong() - windowNanos); // Все метки уже вне окна
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(int permits) {
+        int limit = timestamps.length;
+        if (permits <= 0 || permits > limit) {
+            throw new IllegalArgumentException("Permits must be in [1, " + limit + "]: " + permits);
+        }
+        long now = nanoClock.getAsLong();
+        int newest = head + permits - 1; // Самая новая из меток, которые придется перезаписать
+        if (newest >= limit) {
+            newest -= limit;
+        }
+        if (now - timestamps[newest] < windowNanos) {
+            return false; // В окне уже больше limit - permits выдач
+        }
+        for (int i = 0; i < permits; i++) {
+            timestamps[head] = now;
+            head = head + 1 == limit ? 0 : head + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает лимит разрешений за окно.
+     *
+     * @return Лимит.
+     */
+    public int limit() {
+        return timestamps.length;
+    }
+}
@@ -0,0 +1,129 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель "Sliding Window Counter" из {@link RateLimiterConcept}: окно {@code window} делится
+ * на {@code subBuckets} частей, и учитываются выдачи за текущую и {@code subBuckets - 1} предыдущих частей.
+ * Описание: окно "скользит" шагами по {@code window / subBuckets}, поэтому лимит гарантированно
+ * соблюдается в любом интервале длиной {@code window * (1 - 1 / subBuckets)} (у {@link FixedWindowRateLimiter}
+ * такой гарантии нет), а память не зависит от лимита (в отличие от {@link SlidingLogRateLimiter}).
+ * Каждая часть - ячейка {@link AtomicLongArray} с упакованными номером части (старшие 32 бита)
+ * и счетчиком, поэтому обнуление устаревшей части и увеличение счетчика - один CAS
+ * ({@code LongAdder} не позволяет атомарно обнулить счетчик вместе со сменой части).
+ * Разрешения сначала добавляются в текущую часть и откатываются, если сумма превысила лимит:
+ * выданное разрешение никогда не откатывается, поэтому лимит не превышается и под конкуренцией
+ * (возможны лишь лишние отказы в момент гонки).
+ * Пример:
+ * `RateLimiter limiter = new SlidingWindowCounterRateLimiter(1000, 1, TimeUnit.SECONDS, 10);`
+ */
+public class SlidingWindowCounterRateLimiter implements RateLimiter {
+
+    private final int limit;
+    private final int subBuckets;
+    private final long subBucketNanos;
+    private final long origin;
+    private final LongSupplier nanoClock;
+    private final AtomicLongArray buckets; // Старшие 32 бита - номер части, младшие - выданные в ней разрешения
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param limit      Разрешений за окно (> 0).
+     * @param window     Длина окна (> 0).
+     * @param unit       Единица времени окна (не null).
+     * @param subBuckets Количество частей окна (от 1 до длины окна в наносекундах); 1 - фиксированное окно.
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public SlidingWindowCounterRateLimiter(int limit, long window, TimeUnit unit, int subBuckets) {
+        this(limit, Objects.requireNonNull(unit, "Unit cannot be null").toNanos(window), subBuckets, System::nanoTime);
+    }
+
+    /**
+     * Конструктор с подменяемыми часами (для тестов).
+     */
+    SlidingWindowCounterRateLimiter(int limit, long windowNanos, int subBuckets, LongSupplier nanoClock) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        if (subBuckets <= 0 || windowNanos < subBuckets) {
+            throw new IllegalArgumentException("Sub-buckets must be in [1, window nanos]: " + subBuckets);
+        }
+        this.limit = limit;
+        this.subBuckets = subBuckets;
+        this.subBucketNanos = windowNanos / subBuckets;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.origin = nanoClock.getAsLong();
+        this.buckets = new AtomicLongArray(subBuckets);
+        for (int i = 0; i < subBuckets; i++) {
+            buckets.set(i, pack(i - subBuckets, 0)); // Пустые части, уже вне окна
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits <= 0 || permits > limit) {
+            throw new IllegalArgumentException("Permits must be in [1, " + limit + "]: " + permits);
+        }
+        long part = (nanoClock.getAsLong() - origin) / subBucketNanos;
+        int index = (int) (part % subBuckets);
+        int current = (int) part; // Номера частей сравниваются разностью, переполнение int не мешает
+        int counted = add(index, current, permits);
+        if (counted != current) {
+            return false; // Часы этого потока отстали от уже начатой другим потоком части - ответ безопасный
+        }
+        long used = 0;
+        for (int i = 0; i < subBuckets; i++) {
+            long bucket = buckets.get(i);
+            int age = current - (int) (bucket >>> 32);
+            if (age < subBuckets) { // Более новая часть (age < 0) от потока с опередившими часами тоже учитывается
+                used += (int) bucket;
+            }
+        }
+        if (used > limit) {
+            add(index, current, -permits); // Откат своей добавки
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает лимит разрешений за окно.
+     *
+     * @return Лимит.
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Добавляет {@code delta} к части {@code part} в ячейке {@code index}, обнуляя ячейку, если в ней
+     * устаревшая часть. Если в ячейке уже более новая часть, ничего не меняет.
+     *
+     * @return Номер части, к которой относится ячейка после операции.
+     */
+    private int add(int index, int part, int delta) {
+        while (true) {
+            long bucket = buckets.get(index);
+            int bucketPart = (int) (bucket >>> 32);
+            int age = part - bucketPart;
+            if (age < 0) {
+                return bucketPart;
+            }
+            int count = age == 0 ? (int) bucket : 0;
+            if (count + delta < 0) {
+                return part; // Откат после смены части: добавка уже обнулена
+            }
+            if (buckets.compareAndSet(index, bucket, pack(part, count + delta))) {
+                return part;
+            }
+        }
+    }
+
+    private static long pack(int part, int count) {
+        return ((long) part << 32) | (count & 0xFFFFFFFFL);
+    }
+}
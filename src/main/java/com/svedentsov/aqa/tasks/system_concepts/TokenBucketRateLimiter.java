@@ -0,0 +1,232 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Неблокирующий (lock-free) ограничитель скорости по алгоритму Token Bucket - рабочая реализация
+ * подхода из {@link RateLimiterConcept}.
+ * Описание: ведро емкостью {@code burst} токенов пополняется со скоростью {@code permitsPerSecond}.
+ * Количество токенов и время последнего пополнения хранятся одним числом в {@link AtomicLong} -
+ * моментом {@code emptyAt}, когда ведро было (или будет) пустым:
+ * <ul>
+ *     <li>токенов сейчас: {@code min(burst, (now - emptyAt) / nanosPerPermit)};</li>
+ *     <li>взять {@code n} токенов - сдвинуть {@code emptyAt} на {@code n * nanosPerPermit} одним CAS;</li>
+ *     <li>полное ведро - {@code emptyAt <= now - burst * nanosPerPermit}: более старое значение
+ *     сначала "подтягивается" к этой границе, поэтому простой не накапливает токены сверх {@code burst}.</li>
+ * </ul>
+ * Одно число вместо упакованной пары не ограничивает разрядность счетчика токенов и дробные токены
+ * (частично накопленный интервал) не теряются. Проверка - чтение часов и один CAS, без блокировок.
+ * {@link #acquire(int)} резервирует токены заранее (ведро может уйти "в долг") и ждет через
+ * {@link LockSupport#parkNanos(long)} без мониторов, что подходит и для виртуальных потоков.
+ * Пример:
+ * `TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, 100);` // 1000/с, всплеск до 100
+ * `if (limiter.tryAcquire()) { callRemoteService(); }`
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long nanosPerPermit;
+    private final long burst;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong emptyAt;
+
+    /**
+     * Создает ограничитель с всплеском, равным секундному объему ({@code ceil(permitsPerSecond)}).
+     *
+     * @param permitsPerSecond Скорость пополнения (> 0, не больше 10^9).
+     * @throws IllegalArgumentException если скорость вне диапазона.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, (long) Math.ceil(permitsPerSecond));
+    }
+
+    /**
+     * Создает ограничитель с полным ведром.
+     *
+     * @param permitsPerSecond Скорость пополнения (> 0, не больше 10^9); точность - 1 нс на токен.
+     * @param burst            Емкость ведра - максимальный всплеск (> 0).
+     * @throws IllegalArgumentException если параметры вне допустимых диапазонов.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, long burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * Конструктор с подменяемыми часами (для тестов).
+     */
+    TokenBucketRateLimiter(double permitsPerSecond, long burst, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0 && permitsPerSecond <= NANOS_PER_SECOND)) {
+            throw new IllegalArgumentException("Permits per second must be in (0, 1e9]: " + permitsPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+        this.nanosPerPermit = Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+        if (burst > Long.MAX_VALUE / 4 / nanosPerPermit) {
+            throw new IllegalArgumentException("Burst is too large for the rate: " + burst);
+        }
+        this.burst = burst;
+        this.burstNanos = burst * nanosPerPermit;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.emptyAt = new AtomicLong(nanoClock.getAsLong() - burstNanos); // Ведро полное
+    }
+
+    /**
+     * Пытается взять один токен без ожидания.
+     *
+     * @return {@code true}, если токен получен.
+     */
+    @Override
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Пытается взять {@code permits} токенов без ожидания: берутся все или ни одного.
+     *
+     * @param permits Количество токенов (от 1 до burst).
+     * @return {@code true}, если токены получены.
+     * @throws IllegalArgumentException если permits вне диапазона.
+     */
+    @Override
+    public boolean tryAcquire(int permits) {
+        long cost = costOf(permits);
+        while (true) {
+            long current = emptyAt.get();
+            long now = nanoClock.getAsLong();
+            long next = refilled(current, now) + cost;
+            if (next - now > 0) {
+                return false; // Токенов меньше, чем нужно
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Пытается взять {@code permits} токенов, ожидая не дольше {@code timeout}.
+     * Если токены не появятся за это время, резерв не делается и метод сразу возвращает {@code false}.
+     *
+     * @param permits Количество токенов (от 1 до burst).
+     * @param timeout Максимальное ожидание (>= 0).
+     * @param unit    Единица времени (не null).
+     * @return {@code true}, если токены получены.
+     * @throws InterruptedException если поток прерван во время ожидания (зарезервированные токены не возвращаются).
+     */
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = Math.max(0, unit.toNanos(timeout));
+        long wait = reserve(permits, timeoutNanos);
+        if (wait < 0) {
+            return false;
+        }
+        parkFor(wait);
+        return true;
+    }
+
+    /**
+     * Берет один токен, ожидая его появления.
+     *
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Берет {@code permits} токенов, ожидая их появления. Токены резервируются сразу, поэтому
+     * ожидающие потоки обслуживаются в порядке вызова, а последующие {@link #tryAcquire()} не проходят,
+     * пока "долг" не погашен пополнением.
+     *
+     * @param permits Количество токенов (от 1 до burst).
+     * @return Время ожидания в наносекундах (0, если токены были).
+     * @throws InterruptedException если поток прерван во время ожидания (зарезервированные токены не возвращаются).
+     */
+    public long acquire(int permits) throws InterruptedException {
+        long wait = reserve(permits, Long.MAX_VALUE);
+        parkFor(wait);
+        return wait;
+    }
+
+    /**
+     * Возвращает количество доступных сейчас токенов (0, если ведро "в долгу").
+     *
+     * @return Количество токенов от 0 до burst.
+     */
+    public long availablePermits() {
+        long now = nanoClock.getAsLong();
+        long available = (now - refilled(emptyAt.get(), now)) / nanosPerPermit;
+        return Math.max(0, available);
+    }
+
+    /**
+     * Возвращает емкость ведра.
+     *
+     * @return Максимальный всплеск.
+     */
+    public long burst() {
+        return burst;
+    }
+
+    /**
+     * Возвращает скорость пополнения с учетом округления интервала до наносекунды.
+     *
+     * @return Токенов в секунду.
+     */
+    public double permitsPerSecond() {
+        return (double) NANOS_PER_SECOND / nanosPerPermit;
+    }
+
+    /**
+     * Резервирует токены, если ожидание не превысит {@code maxWaitNanos}.
+     *
+     * @return Время ожидания в наносекундах или -1, если оно превысило бы предел.
+     */
+    private long reserve(int permits, long maxWaitNanos) {
+        long cost = costOf(permits);
+        while (true) {
+            long current = emptyAt.get();
+            long now = nanoClock.getAsLong();
+            long next = refilled(current, now) + cost;
+            long wait = Math.max(0, next - now);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Ограничивает накопление: момент "пустого ведра" не может быть раньше {@code now - burstNanos}.
+     */
+    private long refilled(long current, long now) {
+        return now - current > burstNanos ? now - burstNanos : current;
+    }
+
+    private long costOf(int permits) {
+        if (permits <= 0 || permits > burst) {
+            throw new IllegalArgumentException("Permits must be in [1, " + burst + "]: " + permits);
+        }
+        return permits * nanosPerPermit;
+    }
+
+    private void parkFor(long waitNanos) throws InterruptedException {
+        long deadline = nanoClock.getAsLong() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining); // parkNanos может вернуться раньше - проверяем часы
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - nanoClock.getAsLong();
+        }
+    }
+}
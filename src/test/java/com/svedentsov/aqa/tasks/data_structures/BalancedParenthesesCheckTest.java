@@ -2,14 +2,24 @@ package com.svedentsov.aqa.tasks.data_structures;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Тесты для BalancedParenthesesCheck")
 class BalancedParenthesesCheckTest {
@@ -72,4 +82,140 @@ class BalancedParenthesesCheckTest {
     void shouldReturnFalseForUnbalancedStrings(String expression) {
         assertFalse(checker.areBracketsBalanced(expression), "Строка должна быть несбалансированной: " + expression);
     }
+
+    @Nested
+    @DisplayName("Потоковая проверка findFirstError")
+    class StreamingValidation {
+
+        private long viaReader(String text) throws IOException {
+            return checker.findFirstError(new StringReader(text));
+        }
+
+        private long viaBuffer(String text) {
+            return checker.findFirstError(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @ParameterizedTest(name = "Строка: \"{0}\"")
+        @MethodSource("com.svedentsov.aqa.tasks.data_structures.BalancedParenthesesCheckTest#provideBalancedStrings")
+        @DisplayName("Сбалансированные строки дают -1")
+        void balancedStrings_returnMinusOne(String expression) throws IOException {
+            assertEquals(-1, viaReader(expression));
+            assertEquals(-1, viaBuffer(expression));
+        }
+
+        @ParameterizedTest(name = "Строка: \"{0}\"")
+        @MethodSource("com.svedentsov.aqa.tasks.data_structures.BalancedParenthesesCheckTest#provideUnbalancedStrings")
+        @DisplayName("Результат согласован с areBracketsBalanced")
+        void unbalancedStrings_returnOffset(String expression) throws IOException {
+            assertTrue(viaReader(expression) >= 0);
+            assertEquals(viaReader(expression), viaBuffer(expression));
+        }
+
+        @Test
+        @DisplayName("Смещение указывает на первую ошибку")
+        void offsets_pointToFirstError() throws IOException {
+            assertEquals(2, viaReader("([)]"));      // ')' закрывает '['
+            assertEquals(2, viaReader("())"));       // Лишняя ')'
+            assertEquals(0, viaReader("}{"));
+            assertEquals(4, viaReader("a(b[")); // Не закрыты - длина входа
+            assertEquals(-1, viaReader(""));
+            assertEquals(-1, viaReader("{\"a\": [1, (2)], \"ключ\": \"значение\"}"));
+        }
+
+        @Test
+        @DisplayName("ByteBuffer проверяется от position до limit, смещения относительны position")
+        void byteBuffer_respectsPositionAndLimit() {
+            ByteBuffer buffer = ByteBuffer.wrap(")()(]".getBytes(StandardCharsets.US_ASCII));
+            buffer.position(1).limit(3);
+            assertEquals(-1, checker.findFirstError(buffer.slice()));
+            assertEquals(-1, checker.findFirstError(buffer));
+            assertEquals(1, buffer.position(), "Позиция не должна меняться");
+            buffer.limit(5);
+            assertEquals(3, checker.findFirstError(buffer));
+        }
+    }
+
+    @Nested
+    @DisplayName("Параллельная проверка файла")
+    class ParallelValidation {
+
+        @TempDir
+        Path tempDir;
+
+        /**
+         * Случайный сбалансированный документ с текстом между скобками.
+         */
+        private String randomDocument(Random random, int length) {
+            StringBuilder sb = new StringBuilder(length + 64);
+            StringBuilder open = new StringBuilder();
+            String openers = "([{";
+            String closers = ")]}";
+            while (sb.length() < length) {
+                int choice = random.nextInt(4);
+                if (choice == 0 || open.length() == 0) {
+                    int type = random.nextInt(3);
+                    open.append(closers.charAt(type));
+                    sb.append(openers.charAt(type));
+                } else if (choice == 1) {
+                    sb.append(open.charAt(open.length() - 1));
+                    open.setLength(open.length() - 1);
+                } else {
+                    String filler = "ab: \"ж\", ";
+                    sb.append(filler.charAt(random.nextInt(filler.length())));
+                }
+            }
+            return sb.append(open.reverse()).toString();
+        }
+
+        private long parallel(String text, int chunkBytes) throws IOException {
+            Path file = tempDir.resolve("doc.json");
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            return checker.findFirstError(file, chunkBytes);
+        }
+
+        @ParameterizedTest(name = "chunkBytes = {0}")
+        @ValueSource(ints = {64, 1000, 1 << 20})
+        @DisplayName("Совпадает с потоковой проверкой на случайных документах с ошибками и без")
+        void parallel_matchesStreaming(int chunkBytes) throws IOException {
+            Random random = new Random(chunkBytes);
+            for (int round = 0; round < 20; round++) {
+                String text = randomDocument(random, 5_000);
+                if (round % 2 == 1) {
+                    // Портим случайный символ: лишняя, недостающая или несовпадающая скобка
+                    char[] chars = text.toCharArray();
+                    chars[random.nextInt(chars.length)] = "([{)]} ".charAt(random.nextInt(7));
+                    text = new String(chars);
+                }
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                long expected = checker.findFirstError(ByteBuffer.wrap(bytes));
+                assertEquals(expected, parallel(text, chunkBytes), "Раунд " + round);
+                assertEquals(expected < 0, checker.areBracketsBalanced(text));
+            }
+        }
+
+        @Test
+        @DisplayName("Ошибки на границах фрагментов и пустой файл")
+        void parallel_chunkBoundaries() throws IOException {
+            assertEquals(-1, parallel("", 4));
+            assertEquals(4, parallel("((((", 4)); // Не закрыты - длина файла
+            assertEquals(-1, parallel("(((())))", 4));
+            assertEquals(4, parallel("([{(]", 4)); // Ошибка в начале второго фрагмента
+            assertEquals(4, parallel("(()))", 3)); // Вторая ')' второго фрагмента - лишняя
+            assertEquals(9, parallel("(())(())(", 4)); // Не закрыта последняя - длина файла
+        }
+
+        @Test
+        @DisplayName("Файл из лишних закрывающих: ошибка в начале, остальные фрагменты не нужны")
+        void parallel_manyUnmatchedClosers() throws IOException {
+            assertEquals(0, parallel(")".repeat(200_000), 1000));
+            assertEquals(2, parallel("()" + "]".repeat(200_000), 1000));
+            assertEquals(1500, parallel("(".repeat(1500) + "]" + ")".repeat(200_000), 1000)); // Несовпадение во 2-м
+        }
+
+        @Test
+        @DisplayName("Некорректный размер фрагмента отклоняется")
+        void parallel_invalidChunk_throws() {
+            assertThrows(IllegalArgumentException.class, () -> checker.findFirstError(tempDir.resolve("x"), 0));
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для CacheMaintenanceService")
+class CacheMaintenanceServiceTest {
+
+    private static final long TICK_MILLIS = 10;
+    private static final long TTL = 100; // ms; интервал очистки кеша - 1 с
+
+    private final AtomicInteger threadsCreated = new AtomicInteger();
+    private CacheMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        ThreadFactory countingFactory = r -> {
+            threadsCreated.incrementAndGet();
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true);
+            return t;
+        };
+        service = new CacheMaintenanceService(TICK_MILLIS, countingFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    private SimpleInMemoryCache<String, String> newCache() {
+        return SimpleInMemoryCache.<String, String>builder(TTL).maintenanceService(service).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Sleep interrupted");
+        }
+    }
+
+    @Test
+    @DisplayName("Сотни кешей обслуживаются одним потоком")
+    void manyCaches_shouldShareOneThread() {
+        List<SimpleInMemoryCache<String, String>> caches = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            caches.add(newCache());
+        }
+        sleep(TICK_MILLIS * 5);
+        assertEquals(200, service.registeredCount());
+        assertEquals(1, threadsCreated.get());
+        caches.forEach(SimpleInMemoryCache::shutdownCleanup);
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    @DisplayName("Сервис удаляет устаревшие записи зарегистрированных кешей")
+    void registeredCaches_shouldBeCleaned() {
+        SimpleInMemoryCache<String, String> first = newCache();
+        SimpleInMemoryCache<String, String> second = newCache();
+        first.put("a", "1");
+        second.put("b", "2");
+        second.put("long", "3", TTL * 100);
+        // Первая очистка - через 0.5..1 с после регистрации
+        while (first.size() > 0 || second.size() > 1) {
+            sleep(TICK_MILLIS * 5);
+        }
+        assertEquals(0, first.size());
+        assertEquals(1, second.size(), "Неустаревшая запись должна остаться");
+    }
+
+    @Test
+    @DisplayName("shutdownCleanup отменяет регистрацию, и сервис ее убирает")
+    void shutdownCleanup_shouldUnregisterCache() {
+        SimpleInMemoryCache<String, String> kept = newCache();
+        SimpleInMemoryCache<String, String> stopped = newCache();
+        stopped.shutdownCleanup();
+        sleep(TICK_MILLIS * 5);
+        assertEquals(1, service.registeredCount());
+        kept.shutdownCleanup();
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    @DisplayName("Сбой очистки одного кеша передается обработчику и не останавливает остальные")
+    void failingCache_shouldBeReportedAndNotStopOthers() {
+        List<Throwable> reported = new CopyOnWriteArrayList<>();
+        AtomicInteger healthyRuns = new AtomicInteger();
+        AtomicInteger failingRuns = new AtomicInteger();
+        CacheMaintenanceService reporting = new CacheMaintenanceService(TICK_MILLIS, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setUncaughtExceptionHandler((thread, e) -> reported.add(e));
+            return t;
+        });
+        SimpleInMemoryCache<String, String> failing = new SimpleInMemoryCache<>(TTL, false) {
+            @Override
+            public void removeExpiredEntries() {
+                switch (failingRuns.incrementAndGet() % 3) {
+                    case 0:
+                        throw new AssertionError("error"); // Error тоже не должен отменять расписание
+                    case 1:
+                        throw new StackOverflowError("recursion"); // VirtualMachineError, но сбой одного кеша
+                    default:
+                        throw new IllegalStateException("runtime");
+                }
+            }
+        };
+        SimpleInMemoryCache<String, String> healthy = new SimpleInMemoryCache<>(TTL, false) {
+            @Override
+            public void removeExpiredEntries() {
+                healthyRuns.incrementAndGet();
+            }
+        };
+        try {
+            reporting.register(failing, 1);
+            reporting.register(healthy, 1);
+            while (healthyRuns.get() < 5) {
+                sleep(TICK_MILLIS);
+            }
+            assertTrue(reported.size() >= 4, "Сообщено сбоев: " + reported.size());
+            assertTrue(reported.stream().anyMatch(e -> e instanceof IllegalStateException));
+            assertTrue(reported.stream().anyMatch(e -> e instanceof AssertionError));
+            assertTrue(reported.stream().anyMatch(e -> e instanceof StackOverflowError));
+        } finally {
+            reporting.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Регистрация в закрытом сервисе отклоняется")
+    void register_closedService_shouldThrow() {
+        service.close();
+        assertThrows(IllegalStateException.class, this::newCache);
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры конструктора отклоняются")
+    void constructor_invalidArguments_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheMaintenanceService(0, Thread::new));
+        assertThrows(NullPointerException.class, () -> new CacheMaintenanceService(TICK_MILLIS, null));
+    }
+}
@@ -0,0 +1,204 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для ConcurrentLRUCache")
+class ConcurrentLRUCacheTest {
+
+    @Nested
+    @DisplayName("Тесты конструктора")
+    class ConstructorTests {
+        @ParameterizedTest(name = "Емкость {0} -> IllegalArgumentException")
+        @ValueSource(ints = {0, -1, -100})
+        @DisplayName("Должен выбрасывать IllegalArgumentException для не положительной емкости")
+        void constructor_shouldThrowIllegalArgumentException_forNonPositiveCapacity(int invalidCapacity) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> new ConcurrentLRUCache<>(invalidCapacity));
+            assertTrue(ex.getMessage().contains("Capacity must be positive"));
+        }
+
+        @Test
+        @DisplayName("capacity возвращает заданную емкость")
+        void capacity_shouldReturnConfiguredValue() {
+            assertEquals(10, new ConcurrentLRUCache<>(10).capacity());
+        }
+    }
+
+    @Nested
+    @DisplayName("Однопоточные операции (точный LRU)")
+    class SingleThreadTests {
+        @Test
+        @DisplayName("put и get должны корректно работать в пределах емкости")
+        void putAndGet_withinCapacity() {
+            ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(2);
+            assertNull(cache.put(1, "one"), "put должен вернуть null для нового ключа");
+            assertEquals("one", cache.put(1, "one_updated"), "put должен вернуть старое значение");
+            cache.put(2, "two");
+
+            assertEquals("one_updated", cache.get(1));
+            assertEquals("two", cache.get(2));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("get должен обновлять порядок использования элемента")
+        void get_shouldUpdateAccessOrder() {
+            ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(2);
+            cache.put(1, 10);
+            cache.put(2, 20);
+            assertEquals(10, cache.get(1)); // 1 становится самым свежим
+
+            cache.put(3, 30); // Вытесняется 2
+
+            assertNull(cache.get(2), "Элемент 2 должен быть вытеснен");
+            assertEquals(10, cache.get(1));
+            assertEquals(30, cache.get(3));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("put существующего ключа должен обновлять порядок")
+        void put_existingKey_shouldUpdateAccessOrder() {
+            ConcurrentLRUCache<String, Integer> cache = new ConcurrentLRUCache<>(2);
+            cache.put("A", 1);
+            cache.put("B", 2);
+            cache.put("A", 11); // A становится самым свежим
+            cache.put("C", 3);  // Вытесняется B
+
+            assertNull(cache.get("B"));
+            assertEquals(11, cache.get("A"));
+            assertEquals(3, cache.get("C"));
+        }
+
+        @Test
+        @DisplayName("Порядок сохраняется при большом количестве чтений")
+        void manyReads_shouldKeepExactOrderInSingleThread() {
+            ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(3);
+            cache.put(1, 1);
+            cache.put(2, 2);
+            cache.put(3, 3);
+            for (int i = 0; i < 100; i++) {
+                cache.get(1);
+                cache.get(3);
+            }
+            cache.put(4, 4); // Самый старый - 2
+
+            assertNull(cache.get(2));
+            assertNotNull(cache.get(1));
+            assertNotNull(cache.get(3));
+            assertNotNull(cache.get(4));
+        }
+
+        @Test
+        @DisplayName("remove удаляет запись и освобождает место")
+        void remove_shouldDeleteEntry() {
+            ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(2);
+            cache.put(1, "one");
+            cache.put(2, "two");
+            assertEquals("one", cache.remove(1));
+            assertNull(cache.remove(1));
+            cache.put(3, "three"); // Места хватает, 2 не вытесняется
+
+            assertEquals("two", cache.get(2));
+            assertEquals("three", cache.get(3));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("null ключ или значение должны приводить к NullPointerException")
+        void nullArguments_shouldThrowNullPointerException() {
+            ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(2);
+            assertThrows(NullPointerException.class, () -> cache.put(null, "v"));
+            assertThrows(NullPointerException.class, () -> cache.put("k", null));
+            assertThrows(NullPointerException.class, () -> cache.get(null));
+            assertThrows(NullPointerException.class, () -> cache.remove(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Многопоточный доступ")
+    class ConcurrencyTests {
+        @Test
+        @DisplayName("Параллельные get/put не ломают кеш, а размер после cleanUp не превышает емкость")
+        void concurrentAccess_shouldStayBoundedAndConsistent() throws Exception {
+            int capacity = 64;
+            int threads = 8;
+            int operationsPerThread = 20_000;
+            ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(capacity);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            try {
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < operationsPerThread; i++) {
+                            int key = random.nextInt(256);
+                            if (random.nextInt(4) == 0) {
+                                cache.put(key, key * 10);
+                            } else {
+                                Integer value = cache.get(key);
+                                // Значение всегда соответствует ключу - записи не перепутаны
+                                assertTrue(value == null || value == key * 10);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS); // Пробрасывает ошибки из рабочих потоков
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            cache.cleanUp();
+            assertTrue(cache.size() <= capacity, "Размер после cleanUp: " + cache.size());
+        }
+
+        @Test
+        @DisplayName("Горячий ключ, читаемый параллельно, не вытесняется потоком новых ключей")
+        void hotKey_shouldSurviveConcurrentInserts() throws Exception {
+            ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(100);
+            cache.put(-1, -1);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> readers = new ArrayList<>();
+                for (int t = 0; t < 3; t++) {
+                    readers.add(executor.submit(() -> {
+                        for (int i = 0; i < 50_000; i++) {
+                            cache.get(-1);
+                        }
+                    }));
+                }
+                for (int i = 0; i < 500; i++) { // В 5 раз больше емкости
+                    cache.put(i, i);
+                    cache.get(-1);
+                }
+                for (Future<?> reader : readers) {
+                    reader.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(-1, cache.get(-1));
+        }
+    }
+}
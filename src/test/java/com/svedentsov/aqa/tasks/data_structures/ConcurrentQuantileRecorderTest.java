@@ -0,0 +1,123 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для ConcurrentQuantileRecorder")
+class ConcurrentQuantileRecorderTest {
+
+    @Test
+    @DisplayName("Снимок совпадает со скетчем тех же значений")
+    void intervalSnapshot_matchesSketch() {
+        ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder();
+        QuantileSketch expected = new QuantileSketch();
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            long value = (long) Math.exp(random.nextGaussian() + 8);
+            recorder.record(value);
+            expected.add(value);
+        }
+        QuantileSketch snapshot = recorder.intervalSnapshot();
+        assertEquals(expected.count(), snapshot.count());
+        for (double q : new double[]{0.5, 0.95, 0.99}) {
+            assertEquals(expected.quantile(q), snapshot.quantile(q), "q = " + q);
+        }
+    }
+
+    @Test
+    @DisplayName("Снимок начинает новый интервал")
+    void intervalSnapshot_resetsInterval() {
+        ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder();
+        recorder.record(10);
+        recorder.record(20);
+        assertEquals(2, recorder.intervalSnapshot().count());
+        assertEquals(0, recorder.intervalSnapshot().count());
+        recorder.record(30);
+        assertEquals(30, recorder.intervalSnapshot().quantile(0.5));
+    }
+
+    @Test
+    @DisplayName("Снимок в переданный скетч добавляет значения")
+    void intervalSnapshot_intoTarget_accumulates() {
+        ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder(7, 2);
+        QuantileSketch target = new QuantileSketch(7);
+        recorder.record(5);
+        recorder.intervalSnapshot(target);
+        recorder.record(7);
+        recorder.intervalSnapshot(target);
+        assertEquals(2, target.count());
+        assertThrows(IllegalArgumentException.class, () -> recorder.intervalSnapshot(new QuantileSketch(8)));
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("Параллельные записи и снимки не теряют и не дублируют значения")
+    void concurrentRecordAndSnapshot_noLostValues() throws InterruptedException {
+        ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder(7, 4);
+        int threads = 8;
+        int perThread = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread writer = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    recorder.record(1_000 + random.nextInt(9_000));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        QuantileSketch total = new QuantileSketch();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                recorder.intervalSnapshot(total);
+            }
+        });
+        reader.start();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+        recorder.intervalSnapshot(total);
+        assertEquals((long) threads * perThread, total.count());
+        assertEquals(5_500, total.quantile(0.5), 5_500 * 0.01);
+        assertTrue(total.min() >= 992 && total.max() <= 10_047, total.min() + ".." + total.max());
+    }
+
+    @Test
+    @DisplayName("Число полос округляется до степени двойки")
+    void constructor_roundsStripesToPowerOfTwo() {
+        assertEquals(8, new ConcurrentQuantileRecorder(7, 5).stripeCount());
+        assertEquals(1, new ConcurrentQuantileRecorder(7, 1).stripeCount());
+    }
+
+    @Test
+    @DisplayName("Некорректные аргументы отклоняются")
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentQuantileRecorder(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentQuantileRecorder(7, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentQuantileRecorder().record(-1));
+        assertThrows(NullPointerException.class, () -> new ConcurrentQuantileRecorder().intervalSnapshot(null));
+    }
+}
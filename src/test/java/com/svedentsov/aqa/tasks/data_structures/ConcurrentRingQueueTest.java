@@ -0,0 +1,206 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для ConcurrentRingQueue")
+class ConcurrentRingQueueTest {
+
+    private static void runStress(ConcurrentRingQueue<Integer> queue, int producers, int consumers, int perProducer)
+            throws InterruptedException {
+        runStress(queue, producers, consumers, perProducer, false);
+    }
+
+    /**
+     * Запускает производителей и потребителей; каждое число от 0 до producers * perProducer - 1
+     * должно быть получено ровно один раз. С {@code mixPollIf} потребители чередуют poll и pollIf (только четные).
+     */
+    private static void runStress(ConcurrentRingQueue<Integer> queue, int producers, int consumers, int perProducer,
+                                  boolean mixPollIf) throws InterruptedException {
+        int total = producers * perProducer;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicLong consumed = new AtomicLong();
+        AtomicBoolean orderViolated = new AtomicBoolean();
+        AtomicBoolean conditionViolated = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(base + i)) {
+                        Thread.yield(); // Уступаем ядро другой стороне
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                int[] lastPerProducer = new int[producers];
+                Arrays.fill(lastPerProducer, -1);
+                boolean conditional = false;
+                while (consumed.get() < total) {
+                    conditional = mixPollIf && !conditional;
+                    Integer value = conditional ? queue.pollIf(x -> x % 2 == 0) : queue.poll();
+                    if (conditional && value != null && value % 2 != 0) {
+                        conditionViolated.set(true);
+                    }
+                    if (value == null) {
+                        Thread.yield(); // Уступаем ядро другой стороне
+                        continue;
+                    }
+                    seen.incrementAndGet(value);
+                    // Элементы одного производителя приходят каждому потребителю по возрастанию
+                    int producer = value / perProducer;
+                    if (value <= lastPerProducer[producer]) {
+                        orderViolated.set(true);
+                    }
+                    lastPerProducer[producer] = value;
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(orderViolated.get(), "Нарушен порядок элементов одного производителя");
+        assertFalse(conditionViolated.get(), "pollIf вернул элемент, не удовлетворяющий условию");
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), "Элемент " + i);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Nested
+    @DisplayName("Однопоточное поведение")
+    class SingleThreaded {
+
+        @Test
+        @DisplayName("offer/poll в порядке FIFO, poll пустой очереди возвращает null")
+        void offerPoll_fifo() {
+            ConcurrentRingQueue<String> queue = new ConcurrentRingQueue<>(4);
+            assertNull(queue.poll());
+            assertTrue(queue.offer("a"));
+            assertTrue(queue.offer("b"));
+            assertEquals(2, queue.size());
+            assertEquals("a", queue.poll());
+            assertEquals("b", queue.poll());
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Заполненная очередь отклоняет offer, после poll место освобождается")
+        void offer_full_returnsFalse() {
+            ConcurrentRingQueue<Integer> queue = new ConcurrentRingQueue<>(3); // Округляется до 4
+            assertEquals(4, queue.capacity());
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(4));
+            assertEquals(0, queue.poll());
+            assertTrue(queue.offer(4));
+            assertEquals(4, queue.size());
+        }
+
+        @Test
+        @DisplayName("Много кругов по буферу сохраняют порядок")
+        void offerPoll_manyLaps() {
+            ConcurrentRingQueue<Integer> queue = ConcurrentRingQueue.spsc(2);
+            for (int i = 0; i < 1_000; i++) {
+                assertTrue(queue.offer(i));
+                assertEquals(i, queue.poll());
+            }
+        }
+
+        @Test
+        @DisplayName("drain извлекает не больше max элементов по порядку")
+        void drain_limitsCount() {
+            ConcurrentRingQueue<Integer> queue = new ConcurrentRingQueue<>(8);
+            for (int i = 0; i < 5; i++) {
+                queue.offer(i);
+            }
+            List<Integer> out = new ArrayList<>();
+            assertEquals(3, queue.drain(out::add, 3));
+            assertEquals(List.of(0, 1, 2), out);
+            assertEquals(2, queue.drain(out::add, 10));
+            assertEquals(0, queue.drain(out::add, 10));
+            assertEquals(List.of(0, 1, 2, 3, 4), out);
+        }
+
+        @Test
+        @DisplayName("pollIf извлекает только подходящий первый элемент")
+        void pollIf_checksOnlyHead() {
+            ConcurrentRingQueue<Integer> queue = new ConcurrentRingQueue<>(4);
+            queue.offer(1);
+            queue.offer(2);
+            assertNull(queue.pollIf(x -> x == 2), "Подходящий элемент не в начале");
+            assertEquals(1, queue.pollIf(x -> x == 1));
+            assertEquals(2, queue.pollIf(x -> x == 2));
+            assertNull(queue.pollIf(x -> true), "Пустая очередь");
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            ConcurrentRingQueue<Integer> queue = new ConcurrentRingQueue<>(2);
+            assertThrows(NullPointerException.class, () -> queue.offer(null));
+            assertThrows(NullPointerException.class, () -> queue.drain(null, 1));
+            assertThrows(NullPointerException.class, () -> queue.pollIf(null));
+            assertThrows(IllegalArgumentException.class, () -> queue.drain(x -> { }, -1));
+            assertThrows(IllegalArgumentException.class, () -> new ConcurrentRingQueue<>(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Многопоточное поведение")
+    class MultiThreaded {
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("MPMC: 4 производителя и 4 потребителя, каждый элемент ровно один раз")
+        void mpmc_stress() throws InterruptedException {
+            runStress(new ConcurrentRingQueue<>(64), 4, 4, 50_000);
+        }
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("MPMC: потребители чередуют poll и pollIf, каждый элемент ровно один раз")
+        void mpmc_pollIf_stress() throws InterruptedException {
+            runStress(new ConcurrentRingQueue<>(64), 4, 4, 50_000, true);
+        }
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("MPSC: 4 производителя и 1 потребитель")
+        void mpsc_stress() throws InterruptedException {
+            runStress(ConcurrentRingQueue.mpsc(64), 4, 1, 50_000);
+        }
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("SPMC: 1 производитель и 4 потребителя")
+        void spmc_stress() throws InterruptedException {
+            runStress(ConcurrentRingQueue.spmc(64), 1, 4, 200_000);
+        }
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("SPSC: 1 производитель и 1 потребитель")
+        void spsc_stress() throws InterruptedException {
+            runStress(ConcurrentRingQueue.spsc(16), 1, 1, 200_000);
+        }
+    }
+}
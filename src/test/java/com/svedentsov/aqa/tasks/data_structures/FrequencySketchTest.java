@@ -0,0 +1,63 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для FrequencySketch (Count-Min Sketch)")
+class FrequencySketchTest {
+
+    @ParameterizedTest(name = "Размер {0} -> IllegalArgumentException")
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Конструктор отклоняет не положительный размер")
+    void constructor_nonPositiveSize_shouldThrow(int size) {
+        assertThrows(IllegalArgumentException.class, () -> new FrequencySketch<>(size));
+    }
+
+    @Test
+    @DisplayName("Частота нового элемента равна 0")
+    void frequency_unknownElement_isZero() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+        assertEquals(0, sketch.frequency("absent"));
+    }
+
+    @Test
+    @DisplayName("increment увеличивает оценку частоты")
+    void increment_shouldIncreaseFrequency() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(64);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+        assertEquals(5, sketch.frequency(42));
+    }
+
+    @Test
+    @DisplayName("Счетчик насыщается на 15")
+    void increment_shouldSaturateAtFifteen() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(1024);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(7);
+        }
+        assertEquals(15, sketch.frequency(7));
+    }
+
+    @Test
+    @DisplayName("Старение уменьшает частоту ранее популярного элемента")
+    void aging_shouldHalveOldCounters() {
+        int size = 16;
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(size);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(-1);
+        }
+        int before = sketch.frequency(-1);
+        // 10 * size инкрементов других элементов запускают reset
+        for (int i = 0; i < 10 * size; i++) {
+            sketch.increment(i);
+        }
+        assertTrue(sketch.frequency(-1) < before,
+                "После старения частота должна уменьшиться: было " + before + ", стало " + sketch.frequency(-1));
+    }
+}
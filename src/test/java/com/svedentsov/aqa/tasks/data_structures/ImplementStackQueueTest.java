@@ -5,7 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,4 +150,157 @@ class ImplementStackQueueTest {
             assertThrows(NoSuchElementException.class, () -> queue.peek());
         }
     }
+
+    @Nested
+    @DisplayName("Тесты для IntArrayStack")
+    class IntArrayStackTests {
+
+        private ImplementStackQueue.IntArrayStack stack;
+
+        @BeforeEach
+        void setUp() {
+            stack = new ImplementStackQueue.IntArrayStack(0); // Проверяем рост с нулевой емкости
+        }
+
+        @Test
+        @DisplayName("push/pop/peek работают в порядке LIFO")
+        void pushPopPeek_lifo() {
+            assertTrue(stack.isEmpty());
+            stack.push(1);
+            stack.push(2);
+            stack.push(3);
+            assertEquals(3, stack.peek());
+            assertEquals(3, stack.size());
+            assertEquals(3, stack.pop());
+            assertEquals(2, stack.pop());
+            assertEquals(1, stack.pop());
+            assertTrue(stack.isEmpty());
+        }
+
+        @Test
+        @DisplayName("pushAll кладет последний элемент на вершину, drainTo извлекает от вершины")
+        void pushAllAndDrainTo() {
+            stack.push(0);
+            stack.pushAll(1, 2, 3, 4);
+            assertEquals("IntArrayStack (top -> bottom): [4, 3, 2, 1, 0]", stack.toString());
+            int[] target = new int[3];
+            assertEquals(3, stack.drainTo(target));
+            assertArrayEquals(new int[]{4, 3, 2}, target);
+            assertEquals(2, stack.size());
+            assertEquals(2, stack.drainTo(new int[10]));
+            assertTrue(stack.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Совпадает с MyStack на случайной последовательности операций")
+        void randomOperations_matchMyStack() {
+            ImplementStackQueue.MyStack reference = new ImplementStackQueue.MyStack();
+            Random random = new Random(1);
+            for (int i = 0; i < 10_000; i++) {
+                if (reference.isEmpty() || random.nextInt(3) > 0) {
+                    int value = random.nextInt();
+                    stack.push(value);
+                    reference.push(value);
+                } else {
+                    assertEquals(reference.pop(), stack.pop());
+                }
+                assertEquals(reference.size(), stack.size());
+            }
+        }
+
+        @Test
+        @DisplayName("pop и peek на пустом стеке выбрасывают исключение")
+        void emptyStack_throws() {
+            assertThrows(NoSuchElementException.class, () -> stack.pop());
+            assertThrows(NoSuchElementException.class, () -> stack.peek());
+            assertThrows(IllegalArgumentException.class, () -> new ImplementStackQueue.IntArrayStack(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Тесты для IntRingQueue")
+    class IntRingQueueTests {
+
+        private ImplementStackQueue.IntRingQueue queue;
+
+        @BeforeEach
+        void setUp() {
+            queue = new ImplementStackQueue.IntRingQueue(4);
+        }
+
+        @Test
+        @DisplayName("enqueue/dequeue/peek работают в порядке FIFO")
+        void enqueueDequeuePeek_fifo() {
+            queue.enqueue(10);
+            queue.enqueue(20);
+            queue.enqueue(30);
+            assertEquals(10, queue.peek());
+            assertEquals(10, queue.dequeue());
+            assertEquals(20, queue.dequeue());
+            assertEquals(30, queue.dequeue());
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Рост буфера сохраняет порядок, когда элементы переходят через конец массива")
+        void grow_wrappedElements_keepsOrder() {
+            queue.enqueueAll(1, 2, 3);
+            assertEquals(1, queue.dequeue());
+            assertEquals(2, queue.dequeue());
+            queue.enqueueAll(4, 5, 6); // Переход через конец буфера из 4 ячеек
+            queue.enqueueAll(7, 8, 9); // Рост
+            int[] target = new int[10];
+            assertEquals(7, queue.drainTo(target));
+            assertArrayEquals(new int[]{3, 4, 5, 6, 7, 8, 9, 0, 0, 0}, target);
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        @DisplayName("drainTo извлекает не больше длины массива")
+        void drainTo_partial() {
+            queue.enqueueAll(1, 2, 3);
+            int[] target = new int[2];
+            assertEquals(2, queue.drainTo(target));
+            assertArrayEquals(new int[]{1, 2}, target);
+            assertEquals(3, queue.peek());
+        }
+
+        @Test
+        @DisplayName("Совпадает с ArrayDeque на случайной последовательности операций")
+        void randomOperations_matchArrayDeque() {
+            ArrayDeque<Integer> reference = new ArrayDeque<>();
+            Random random = new Random(2);
+            for (int i = 0; i < 10_000; i++) {
+                int op = random.nextInt(4);
+                if (op == 0 && !reference.isEmpty()) {
+                    assertEquals(reference.poll(), queue.dequeue());
+                } else if (op == 1) {
+                    int[] values = random.ints(random.nextInt(7)).toArray();
+                    queue.enqueueAll(values);
+                    for (int v : values) {
+                        reference.add(v);
+                    }
+                } else if (op == 2) {
+                    int[] target = new int[random.nextInt(5)];
+                    int drained = queue.drainTo(target);
+                    for (int j = 0; j < drained; j++) {
+                        assertEquals(reference.poll(), target[j]);
+                    }
+                } else {
+                    int value = random.nextInt();
+                    queue.enqueue(value);
+                    reference.add(value);
+                }
+                assertEquals(reference.size(), queue.size());
+            }
+        }
+
+        @Test
+        @DisplayName("dequeue и peek на пустой очереди выбрасывают исключение")
+        void emptyQueue_throws() {
+            assertThrows(NoSuchElementException.class, () -> queue.dequeue());
+            assertThrows(NoSuchElementException.class, () -> queue.peek());
+            assertThrows(IllegalArgumentException.class, () -> new ImplementStackQueue.IntRingQueue(-1));
+        }
+    }
 }
@@ -6,8 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -206,4 +211,162 @@ class LRUCacheTest {
             assertIterableEquals(List.of(3, 4), keys, "После get(4)");
         }
     }
+
+    @Nested
+    @DisplayName("Ограничение по весу (weigher)")
+    class WeightedTests {
+        @Test
+        @DisplayName("Конструктор с не положительным максимальным весом выбрасывает IllegalArgumentException")
+        void constructor_nonPositiveMaximumWeight_shouldThrow() {
+            assertThrows(IllegalArgumentException.class, () -> new LRUCache<String, byte[]>(0L, v -> v.length));
+            assertThrows(NullPointerException.class, () -> new LRUCache<String, byte[]>(10L, null));
+        }
+
+        @Test
+        @DisplayName("weightedSize отражает суммарный вес при добавлении, обновлении и удалении")
+        void weightedSize_shouldTrackPutUpdateRemove() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[10]);
+            cache.put("b", new byte[20]);
+            assertEquals(30, cache.weightedSize());
+
+            cache.put("a", new byte[5]); // Обновление: 10 -> 5
+            assertEquals(25, cache.weightedSize());
+
+            cache.remove("b");
+            assertEquals(5, cache.weightedSize());
+
+            cache.clear();
+            assertEquals(0, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("При превышении веса вытесняются самые старые записи, пока вес не уложится в лимит")
+        void put_exceedingWeight_shouldEvictEldestUntilFits() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[40]);
+            cache.put("b", new byte[40]);
+            cache.put("c", new byte[10]);
+            cache.get("a"); // Порядок: b, c, a
+
+            cache.put("d", new byte[60]); // 150 > 100: вытесняются b (-> 110), затем c (-> 100)
+
+            assertIterableEquals(List.of("a", "d"), new ArrayList<>(cache.keySet()));
+            assertEquals(100, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("Увеличение веса при обновлении существующего ключа тоже вызывает вытеснение")
+        void put_updateIncreasingWeight_shouldEvict() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[30]);
+            cache.put("b", new byte[30]);
+            cache.put("b", new byte[90]); // 120 > 100: вытесняется a
+
+            assertFalse(cache.containsKey("a"));
+            assertEquals(90, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("Запись тяжелее максимального веса не сохраняется и не вытесняет остальные")
+        void put_entryHeavierThanMaximum_shouldNotBeRetained() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("small", new byte[10]);
+            cache.put("huge", new byte[500]);
+
+            assertFalse(cache.containsKey("huge"));
+            assertTrue(cache.containsKey("small"));
+            assertEquals(10, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("Обновление ключа слишком тяжелым значением удаляет только этот ключ")
+        void put_existingKeyOversized_shouldDropOnlyThatKey() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[10]);
+            cache.put("b", new byte[20]);
+            assertEquals(20, cache.put("b", new byte[500]).length);
+
+            assertFalse(cache.containsKey("b"));
+            assertTrue(cache.containsKey("a"));
+            assertEquals(10, cache.weightedSize());
+
+            cache.replaceAll((k, v) -> new byte[500]);
+            assertTrue(cache.isEmpty());
+            assertEquals(0, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("Кеш с функцией веса сериализуется без нее")
+        void weightedMode_serialization_dropsWeigher() throws Exception {
+            LRUCache<String, String> cache = new LRUCache<>(100L, String::length);
+            cache.put("a", "value");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(cache);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                @SuppressWarnings("unchecked")
+                LRUCache<String, String> restored = (LRUCache<String, String>) in.readObject();
+                assertEquals("value", restored.get("a"));
+                assertEquals(restored.size(), restored.weightedSize(), "Без функции веса каждая запись весит 1");
+            }
+        }
+
+        @Test
+        @DisplayName("Без функции веса weightedSize равен size")
+        void weightedSize_countMode_equalsSize() {
+            LRUCache<Integer, Integer> cache = new LRUCache<>(3);
+            cache.put(1, 1);
+            cache.put(2, 2);
+            assertEquals(2, cache.weightedSize());
+            assertEquals(3, cache.maximumWeight());
+        }
+
+        @Test
+        @DisplayName("Представления доступны только для чтения, compute не поддерживается")
+        void weightedMode_viewsAreReadOnly() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[1]);
+            assertThrows(UnsupportedOperationException.class, () -> cache.keySet().remove("a"));
+            assertThrows(UnsupportedOperationException.class, () -> cache.compute("a", (k, v) -> v));
+            assertThrows(NullPointerException.class, () -> cache.put("b", null));
+        }
+
+        @Test
+        @DisplayName("Entry.setValue через entrySet отклоняется и не меняет вес")
+        void weightedMode_entrySetValue_shouldThrow() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[10]);
+            Map.Entry<String, byte[]> entry = cache.entrySet().iterator().next();
+            assertThrows(UnsupportedOperationException.class, () -> entry.setValue(new byte[90]));
+            assertEquals(10, cache.get("a").length);
+            assertEquals(10, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("replaceAll пересчитывает вес и вытесняет по превышению")
+        void weightedMode_replaceAll_shouldReweighAndEvict() {
+            LRUCache<String, byte[]> cache = new LRUCache<>(100L, v -> v.length);
+            cache.put("a", new byte[10]);
+            cache.put("b", new byte[10]);
+            cache.replaceAll((k, v) -> new byte[k.equals("a") ? 30 : 5]);
+            assertEquals(35, cache.weightedSize());
+
+            cache.replaceAll((k, v) -> new byte[60]); // 120 > 100: вытесняется самая старая запись
+            assertEquals(60, cache.weightedSize());
+            assertEquals(1, cache.size());
+        }
+
+        @Test
+        @DisplayName("remove(key, value) вычитает вес хранимого значения, а не аргумента")
+        void weightedMode_conditionalRemove_shouldSubtractStoredWeight() {
+            LRUCache<String, String> cache = new LRUCache<>(100L, v -> v.length());
+            cache.put("a", new String("same")); // Вес 4
+            cache.put("b", "xx");
+            assertFalse(cache.remove("a", "other"));
+            assertTrue(cache.remove("a", "same"));
+            assertEquals(2, cache.weightedSize());
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для LongLRUCache")
+class LongLRUCacheTest {
+
+    @Nested
+    @DisplayName("Тесты конструктора")
+    class ConstructorTests {
+        @ParameterizedTest(name = "Емкость {0} -> IllegalArgumentException")
+        @ValueSource(ints = {0, -1, -100})
+        @DisplayName("Должен выбрасывать IllegalArgumentException для не положительной емкости")
+        void constructor_shouldThrowIllegalArgumentException_forNonPositiveCapacity(int invalidCapacity) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> new LongLRUCache<>(invalidCapacity));
+            assertTrue(ex.getMessage().contains("Capacity must be positive"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Операции put и get")
+    class PutAndGetTests {
+        @Test
+        @DisplayName("Последовательность операций из примера LeetCode")
+        void leetCodeExampleSequence() {
+            LongLRUCache<Integer> cache = new LongLRUCache<>(2);
+            cache.put(1L, 1);
+            cache.put(2L, 2);
+            assertEquals(1, cache.get(1L));
+            cache.put(3L, 3); // Вытесняет 2
+            assertNull(cache.get(2L));
+            cache.put(4L, 4); // Вытесняет 1
+            assertNull(cache.get(1L));
+            assertEquals(3, cache.get(3L));
+            assertEquals(4, cache.get(4L));
+            assertArrayEquals(new long[]{3L, 4L}, cache.keysInAccessOrder());
+        }
+
+        @Test
+        @DisplayName("put существующего ключа возвращает старое значение и обновляет порядок")
+        void put_existingKey_shouldReturnOldValueAndUpdateOrder() {
+            LongLRUCache<String> cache = new LongLRUCache<>(2);
+            assertNull(cache.put(10L, "a"));
+            cache.put(20L, "b");
+            assertEquals("a", cache.put(10L, "a2"));
+            cache.put(30L, "c"); // Вытесняет 20
+
+            assertFalse(cache.containsKey(20L));
+            assertEquals("a2", cache.get(10L));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("Отрицательные и граничные ключи обрабатываются корректно")
+        void put_extremeKeys_shouldWork() {
+            LongLRUCache<String> cache = new LongLRUCache<>(4);
+            cache.put(Long.MIN_VALUE, "min");
+            cache.put(Long.MAX_VALUE, "max");
+            cache.put(0L, "zero");
+            cache.put(-1L, "minusOne");
+            assertEquals("min", cache.get(Long.MIN_VALUE));
+            assertEquals("max", cache.get(Long.MAX_VALUE));
+            assertEquals("zero", cache.get(0L));
+            assertEquals("minusOne", cache.get(-1L));
+        }
+
+        @Test
+        @DisplayName("remove освобождает место, индекс записи переиспользуется")
+        void remove_shouldFreeSlot() {
+            LongLRUCache<String> cache = new LongLRUCache<>(2);
+            cache.put(1L, "one");
+            cache.put(2L, "two");
+            assertEquals("one", cache.remove(1L));
+            assertNull(cache.remove(1L));
+            cache.put(3L, "three"); // Без вытеснения
+
+            assertEquals("two", cache.get(2L));
+            assertEquals("three", cache.get(3L));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("clear удаляет все записи")
+        void clear_shouldRemoveAll() {
+            LongLRUCache<String> cache = new LongLRUCache<>(3);
+            cache.put(1L, "one");
+            cache.put(2L, "two");
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertNull(cache.get(1L));
+            cache.put(5L, "five");
+            assertEquals("five", cache.get(5L));
+        }
+
+        @Test
+        @DisplayName("put с null значением выбрасывает NullPointerException")
+        void put_nullValue_shouldThrow() {
+            LongLRUCache<String> cache = new LongLRUCache<>(2);
+            assertThrows(NullPointerException.class, () -> cache.put(1L, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Сравнение с LRUCache")
+    class ReferenceComparisonTests {
+        @Test
+        @DisplayName("Случайная последовательность операций дает тот же результат, что и LRUCache<Long, V>")
+        void randomOperations_shouldMatchLruCache() {
+            int capacity = 64;
+            LongLRUCache<Long> cache = new LongLRUCache<>(capacity);
+            LRUCache<Long, Long> reference = new LRUCache<>(capacity);
+            Random random = new Random(7);
+            for (int i = 0; i < 50_000; i++) {
+                long key = random.nextInt(200) * 1_000_003L; // Много коллизий по младшим битам
+                int operation = random.nextInt(10);
+                if (operation < 5) {
+                    assertEquals(reference.get(key), cache.get(key), "get на шаге " + i);
+                } else if (operation < 9) {
+                    assertEquals(reference.put(key, (long) i), cache.put(key, (long) i), "put на шаге " + i);
+                } else {
+                    assertEquals(reference.remove(key), cache.remove(key), "remove на шаге " + i);
+                }
+                assertEquals(reference.size(), cache.size());
+            }
+            long[] expectedOrder = reference.keySet().stream().mapToLong(Long::longValue).toArray();
+            assertArrayEquals(expectedOrder, cache.keysInAccessOrder());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для OffHeapLRUCache")
+class OffHeapLRUCacheTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("Тесты конструктора")
+    class ConstructorTests {
+        @Test
+        @DisplayName("Некорректные размеры приводят к IllegalArgumentException")
+        void constructor_invalidSizes_shouldThrow() {
+            assertThrows(IllegalArgumentException.class, () -> new OffHeapLRUCache<String>(1024, 4));
+            assertThrows(IllegalArgumentException.class, () -> new OffHeapLRUCache<String>(100, 1024));
+        }
+    }
+
+    @Nested
+    @DisplayName("Операции put и get")
+    class PutAndGetTests {
+        @Test
+        @DisplayName("get возвращает read-only представление с записанными байтами")
+        void get_shouldReturnReadOnlyView() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            cache.put("k", bytes("hello"));
+
+            ByteBuffer view = cache.get("k");
+            assertNotNull(view);
+            assertTrue(view.isReadOnly());
+            assertTrue(view.isDirect(), "Данные должны находиться вне кучи");
+            assertEquals(5, view.remaining());
+            assertArrayEquals(bytes("hello"), cache.getBytes("k"));
+            assertThrows(ReadOnlyBufferException.class, () -> view.put(0, (byte) 1));
+        }
+
+        @Test
+        @DisplayName("Отсутствующий ключ -> null")
+        void get_missingKey_shouldReturnNull() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            assertNull(cache.get("missing"));
+            assertNull(cache.getBytes("missing"));
+        }
+
+        @Test
+        @DisplayName("Перезапись ключа возвращает новое значение")
+        void put_existingKey_shouldOverwrite() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            cache.put("k", bytes("old"));
+            cache.put("k", bytes("new value"));
+            assertArrayEquals(bytes("new value"), cache.getBytes("k"));
+            assertEquals(1, cache.size());
+        }
+
+        @Test
+        @DisplayName("put(ByteBuffer) копирует оставшиеся байты и не сдвигает позицию источника")
+        void put_byteBuffer_shouldCopyRemainingBytes() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            ByteBuffer source = ByteBuffer.wrap(bytes("xxpayload"));
+            source.position(2);
+            cache.put("k", source);
+            assertEquals(2, source.position());
+            assertArrayEquals(bytes("payload"), cache.getBytes("k"));
+        }
+
+        @Test
+        @DisplayName("Пустое значение допустимо")
+        void put_emptyValue_shouldBeStored() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            cache.put("empty", new byte[0]);
+            assertEquals(0, cache.get("empty").remaining());
+        }
+
+        @Test
+        @DisplayName("Значение больше слаба отклоняется")
+        void put_valueLargerThanSlab_shouldThrow() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            assertThrows(IllegalArgumentException.class, () -> cache.put("big", new byte[1021]));
+            assertDoesNotThrow(() -> cache.put("fits", new byte[1020]));
+        }
+
+        @Test
+        @DisplayName("remove удаляет ключ, clear - все ключи")
+        void removeAndClear_shouldDeleteKeys() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4096, 1024);
+            cache.put("a", bytes("1"));
+            cache.put("b", bytes("2"));
+            assertTrue(cache.remove("a"));
+            assertFalse(cache.remove("a"));
+            assertNull(cache.get("a"));
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertNull(cache.get("b"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Вытеснение по слабам")
+    class SlabEvictionTests {
+        @Test
+        @DisplayName("При заполнении вытесняется слаб с самым давним обращением")
+        void put_whenFull_shouldEvictLeastRecentlyUsedSlab() {
+            // 3 слаба по 64 байта, значение 28 байт + заголовок 4 = 32 -> 2 значения в слабе
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(3 * 64, 64);
+            byte[] value = new byte[28];
+            cache.put("a1", value);
+            cache.put("a2", value); // Слаб 0: a1, a2
+            cache.put("b1", value);
+            cache.put("b2", value); // Слаб 1: b1, b2
+            cache.put("c1", value);
+            cache.put("c2", value); // Слаб 2: c1, c2
+            assertEquals(3 * 64, cache.allocatedBytes());
+
+            cache.get("a1"); // Слаб 0 становится самым свежим, самый старый - слаб 1
+
+            cache.put("d1", value); // Нужен новый слаб -> вытесняется слаб 1 (b1, b2)
+
+            assertNull(cache.get("b1"));
+            assertNull(cache.get("b2"));
+            assertNotNull(cache.get("a1"));
+            assertNotNull(cache.get("a2"));
+            assertNotNull(cache.get("c1"));
+            assertNotNull(cache.get("d1"));
+            assertEquals(5, cache.size());
+            assertEquals(3 * 64, cache.allocatedBytes(), "Новые слабы сверх лимита не выделяются");
+        }
+
+        @Test
+        @DisplayName("Ключ, перезаписанный в другой слаб, не теряется при вытеснении старого слаба")
+        void evict_shouldKeepKeysRewrittenToOtherSlab() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(2 * 64, 64);
+            byte[] value = new byte[28];
+            cache.put("a", value);
+            cache.put("b", value); // Слаб 0: a, b
+            cache.put("a", bytes("fresh")); // Слаб 1: a (новая версия)
+            cache.put("c", value); // Слаб 1: a, c
+            cache.put("d", value); // Вытесняется слаб 0 (b и старая копия a)
+
+            assertNull(cache.get("b"));
+            assertArrayEquals(bytes("fresh"), cache.getBytes("a"));
+            assertNotNull(cache.get("d"));
+        }
+
+        @Test
+        @DisplayName("После clear слабы переиспользуются с первого, новые не выделяются")
+        void clear_shouldReuseSlabsBeforeAllocating() {
+            OffHeapLRUCache<String> cache = new OffHeapLRUCache<>(4 * 64, 64);
+            byte[] value = new byte[28];
+            cache.put("a1", value);
+            cache.put("a2", value);
+            cache.put("b1", value); // Выделены слабы 0 и 1
+            assertEquals(2 * 64, cache.allocatedBytes());
+
+            cache.clear();
+            for (int i = 0; i < 4; i++) {
+                cache.put("k" + i, value); // Занимают слабы 0 и 1 заново
+            }
+            assertEquals(2 * 64, cache.allocatedBytes());
+            assertEquals(4, cache.size());
+
+            cache.put("k4", value); // Оба прежних слаба заполнены - только теперь выделяется третий
+            assertEquals(3 * 64, cache.allocatedBytes());
+            assertEquals(5, cache.size());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для PrimitiveMedianFinder (медиана без упаковки)")
+class PrimitiveMedianFinderTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Эталонная медиана через сортировку префикса.
+     */
+    private static double sortedMedian(long[] values, int count) {
+        long[] prefix = Arrays.copyOf(values, count);
+        Arrays.sort(prefix);
+        int mid = count / 2;
+        return count % 2 == 1 ? prefix[mid] : prefix[mid - 1] / 2.0 + prefix[mid] / 2.0;
+    }
+
+    @Nested
+    @DisplayName("OfInt")
+    class OfIntTests {
+
+        @Test
+        @DisplayName("Пустой трекер возвращает 0.0")
+        void findMedian_empty_returnsZero() {
+            PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt();
+            assertEquals(0.0, finder.findMedian(), DELTA);
+            assertEquals(0, finder.getSize());
+        }
+
+        @Test
+        @DisplayName("Последовательность 1, 2, 3 как в MedianFinder")
+        void addNum_sequence_1_2_3() {
+            PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt();
+            finder.addNum(1);
+            assertEquals(1.0, finder.findMedian(), DELTA);
+            finder.addNum(2);
+            assertEquals(1.5, finder.findMedian(), DELTA);
+            finder.addNum(3);
+            assertEquals(2.0, finder.findMedian(), DELTA);
+            assertEquals(3, finder.getSize());
+        }
+
+        @Test
+        @DisplayName("Среднее двух крайних int не переполняется")
+        void findMedian_extremeValues_noOverflow() {
+            PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt();
+            finder.addNum(Integer.MAX_VALUE);
+            finder.addNum(Integer.MAX_VALUE - 2);
+            assertEquals(Integer.MAX_VALUE - 1.0, finder.findMedian(), DELTA);
+        }
+
+        @ParameterizedTest(name = "seed = {0}")
+        @ValueSource(ints = {1, 2, 3})
+        @DisplayName("Совпадает с MedianFinder и сортировкой на случайном потоке с повторами")
+        void addNum_randomStream_matchesReference(int seed) {
+            Random random = new Random(seed);
+            PrimitiveMedianFinder.OfInt finder = new PrimitiveMedianFinder.OfInt(0); // Проверяем рост массивов
+            MedianFinder reference = new MedianFinder();
+            long[] values = new long[2_000];
+            for (int i = 0; i < values.length; i++) {
+                int value = random.nextInt(200) - 100;
+                values[i] = value;
+                finder.addNum(value);
+                reference.addNum(value);
+                assertEquals(reference.findMedian(), finder.findMedian(), DELTA, "Шаг " + i);
+                assertEquals(sortedMedian(values, i + 1), finder.findMedian(), DELTA);
+            }
+            assertEquals(values.length, finder.getSize());
+        }
+
+        @Test
+        @DisplayName("Отрицательный ожидаемый размер отклоняется")
+        void constructor_negativeSize_throws() {
+            assertThrows(IllegalArgumentException.class, () -> new PrimitiveMedianFinder.OfInt(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("OfLong")
+    class OfLongTests {
+
+        @Test
+        @DisplayName("Значения за пределами int и их среднее без переполнения")
+        void addNum_largeValues() {
+            PrimitiveMedianFinder.OfLong finder = new PrimitiveMedianFinder.OfLong();
+            finder.addNum(Long.MAX_VALUE);
+            assertEquals((double) Long.MAX_VALUE, finder.findMedian(), 1.0);
+            finder.addNum(Long.MAX_VALUE - 2);
+            assertEquals((double) Long.MAX_VALUE, finder.findMedian(), 1e4);
+            finder.addNum(5_000_000_000L);
+            assertEquals((double) (Long.MAX_VALUE - 2), finder.findMedian(), 1e4);
+        }
+
+        @Test
+        @DisplayName("Совпадает с сортировкой на случайном потоке")
+        void addNum_randomStream_matchesSortedMedian() {
+            Random random = new Random(42);
+            PrimitiveMedianFinder.OfLong finder = new PrimitiveMedianFinder.OfLong();
+            long[] values = new long[1_000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextLong() >> 8;
+                finder.addNum(values[i]);
+                assertEquals(sortedMedian(values, i + 1), finder.findMedian(), Math.ulp(1e17), "Шаг " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Пустой трекер возвращает 0.0")
+        void findMedian_empty_returnsZero() {
+            assertEquals(0.0, new PrimitiveMedianFinder.OfLong().findMedian(), DELTA);
+        }
+    }
+
+    @Nested
+    @DisplayName("OfDouble")
+    class OfDoubleTests {
+
+        @Test
+        @DisplayName("Медиана дробных чисел и отрицательных значений")
+        void addNum_fractionalValues() {
+            PrimitiveMedianFinder.OfDouble finder = new PrimitiveMedianFinder.OfDouble();
+            finder.addNum(0.5);
+            finder.addNum(-1.25);
+            assertEquals(-0.375, finder.findMedian(), DELTA);
+            finder.addNum(10.0);
+            assertEquals(0.5, finder.findMedian(), DELTA);
+            assertEquals(3, finder.getSize());
+        }
+
+        @Test
+        @DisplayName("Совпадает с сортировкой на случайном потоке")
+        void addNum_randomStream_matchesSortedMedian() {
+            Random random = new Random(7);
+            PrimitiveMedianFinder.OfDouble finder = new PrimitiveMedianFinder.OfDouble();
+            double[] values = new double[1_000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextGaussian() * 100;
+                finder.addNum(values[i]);
+                double[] prefix = Arrays.copyOf(values, i + 1);
+                Arrays.sort(prefix);
+                int mid = prefix.length / 2;
+                double expected = prefix.length % 2 == 1 ? prefix[mid] : prefix[mid - 1] / 2.0 + prefix[mid] / 2.0;
+                assertEquals(expected, finder.findMedian(), DELTA, "Шаг " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("NaN отклоняется")
+        void addNum_nan_throws() {
+            PrimitiveMedianFinder.OfDouble finder = new PrimitiveMedianFinder.OfDouble();
+            assertThrows(IllegalArgumentException.class, () -> finder.addNum(Double.NaN));
+            assertEquals(0, finder.getSize());
+        }
+    }
+}
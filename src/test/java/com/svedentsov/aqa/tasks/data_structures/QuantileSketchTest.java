@@ -0,0 +1,223 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для QuantileSketch (квантили фиксированной памяти)")
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.0, 0.5, 0.9, 0.95, 0.99, 0.999, 1.0};
+
+    /**
+     * Эталонный квантиль по отсортированным значениям (ранг ceil(q * n)).
+     */
+    private static long exactQuantile(long[] sorted, double q) {
+        int rank = Math.max(1, (int) Math.ceil(q * sorted.length));
+        return sorted[rank - 1];
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual, int precisionBits, String message) {
+        double tolerance = Math.max(1, expected * Math.pow(2, -(precisionBits + 1)));
+        assertEquals(expected, actual, tolerance, message);
+    }
+
+    @Nested
+    @DisplayName("Добавление и квантили")
+    class AddAndQuantile {
+
+        @Test
+        @DisplayName("Пустой скетч возвращает 0")
+        void quantile_empty_returnsZero() {
+            QuantileSketch sketch = new QuantileSketch();
+            assertEquals(0, sketch.quantile(0.5));
+            assertEquals(0, sketch.count());
+            assertEquals(0, sketch.min());
+            assertEquals(0, sketch.max());
+        }
+
+        @Test
+        @DisplayName("Малые значения хранятся точно")
+        void quantile_smallValues_exact() {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = 1; i <= 100; i++) {
+                sketch.add(i);
+            }
+            assertEquals(50, sketch.quantile(0.5));
+            assertEquals(99, sketch.quantile(0.99));
+            assertEquals(1, sketch.quantile(0.0));
+            assertEquals(100, sketch.quantile(1.0));
+            assertEquals(100, sketch.count());
+        }
+
+        @ParameterizedTest(name = "precisionBits = {0}")
+        @ValueSource(ints = {3, 7, 10})
+        @DisplayName("Ошибка на логнормальном потоке не больше 2^-(p+1)")
+        void quantile_randomStream_withinRelativeError(int precisionBits) {
+            Random random = new Random(precisionBits);
+            QuantileSketch sketch = new QuantileSketch(precisionBits);
+            long[] values = new long[100_000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) Math.exp(random.nextGaussian() * 2 + 10);
+                sketch.add(values[i]);
+            }
+            Arrays.sort(values);
+            for (double q : QUANTILES) {
+                assertWithinRelativeError(exactQuantile(values, q), sketch.quantile(q), precisionBits, "q = " + q);
+            }
+        }
+
+        @Test
+        @DisplayName("Крайние значения long и 0 обрабатываются")
+        void add_extremeValues() {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(0);
+            sketch.add(Long.MAX_VALUE);
+            assertEquals(0, sketch.quantile(0.5));
+            assertEquals(Long.MAX_VALUE, sketch.quantile(1.0));
+            assertEquals(Long.MAX_VALUE, sketch.max());
+        }
+
+        @Test
+        @DisplayName("add с количеством равносилен повторным add")
+        void add_withCount_equalsRepeatedAdd() {
+            QuantileSketch bulk = new QuantileSketch();
+            QuantileSketch single = new QuantileSketch();
+            bulk.add(1_000, 3);
+            bulk.add(50_000, 2);
+            for (int i = 0; i < 3; i++) {
+                single.add(1_000);
+            }
+            single.add(50_000);
+            single.add(50_000);
+            assertArrayEquals(single.toByteArray(), bulk.toByteArray());
+        }
+
+        @Test
+        @DisplayName("reset очищает скетч")
+        void reset_clearsSketch() {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(42);
+            sketch.reset();
+            assertEquals(0, sketch.count());
+            assertEquals(0, sketch.quantile(0.99));
+            sketch.add(7);
+            assertEquals(7, sketch.quantile(0.5));
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            QuantileSketch sketch = new QuantileSketch();
+            assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+            assertThrows(IllegalArgumentException.class, () -> sketch.add(1, 0));
+            assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+            assertThrows(IllegalArgumentException.class, () -> sketch.quantile(Double.NaN));
+            assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+            assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(13));
+        }
+    }
+
+    @Nested
+    @DisplayName("Слияние")
+    class Merge {
+
+        @Test
+        @DisplayName("Слияние совпадает со скетчем объединенного потока")
+        void merge_equalsSketchOfCombinedStream() {
+            Random random = new Random(1);
+            QuantileSketch left = new QuantileSketch();
+            QuantileSketch right = new QuantileSketch();
+            QuantileSketch combined = new QuantileSketch();
+            for (int i = 0; i < 10_000; i++) {
+                long value = random.nextInt(1_000_000);
+                (i % 3 == 0 ? left : right).add(value);
+                combined.add(value);
+            }
+            left.merge(right);
+            assertArrayEquals(combined.toByteArray(), left.toByteArray());
+            assertEquals(combined.min(), left.min());
+            assertEquals(combined.max(), left.max());
+        }
+
+        @Test
+        @DisplayName("Слияние с пустым скетчем ничего не меняет")
+        void merge_empty_noChange() {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(5);
+            sketch.merge(new QuantileSketch());
+            assertEquals(1, sketch.count());
+            assertEquals(5, sketch.min());
+            assertEquals(5, sketch.max());
+        }
+
+        @Test
+        @DisplayName("Скетчи разной точности не сливаются")
+        void merge_differentPrecision_throws() {
+            assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(7).merge(new QuantileSketch(8)));
+            assertThrows(NullPointerException.class, () -> new QuantileSketch().merge(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Сериализация")
+    class Serialization {
+
+        @Test
+        @DisplayName("Круговое преобразование сохраняет квантили, min и max")
+        void roundTrip_preservesState() {
+            Random random = new Random(3);
+            QuantileSketch sketch = new QuantileSketch(9);
+            for (int i = 0; i < 50_000; i++) {
+                sketch.add((long) Math.exp(random.nextGaussian() * 3 + 8));
+            }
+            QuantileSketch restored = QuantileSketch.fromByteArray(sketch.toByteArray());
+            assertEquals(sketch.precisionBits(), restored.precisionBits());
+            assertEquals(sketch.count(), restored.count());
+            assertEquals(sketch.min(), restored.min());
+            assertEquals(sketch.max(), restored.max());
+            for (double q : QUANTILES) {
+                assertEquals(sketch.quantile(q), restored.quantile(q), "q = " + q);
+            }
+        }
+
+        @Test
+        @DisplayName("Представление компактно: кодируются только непустые корзины")
+        void toByteArray_isCompact() {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = 0; i < 1_000_000; i++) {
+                sketch.add(1_000 + i % 100);
+            }
+            assertTrue(sketch.toByteArray().length < 200, "Длина: " + sketch.toByteArray().length);
+        }
+
+        @Test
+        @DisplayName("Пустой скетч восстанавливается пустым")
+        void roundTrip_empty() {
+            QuantileSketch restored = QuantileSketch.fromByteArray(new QuantileSketch().toByteArray());
+            assertEquals(0, restored.count());
+            assertEquals(0, restored.quantile(0.5));
+        }
+
+        @Test
+        @DisplayName("Поврежденные данные отклоняются")
+        void fromByteArray_corrupted_throws() {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(123);
+            byte[] bytes = sketch.toByteArray();
+            assertThrows(IllegalArgumentException.class,
+                    () -> QuantileSketch.fromByteArray(Arrays.copyOf(bytes, bytes.length - 1)));
+            byte[] wrongVersion = bytes.clone();
+            wrongVersion[0] = 99;
+            assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromByteArray(wrongVersion));
+            assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromByteArray(new byte[0]));
+        }
+    }
+}
@@ -1,9 +1,30 @@
 package com.svedentsov.aqa.tasks.data_structures;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -238,4 +259,839 @@ class SimpleInMemoryCacheTest {
             assertDoesNotThrow(() -> cache.shutdownCleanup());
         }
     }
+
+    @Nested
+    @DisplayName("Очистка по корзинам истечения")
+    class ExpiryBucketCleanup {
+
+        @BeforeEach
+        void setUp() {
+            cache = new SimpleInMemoryCache<>(DEFAULT_TTL, false);
+        }
+
+        @Test
+        @DisplayName("Перезапись ключа с большим TTL не удаляется очисткой старой корзины")
+        void removeExpiredEntries_shouldKeepOverwrittenEntry() {
+            cache.put("key", "old", SHORT_TTL);
+            cache.put("key", "new", LONG_TTL);
+            sleep(SHORT_TTL + 50);
+            cache.removeExpiredEntries();
+
+            assertEquals(1, cache.size());
+            assertEquals("new", cache.get("key").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Большое количество истекших записей удаляется, свежие остаются")
+        void removeExpiredEntries_manyEntries_shouldRemoveOnlyExpired() {
+            for (int i = 0; i < 10_000; i++) {
+                cache.put("short" + i, i, SHORT_TTL);
+            }
+            for (int i = 0; i < 100; i++) {
+                cache.put("long" + i, i, LONG_TTL * 10);
+            }
+            sleep(SHORT_TTL + 50);
+            cache.removeExpiredEntries();
+
+            assertEquals(100, cache.size());
+            assertTrue(cache.get("long42").isPresent());
+        }
+
+        @Test
+        @DisplayName("Повторная очистка и очистка пустого кеша безопасны")
+        void removeExpiredEntries_repeated_shouldBeSafe() {
+            assertDoesNotThrow(() -> cache.removeExpiredEntries());
+            cache.put("k", "v", SHORT_TTL);
+            sleep(SHORT_TTL + 50);
+            cache.removeExpiredEntries();
+            cache.removeExpiredEntries();
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        @DisplayName("clear сбрасывает и записи, и корзины; новые записи продолжают истекать")
+        void clear_thenPut_shouldStillExpire() {
+            cache.put("a", "v", SHORT_TTL);
+            cache.clear();
+            cache.put("b", "v", SHORT_TTL);
+            sleep(SHORT_TTL + 50);
+            cache.removeExpiredEntries();
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        @DisplayName("Перезапись и удаление не оставляют старые записи в корзинах до истечения TTL")
+        void overwriteAndRemove_shouldNotRetainEntriesInBuckets() {
+            for (int i = 0; i < 10_000; i++) {
+                cache.put("key", i, LONG_TTL * 10);
+            }
+            assertEquals(1, cache.scheduledEntryCount());
+            cache.put("other", "v");
+            cache.remove("other");
+            cache.remove("key");
+            assertEquals(0, cache.scheduledEntryCount());
+        }
+
+        @Test
+        @Timeout(value = 30, unit = TimeUnit.SECONDS)
+        @DisplayName("Очистка параллельно с put/get/remove не падает и не оставляет записей в корзинах")
+        void removeExpiredEntries_concurrentWithMutations_shouldNotFail() throws Exception {
+            SimpleInMemoryCache<Integer, Integer> shortLived = new SimpleInMemoryCache<>(1, false);
+            AtomicBoolean stop = new AtomicBoolean();
+            List<Throwable> failures = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = seed; !stop.get(); i++) {
+                            int key = i & 4095; // Крупные корзины: их обход длится дольше, и гонка вероятнее
+                            shortLived.put(key, i);
+                            shortLived.get((key * 7) & 4095); // Ленивое истечение тоже убирает запись из корзины
+                            if ((i & 7) == 0) {
+                                shortLived.remove(key);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            threads.add(new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        shortLived.removeExpiredEntries();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+            threads.forEach(Thread::start);
+            sleep(2_000);
+            stop.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(List.of(), failures);
+
+            sleep(50); // Все записи (TTL 1 мс) и их корзины теперь в прошлом
+            shortLived.removeExpiredEntries();
+            assertEquals(0, shortLived.size());
+            assertEquals(0, shortLived.scheduledEntryCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Загрузка при промахе (single-flight)")
+    class LoadingCache {
+
+        @BeforeEach
+        void setUp() {
+            cache = new SimpleInMemoryCache<>(DEFAULT_TTL, false);
+        }
+
+        @Test
+        @DisplayName("get с loader загружает и кеширует значение при промахе")
+        void getWithLoader_miss_shouldLoadAndCache() {
+            AtomicInteger loads = new AtomicInteger();
+            assertEquals("value:k", cache.get("k", key -> {
+                loads.incrementAndGet();
+                return "value:" + key;
+            }));
+            assertEquals("value:k", cache.get("k", key -> "other"));
+            assertEquals(1, loads.get());
+            assertEquals("value:k", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Одновременные промахи по одному ключу выполняют одну загрузку")
+        void getWithLoader_concurrentMisses_shouldLoadOnce() throws Exception {
+            int threads = 16;
+            AtomicInteger loads = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return cache.get("hot", key -> {
+                            loads.incrementAndGet();
+                            sleep(100); // Медленный источник данных
+                            return "loaded";
+                        });
+                    }));
+                }
+                start.countDown();
+                for (Future<Object> result : results) {
+                    assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(1, loads.get(), "Источник должен быть вызван один раз");
+        }
+
+        @Test
+        @DisplayName("Ошибка загрузки пробрасывается и не кешируется")
+        void getWithLoader_failure_shouldNotBeCached() {
+            IllegalStateException ex = assertThrows(IllegalStateException.class,
+                    () -> cache.get("k", key -> {
+                        throw new IllegalStateException("backend down");
+                    }));
+            assertEquals("backend down", ex.getMessage());
+            assertFalse(cache.get("k").isPresent());
+            assertEquals("recovered", cache.get("k", key -> "recovered"));
+        }
+
+        @Test
+        @DisplayName("null из loader возвращается, но не кешируется")
+        void getWithLoader_nullValue_shouldNotBeCached() {
+            assertNull(cache.get("k", key -> null));
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        @DisplayName("getAsync объединяет одновременные промахи и кеширует результат")
+        void getAsync_concurrentMisses_shouldShareOneLoad() throws Exception {
+            AtomicInteger loads = new AtomicInteger();
+            CompletableFuture<Object> backend = new CompletableFuture<>();
+            CompletableFuture<Object> first = cache.getAsync("k", key -> {
+                loads.incrementAndGet();
+                return backend;
+            });
+            CompletableFuture<Object> second = cache.getAsync("k", key -> {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture("other");
+            });
+            assertFalse(first.isDone());
+            assertFalse(second.isDone());
+
+            backend.complete("async");
+
+            assertEquals("async", first.get(1, TimeUnit.SECONDS));
+            assertEquals("async", second.get(1, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals("async", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Неуспешная асинхронная загрузка не кешируется")
+        void getAsync_failure_shouldNotBeCached() {
+            CompletableFuture<Object> failed = cache.getAsync("k",
+                    key -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+            assertFalse(cache.get("k").isPresent());
+
+            assertEquals("ok", cache.getAsync("k", key -> CompletableFuture.completedFuture("ok")).join());
+        }
+
+        @Test
+        @DisplayName("Отмена копии future не влияет на других ожидающих")
+        void getAsync_cancelledCopy_shouldNotAffectOthers() {
+            CompletableFuture<Object> backend = new CompletableFuture<>();
+            CompletableFuture<Object> first = cache.getAsync("k", key -> backend);
+            CompletableFuture<Object> second = cache.getAsync("k", key -> backend);
+            first.cancel(true);
+            backend.complete("v");
+            assertEquals("v", second.join());
+        }
+    }
+
+    @Nested
+    @DisplayName("Обновление до истечения (refreshAfter)")
+    class RefreshAhead {
+
+        private static final long REFRESH_AFTER = 50; // ms
+        // Исполнитель, который только запоминает задачи: тест сам решает, когда их выполнить
+        private final List<Runnable> refreshTasks = new ArrayList<>();
+        private final AtomicInteger version = new AtomicInteger();
+
+        @BeforeEach
+        void setUp() {
+            cache = SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL)
+                    .refreshAfter(REFRESH_AFTER)
+                    .refreshLoader(key -> key + ":v" + version.incrementAndGet())
+                    .refreshExecutor(refreshTasks::add)
+                    .build();
+        }
+
+        private void runRefreshTasks() {
+            List<Runnable> tasks = new ArrayList<>(refreshTasks);
+            refreshTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+
+        @Test
+        @DisplayName("Свежая запись не обновляется")
+        void get_beforeRefreshAfter_shouldNotRefresh() {
+            cache.put("k", "v0");
+            assertEquals("v0", cache.get("k").orElse(null));
+            assertTrue(refreshTasks.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Чтение после refreshAfter сразу возвращает старое значение и запускает одно обновление")
+        void get_afterRefreshAfter_shouldReturnStaleAndRefreshOnce() {
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            assertEquals("v0", cache.get("k").orElse(null));
+            assertEquals("v0", cache.get("k").orElse(null));
+            assertEquals(1, refreshTasks.size(), "Повторные чтения не должны запускать новые обновления");
+
+            runRefreshTasks();
+            assertEquals("k:v1", cache.get("k").orElse(null));
+            assertTrue(refreshTasks.isEmpty(), "Обновленная запись снова свежая");
+        }
+
+        @Test
+        @DisplayName("Обновленная запись живет полный TTL от момента обновления")
+        void refresh_shouldRestartTtl() {
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            cache.get("k");
+            runRefreshTasks();
+            sleep(DEFAULT_TTL - REFRESH_AFTER); // Исходная запись уже истекла бы
+            assertEquals("k:v1", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Замененная обновлением запись не остается в корзине истечения")
+        void refresh_shouldUnscheduleStaleEntry() {
+            cache.put("k", "v0");
+            for (int i = 0; i < 3; i++) {
+                sleep(REFRESH_AFTER + 20);
+                cache.get("k");
+                runRefreshTasks();
+            }
+            assertEquals("k:v3", cache.get("k").orElse(null));
+            assertEquals(1, cache.scheduledEntryCount());
+        }
+
+        @Test
+        @DisplayName("При ошибке обновления старое значение доступно до истечения TTL")
+        void refresh_failure_shouldKeepStaleUntilTtl() {
+            cache = SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL)
+                    .refreshAfter(REFRESH_AFTER)
+                    .refreshLoader(key -> {
+                        throw new IllegalStateException("backend down");
+                    })
+                    .refreshExecutor(refreshTasks::add)
+                    .build();
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            assertEquals("v0", cache.get("k").orElse(null));
+            runRefreshTasks();
+            assertEquals("v0", cache.get("k").orElse(null));
+            assertEquals(1, refreshTasks.size(), "После ошибки следующее чтение повторяет обновление");
+
+            sleep(DEFAULT_TTL);
+            assertFalse(cache.get("k").isPresent(), "Запись исчезает только по истечении TTL");
+        }
+
+        @Test
+        @DisplayName("Результат обновления не затирает более новую запись")
+        void refresh_shouldNotOverwriteNewerPut() {
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            cache.get("k");
+            cache.put("k", "newer");
+            runRefreshTasks();
+            assertEquals("newer", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("get с loader обновляет запись переданным загрузчиком")
+        void getWithLoader_afterRefreshAfter_shouldRefreshWithLoader() {
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            assertEquals("v0", cache.get("k", key -> "from-loader"));
+            runRefreshTasks();
+            assertEquals("from-loader", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("getAsync обновляет запись асинхронным загрузчиком")
+        void getAsync_afterRefreshAfter_shouldRefreshWithAsyncLoader() throws Exception {
+            CompletableFuture<Object> backend = new CompletableFuture<>();
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            assertEquals("v0", cache.getAsync("k", key -> backend).get(1, TimeUnit.SECONDS));
+            runRefreshTasks();
+            assertEquals("v0", cache.get("k").orElse(null), "Пока источник не ответил - старое значение");
+            backend.complete("async");
+            assertEquals("async", cache.get("k").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Без refreshLoader get(key) не обновляет запись")
+        void get_withoutRefreshLoader_shouldNotRefresh() {
+            cache = SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL)
+                    .refreshAfter(REFRESH_AFTER)
+                    .refreshExecutor(refreshTasks::add)
+                    .build();
+            cache.put("k", "v0");
+            sleep(REFRESH_AFTER + 20);
+            assertEquals("v0", cache.get("k").orElse(null));
+            assertTrue(refreshTasks.isEmpty());
+        }
+
+        @Test
+        @DisplayName("refreshAfter должен быть положительным и меньше TTL")
+        void builder_invalidRefreshAfter_shouldThrow() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).refreshAfter(0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).refreshAfter(DEFAULT_TTL).build());
+            assertThrows(IllegalArgumentException.class, () -> SimpleInMemoryCache.builder(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Ограничение размера (maximumSize) с выборочным вытеснением")
+    class MaximumSize {
+
+        @Test
+        @DisplayName("Поток уникальных ключей не превышает maximumSize, вытеснения подсчитываются")
+        void put_uniqueKeys_shouldStayBounded() {
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL).maximumSize(100).build();
+            for (int i = 0; i < 1000; i++) {
+                cache.put("key" + i, i);
+                assertTrue(cache.size() <= 100, "Размер превысил maximumSize на шаге " + i);
+            }
+            assertEquals(100, cache.size());
+            assertEquals(900, cache.evictionCount());
+        }
+
+        @Test
+        @DisplayName("Корзины истечения удерживают не больше maximumSize записей при вытеснении, перезаписи и удалении")
+        void mixedWrites_shouldBoundScheduledEntries() {
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL * 10).maximumSize(100).build();
+            for (int i = 0; i < 5_000; i++) {
+                cache.put("key" + i % 300, i); // Вытеснения и перезаписи вперемешку
+                if (i % 7 == 0) {
+                    cache.remove("key" + (i + 1) % 300);
+                }
+                assertTrue(cache.scheduledEntryCount() <= 100, "В корзинах больше maximumSize на шаге " + i);
+            }
+            assertEquals(cache.size(), cache.scheduledEntryCount());
+        }
+
+        @Test
+        @DisplayName("LEAST_RECENTLY_USED вытесняет запись с самым давним обращением")
+        void put_lruPolicy_shouldEvictLeastRecentlyUsed() {
+            // Выборка больше размера кеша - выбор жертвы точный
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL)
+                    .maximumSize(10).evictionSampleSize(32).build();
+            for (int i = 0; i < 10; i++) {
+                cache.put("key" + i, i);
+            }
+            sleep(5);
+            for (int i = 1; i < 10; i++) {
+                cache.get("key" + i);
+            }
+            cache.put("new", "value");
+            assertFalse(cache.get("key0").isPresent(), "key0 не читали дольше всех");
+            for (int i = 1; i < 10; i++) {
+                assertTrue(cache.get("key" + i).isPresent());
+            }
+            assertEquals(1, cache.evictionCount());
+        }
+
+        @Test
+        @DisplayName("SOONEST_EXPIRING вытесняет запись, которая истечет раньше остальных")
+        void put_ttlPolicy_shouldEvictSoonestExpiring() {
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL)
+                    .maximumSize(3).evictionSampleSize(32)
+                    .evictionPolicy(SimpleInMemoryCache.EvictionPolicy.SOONEST_EXPIRING).build();
+            cache.put("long", 1, LONG_TTL * 4);
+            cache.put("short", 2, LONG_TTL);
+            cache.put("medium", 3, LONG_TTL * 2);
+            cache.put("new", 4, LONG_TTL * 3);
+            assertFalse(cache.get("short").isPresent());
+            assertTrue(cache.get("long").isPresent());
+            assertTrue(cache.get("medium").isPresent());
+            assertTrue(cache.get("new").isPresent());
+        }
+
+        @Test
+        @DisplayName("Истекшие записи удаляются первыми и не считаются вытеснениями")
+        void put_expiredEntryInSample_shouldBeRemovedFirst() {
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL)
+                    .maximumSize(3).evictionSampleSize(32).build();
+            cache.put("a", 1);
+            cache.put("expiring", 2, SHORT_TTL);
+            cache.put("b", 3);
+            sleep(SHORT_TTL + 20);
+            cache.put("c", 4);
+            assertEquals(3, cache.size());
+            assertTrue(cache.get("a").isPresent());
+            assertTrue(cache.get("b").isPresent());
+            assertTrue(cache.get("c").isPresent());
+            assertEquals(0, cache.evictionCount());
+        }
+
+        @Test
+        @DisplayName("Без maximumSize кеш не ограничен")
+        void put_unbounded_shouldNotEvict() {
+            cache = new SimpleInMemoryCache<>(LONG_TTL);
+            for (int i = 0; i < 1000; i++) {
+                cache.put("key" + i, i);
+            }
+            assertEquals(1000, cache.size());
+            assertEquals(0, cache.evictionCount());
+        }
+
+        @Test
+        @DisplayName("Некорректные параметры вытеснения отклоняются")
+        void builder_invalidEvictionSettings_shouldThrow() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).maximumSize(0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).evictionSampleSize(0));
+            assertThrows(NullPointerException.class,
+                    () -> SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).evictionPolicy(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Статистика (recordStats / snapshot)")
+    class Statistics {
+
+        @BeforeEach
+        void setUp() {
+            cache = SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).recordStats().build();
+        }
+
+        @Test
+        @DisplayName("Попадания и промахи подсчитываются, hitRate вычисляется")
+        void get_shouldCountHitsAndMisses() {
+            cache.put("a", 1);
+            cache.get("a");
+            cache.get("a");
+            cache.get("missing");
+            SimpleInMemoryCache.CacheStats stats = cache.snapshot();
+            assertEquals(2, stats.hitCount());
+            assertEquals(1, stats.missCount());
+            assertEquals(3, stats.requestCount());
+            assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Истечения учитываются при ленивом удалении и при очистке")
+        void expiration_shouldBeCounted() {
+            cache.put("lazy", 1, SHORT_TTL);
+            cache.put("swept", 2, SHORT_TTL);
+            sleep(SHORT_TTL + 40);
+            assertFalse(cache.get("lazy").isPresent());
+            cache.removeExpiredEntries();
+            SimpleInMemoryCache.CacheStats stats = cache.snapshot();
+            assertEquals(2, stats.expirationCount());
+            assertEquals(1, stats.missCount());
+        }
+
+        @Test
+        @DisplayName("Явные удаления считаются только для существующих ключей")
+        void remove_shouldCountExistingKeysOnly() {
+            cache.put("a", 1);
+            cache.remove("a");
+            cache.remove("a");
+            assertEquals(1, cache.snapshot().removalCount());
+        }
+
+        @Test
+        @DisplayName("Загрузки: успех, ошибка и null учитываются вместе со временем загрузки")
+        void loads_shouldBeCountedWithLatency() {
+            cache.get("ok", key -> {
+                sleep(5);
+                return "value";
+            });
+            assertThrows(IllegalStateException.class, () -> cache.get("fail", key -> {
+                throw new IllegalStateException("boom");
+            }));
+            cache.get("null", key -> null);
+            cache.get("ok", key -> "other"); // Попадание - загрузки нет
+
+            SimpleInMemoryCache.CacheStats stats = cache.snapshot();
+            assertEquals(1, stats.loadSuccessCount());
+            assertEquals(2, stats.loadFailureCount());
+            assertEquals(3, stats.loadCount());
+            assertEquals(1, stats.hitCount());
+            assertEquals(3, stats.missCount());
+            assertTrue(stats.totalLoadTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+            assertEquals(3, Arrays.stream(stats.loadLatencyHistogram()).sum());
+            assertTrue(stats.loadLatencyPercentileNanos(100) >= TimeUnit.MILLISECONDS.toNanos(5),
+                    "Максимальная загрузка длилась не меньше 5 мс");
+        }
+
+        @Test
+        @DisplayName("Асинхронные загрузки учитываются по завершении")
+        void getAsync_shouldRecordLoadOnCompletion() {
+            CompletableFuture<Object> backend = new CompletableFuture<>();
+            CompletableFuture<Object> result = cache.getAsync("k", key -> backend);
+            assertEquals(0, cache.snapshot().loadCount());
+            backend.complete("v");
+            assertEquals("v", result.join());
+            assertEquals(1, cache.snapshot().loadSuccessCount());
+        }
+
+        @Test
+        @DisplayName("Вытеснения попадают в снимок")
+        void snapshot_shouldIncludeEvictions() {
+            cache = SimpleInMemoryCache.<String, Object>builder(LONG_TTL).maximumSize(2).recordStats().build();
+            cache.put("a", 1);
+            cache.put("b", 2);
+            cache.put("c", 3);
+            assertEquals(1, cache.snapshot().evictionCount());
+        }
+
+        @Test
+        @DisplayName("Без recordStats счетчики остаются нулевыми")
+        void snapshot_statsDisabled_shouldBeEmpty() {
+            cache = new SimpleInMemoryCache<>(DEFAULT_TTL);
+            cache.put("a", 1);
+            cache.get("a");
+            cache.get("missing");
+            SimpleInMemoryCache.CacheStats stats = cache.snapshot();
+            assertEquals(0, stats.requestCount());
+            assertEquals(1.0, stats.hitRate());
+            assertEquals(0, stats.loadLatencyPercentileNanos(99));
+        }
+
+        @Test
+        @DisplayName("Перцентиль вне диапазона (0, 100] отклоняется")
+        void loadLatencyPercentile_invalid_shouldThrow() {
+            SimpleInMemoryCache.CacheStats stats = cache.snapshot();
+            assertThrows(IllegalArgumentException.class, () -> stats.loadLatencyPercentileNanos(0));
+            assertThrows(IllegalArgumentException.class, () -> stats.loadLatencyPercentileNanos(101));
+        }
+    }
+
+    @Nested
+    @DisplayName("Снимок и теплый старт (snapshotTo / loadFrom)")
+    class SnapshotPersistence {
+
+        private final SimpleInMemoryCache.Serializer<String> utf8 = SimpleInMemoryCache.Serializer.utf8();
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("Снимок восстанавливается в новом кеше")
+        void snapshot_roundTrip_shouldRestoreEntries() throws IOException {
+            SimpleInMemoryCache<String, String> source = new SimpleInMemoryCache<>(LONG_TTL);
+            source.put("user:1", "Алиса");
+            source.put("user:2", "Bob");
+            Path file = tempDir.resolve("cache.snapshot");
+
+            assertEquals(2, source.snapshotTo(file, utf8, utf8));
+            assertFalse(Files.exists(tempDir.resolve("cache.snapshot.tmp")), "Временный файл должен быть переименован");
+
+            SimpleInMemoryCache<String, String> restored = new SimpleInMemoryCache<>(LONG_TTL);
+            assertEquals(2, restored.loadFrom(file, utf8, utf8));
+            assertEquals("Алиса", restored.get("user:1").orElse(null));
+            assertEquals("Bob", restored.get("user:2").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Сохраняется оставшийся TTL, устаревшие записи не попадают в снимок")
+        void snapshot_shouldKeepRemainingTtl() throws IOException {
+            SimpleInMemoryCache<String, String> source = new SimpleInMemoryCache<>(LONG_TTL);
+            source.put("short", "s", SHORT_TTL * 2);
+            source.put("long", "l", LONG_TTL * 4);
+            source.put("expired", "e", SHORT_TTL);
+            sleep(SHORT_TTL + 20);
+            Path file = tempDir.resolve("ttl.snapshot");
+            assertEquals(2, source.snapshotTo(file, utf8, utf8));
+
+            SimpleInMemoryCache<String, String> restored = new SimpleInMemoryCache<>(LONG_TTL);
+            assertEquals(2, restored.loadFrom(file, utf8, utf8));
+            assertTrue(restored.get("short").isPresent());
+            sleep(SHORT_TTL + 20); // Оставалось ~30 мс - теперь истекло
+            assertFalse(restored.get("short").isPresent(), "TTL не должен начинаться заново после загрузки");
+            assertTrue(restored.get("long").isPresent());
+        }
+
+        @Test
+        @DisplayName("Загрузка не перезаписывает записи, уже присутствующие в кеше")
+        void loadFrom_shouldNotOverwriteExistingEntries() throws IOException {
+            SimpleInMemoryCache<String, String> source = new SimpleInMemoryCache<>(LONG_TTL);
+            source.put("k", "from-snapshot");
+            source.put("other", "o");
+            Path file = tempDir.resolve("existing.snapshot");
+            source.snapshotTo(file, utf8, utf8);
+
+            SimpleInMemoryCache<String, String> target = new SimpleInMemoryCache<>(LONG_TTL);
+            target.put("k", "fresh");
+            assertEquals(1, target.loadFrom(file, utf8, utf8));
+            assertEquals("fresh", target.get("k").orElse(null));
+            assertEquals("o", target.get("other").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Снимок из нескольких блоков и запись больше блока загружаются полностью")
+        void snapshot_manyBlocks_shouldRestoreAllEntries() throws IOException {
+            SimpleInMemoryCache<String, String> source = new SimpleInMemoryCache<>(LONG_TTL * 10);
+            String payload = "x".repeat(100);
+            for (int i = 0; i < 30_000; i++) { // ~3.5 МБ - несколько блоков по 1 МБ
+                source.put("key" + i, payload + i);
+            }
+            String huge = "y".repeat(3 << 20);
+            source.put("huge", huge);
+            Path file = tempDir.resolve("big.snapshot");
+            assertEquals(30_001, source.snapshotTo(file, utf8, utf8));
+
+            SimpleInMemoryCache<String, String> restored = new SimpleInMemoryCache<>(LONG_TTL * 10);
+            assertEquals(30_001, restored.loadFrom(file, utf8, utf8));
+            assertEquals(30_001, restored.size());
+            assertEquals(payload + 12_345, restored.get("key12345").orElse(null));
+            assertEquals(huge, restored.get("huge").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Файл, не являющийся снимком, отклоняется")
+        void loadFrom_notASnapshot_shouldThrow() throws IOException {
+            Path file = tempDir.resolve("garbage.bin");
+            Files.write(file, "definitely not a snapshot".getBytes(StandardCharsets.UTF_8));
+            SimpleInMemoryCache<String, String> target = new SimpleInMemoryCache<>(LONG_TTL);
+            assertThrows(IOException.class, () -> target.loadFrom(file, utf8, utf8));
+        }
+
+        @Test
+        @DisplayName("Обрезанный снимок отклоняется")
+        void loadFrom_truncatedSnapshot_shouldThrow() throws IOException {
+            SimpleInMemoryCache<String, String> source = new SimpleInMemoryCache<>(LONG_TTL);
+            source.put("k", "v");
+            Path file = tempDir.resolve("truncated.snapshot");
+            source.snapshotTo(file, utf8, utf8);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+            SimpleInMemoryCache<String, String> target = new SimpleInMemoryCache<>(LONG_TTL);
+            assertThrows(IOException.class, () -> target.loadFrom(file, utf8, utf8));
+        }
+    }
+
+    @Nested
+    @DisplayName("Пакетные операции (getAll / putAll / invalidateAll)")
+    class BulkOperations {
+
+        @BeforeEach
+        void setUp() {
+            cache = SimpleInMemoryCache.<String, Object>builder(DEFAULT_TTL).recordStats().build();
+        }
+
+        @Test
+        @DisplayName("putAll добавляет все записи, getAll возвращает только актуальные")
+        void putAllAndGetAll_shouldReturnPresentEntries() {
+            cache.putAll(Map.of("a", 1, "b", 2, "c", 3));
+            cache.put("short", 4, SHORT_TTL);
+            sleep(SHORT_TTL + 20);
+
+            Map<String, Object> result = cache.getAll(List.of("a", "c", "short", "missing"));
+            assertEquals(Map.of("a", 1, "c", 3), result);
+            assertEquals(2, cache.snapshot().hitCount());
+            assertEquals(2, cache.snapshot().missCount());
+        }
+
+        @Test
+        @DisplayName("putAll отклоняет null-ключи и null-значения")
+        void putAll_nullValue_shouldThrow() {
+            Map<String, Object> entries = new HashMap<>();
+            entries.put("k", null);
+            assertThrows(NullPointerException.class, () -> cache.putAll(entries));
+            assertThrows(NullPointerException.class, () -> cache.putAll(null));
+        }
+
+        @Test
+        @DisplayName("getAll с загрузчиком загружает все промахи одним вызовом")
+        void getAllWithLoader_shouldLoadMissesInOneCall() {
+            cache.put("a", "cached");
+            List<Set<String>> calls = new ArrayList<>();
+            Map<String, Object> result = cache.getAll(List.of("a", "b", "c", "b"), missing -> {
+                calls.add(new HashSet<>(missing));
+                Map<String, Object> loaded = new HashMap<>();
+                for (String key : missing) {
+                    loaded.put(key, "loaded:" + key);
+                }
+                return loaded;
+            });
+
+            assertEquals(List.of(Set.of("b", "c")), calls, "Промахи загружаются одной пачкой");
+            assertEquals(Map.of("a", "cached", "b", "loaded:b", "c", "loaded:c"), result);
+            assertEquals("loaded:b", cache.get("b").orElse(null), "Загруженные значения кешируются");
+            assertEquals(1, cache.snapshot().loadSuccessCount());
+        }
+
+        @Test
+        @DisplayName("Ключи, не возвращенные загрузчиком, отсутствуют в результате; лишние кешируются")
+        void getAllWithLoader_partialResult_shouldSkipMissingKeys() {
+            Map<String, Object> result = cache.getAll(List.of("x", "y"), missing -> Map.of("x", 1, "extra", 2));
+            assertEquals(Map.of("x", 1), result);
+            assertFalse(cache.get("y").isPresent());
+            assertEquals(2, cache.get("extra").orElse(null));
+        }
+
+        @Test
+        @DisplayName("Без промахов загрузчик не вызывается")
+        void getAllWithLoader_allHits_shouldNotCallLoader() {
+            cache.putAll(Map.of("a", 1, "b", 2));
+            Map<String, Object> result = cache.getAll(List.of("a", "b"), missing -> {
+                throw new AssertionError("Загрузчик не должен вызываться");
+            });
+            assertEquals(Map.of("a", 1, "b", 2), result);
+        }
+
+        @Test
+        @DisplayName("Ошибка пакетного загрузчика пробрасывается и не кешируется")
+        void getAllWithLoader_failure_shouldPropagate() {
+            assertThrows(IllegalStateException.class, () -> cache.getAll(List.of("a", "b"), missing -> {
+                throw new IllegalStateException("backend down");
+            }));
+            assertEquals(Map.of("a", "ok"), cache.getAll(List.of("a"), missing -> Map.of("a", "ok")));
+            assertEquals(1, cache.snapshot().loadFailureCount());
+        }
+
+        @Test
+        @DisplayName("Ключ, который уже загружается другим потоком, не передается в пакетный загрузчик")
+        void getAllWithLoader_keyInFlight_shouldAwaitExistingLoad() throws Exception {
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<Object> single = executor.submit(() -> cache.get("a", key -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "single";
+                }));
+                assertTrue(loading.await(1, TimeUnit.SECONDS));
+                List<Set<String>> calls = new ArrayList<>();
+                CompletableFuture<Map<String, Object>> batch = CompletableFuture.supplyAsync(() ->
+                        cache.getAll(List.of("a", "b"), missing -> {
+                            calls.add(new HashSet<>(missing));
+                            return Map.of("b", "batch");
+                        }));
+                sleep(50);
+                release.countDown();
+                assertEquals(Map.of("a", "single", "b", "batch"), batch.get(1, TimeUnit.SECONDS));
+                assertEquals("single", single.get(1, TimeUnit.SECONDS));
+                assertEquals(List.of(Set.of("b")), calls);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("invalidateAll удаляет перечисленные ключи")
+        void invalidateAll_shouldRemoveKeys() {
+            cache.putAll(Map.of("a", 1, "b", 2, "c", 3));
+            cache.invalidateAll(List.of("a", "c", "missing"));
+            assertEquals(Map.of("b", 2), cache.getAll(List.of("a", "b", "c")));
+            assertEquals(2, cache.snapshot().removalCount());
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для SlidingWindowMedian (медиана скользящего окна)")
+class SlidingWindowMedianTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Эталон: сортировка каждого окна.
+     */
+    private static double[] bruteForceMedians(int[] data, int window) {
+        double[] result = new double[Math.max(0, data.length - window + 1)];
+        for (int start = 0; start < result.length; start++) {
+            int[] sorted = Arrays.copyOfRange(data, start, start + window);
+            Arrays.sort(sorted);
+            int mid = window / 2;
+            result[start] = window % 2 == 1 ? sorted[mid] : ((long) sorted[mid - 1] + sorted[mid]) / 2.0;
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Классический пример: [1,3,-1,-3,5,3,6,7], окно 3")
+    void medians_classicExample() {
+        assertArrayEquals(new double[]{1, -1, -1, 3, 5, 6},
+                SlidingWindowMedian.medians(new int[]{1, 3, -1, -3, 5, 3, 6, 7}, 3), DELTA);
+    }
+
+    @Test
+    @DisplayName("Четное окно: медиана - среднее двух центральных")
+    void medians_evenWindow() {
+        assertArrayEquals(new double[]{2.5, 3.5},
+                SlidingWindowMedian.medians(new int[]{1, 2, 3, 4, 5}, 4), DELTA);
+        assertArrayEquals(new double[]{1.5, 2.5, 3.5, 4.5},
+                SlidingWindowMedian.medians(new int[]{1, 2, 3, 4, 5}, 2), DELTA);
+    }
+
+    @Test
+    @DisplayName("Окно 1 возвращает сами значения")
+    void medians_windowOfOne() {
+        assertArrayEquals(new double[]{5, -2, 7}, SlidingWindowMedian.medians(new int[]{5, -2, 7}, 1), DELTA);
+    }
+
+    @Test
+    @DisplayName("Данных меньше окна - пустой результат")
+    void medians_dataShorterThanWindow() {
+        assertEquals(0, SlidingWindowMedian.medians(new int[]{1, 2}, 3).length);
+    }
+
+    @Test
+    @DisplayName("Среднее крайних значений int не переполняется")
+    void medians_extremeValues_noOverflow() {
+        assertArrayEquals(new double[]{Integer.MAX_VALUE - 0.5, -1.0},
+                SlidingWindowMedian.medians(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE}, 2),
+                DELTA);
+    }
+
+    @ParameterizedTest(name = "window = {0}")
+    @ValueSource(ints = {1, 2, 3, 4, 7, 16, 101})
+    @DisplayName("Совпадает с сортировкой каждого окна на случайных данных с повторами")
+    void medians_randomData_matchesBruteForce(int window) {
+        Random random = new Random(window);
+        int[] data = new int[1_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextInt(50) - 25;
+        }
+        assertArrayEquals(bruteForceMedians(data, window), SlidingWindowMedian.medians(data, window), DELTA);
+    }
+
+    @Test
+    @DisplayName("Потоковый режим: до заполнения окна медиана считается по имеющимся значениям")
+    void add_partialWindow() {
+        SlidingWindowMedian median = new SlidingWindowMedian(4);
+        assertEquals(0.0, median.median(), DELTA);
+        median.add(10);
+        assertEquals(10.0, median.median(), DELTA);
+        median.add(20);
+        assertEquals(15.0, median.median(), DELTA);
+        median.add(30);
+        median.add(40);
+        assertEquals(25.0, median.median(), DELTA);
+        assertEquals(4, median.size());
+        median.add(50); // Вытесняет 10
+        assertEquals(35.0, median.median(), DELTA);
+        assertEquals(4, median.size());
+        assertEquals(4, median.window());
+    }
+
+    @Test
+    @DisplayName("Некорректный размер окна и null-данные отклоняются")
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowMedian(0));
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowMedian.medians(new int[]{1}, -1));
+        assertThrows(NullPointerException.class, () -> SlidingWindowMedian.medians(null, 1));
+    }
+}
@@ -0,0 +1,220 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для TreiberStack")
+class TreiberStackTest {
+
+    @Nested
+    @DisplayName("Однопоточное поведение")
+    class SingleThreaded {
+
+        @ParameterizedTest(name = "eliminationSlots = {0}")
+        @ValueSource(ints = {0, 4})
+        @DisplayName("push/pop/peek в порядке LIFO, pop пустого стека возвращает null")
+        void pushPop_lifo(int eliminationSlots) {
+            TreiberStack<Integer> stack = new TreiberStack<>(eliminationSlots);
+            assertNull(stack.pop());
+            assertTrue(stack.isEmpty());
+            stack.push(1);
+            stack.push(2);
+            stack.push(3);
+            assertEquals(3, stack.size());
+            assertEquals(3, stack.peek());
+            assertEquals(3, stack.pop());
+            assertEquals(2, stack.pop());
+            assertEquals(1, stack.pop());
+            assertNull(stack.pop());
+            assertNull(stack.peek());
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            assertThrows(NullPointerException.class, () -> new TreiberStack<Integer>().push(null));
+            assertThrows(IllegalArgumentException.class, () -> new TreiberStack<Integer>(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Многопоточное поведение")
+    class MultiThreaded {
+
+        @ParameterizedTest(name = "eliminationSlots = {0}")
+        @ValueSource(ints = {0, 1, 4})
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("Каждый элемент извлекается ровно один раз")
+        void concurrentPushPop_noLostOrDuplicated(int eliminationSlots) throws Exception {
+            TreiberStack<Integer> stack = new TreiberStack<>(eliminationSlots);
+            int threads = 8;
+            int perThread = 50_000;
+            AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                workers.add(new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        stack.push(base + i);
+                        Integer popped = stack.pop(); // Как в пуле: взяли и вернули
+                        if (popped != null) {
+                            seen.incrementAndGet(popped);
+                        }
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            Integer rest;
+            while ((rest = stack.pop()) != null) {
+                seen.incrementAndGet(rest);
+            }
+            for (int i = 0; i < seen.length(); i++) {
+                assertEquals(1, seen.get(i), "Элемент " + i);
+            }
+        }
+
+        @ParameterizedTest(name = "eliminationSlots = {0}")
+        @ValueSource(ints = {0, 1})
+        @Timeout(value = 120, unit = TimeUnit.SECONDS)
+        @DisplayName("Истории параллельных операций линеаризуемы")
+        void concurrentHistories_areLinearizable(int eliminationSlots) throws Exception {
+            Random random = new Random(eliminationSlots);
+            for (int round = 0; round < 500; round++) {
+                TreiberStack<Integer> stack = new TreiberStack<>(eliminationSlots);
+                stack.push(-1); // Непустой стек в начале - больше разных сценариев
+                List<Operation> history = runRound(stack, random);
+                assertTrue(isLinearizable(history, new ArrayDeque<>(List.of(-1)), new boolean[history.size()]),
+                        "Нелинеаризуемая история: " + history);
+            }
+        }
+    }
+
+    // --- Проверка линеаризуемости: перебор порядков, согласованных с реальным временем ---
+
+    private static final int THREADS = 3;
+    private static final int OPS_PER_THREAD = 3;
+
+    /**
+     * Операция истории: {@code push(value)} или {@code pop() -> result}, с моментами вызова и возврата.
+     */
+    private static final class Operation {
+        final boolean push;
+        final int value;
+        Integer result;
+        long start;
+        long end;
+
+        Operation(boolean push, int value) {
+            this.push = push;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return (push ? "push(" + value + ")" : "pop()=" + result) + "[" + start + ".." + end + "]";
+        }
+    }
+
+    private static List<Operation> runRound(TreiberStack<Integer> stack, Random random) throws Exception {
+        List<List<Operation>> perThread = new ArrayList<>();
+        int nextValue = 0;
+        for (int t = 0; t < THREADS; t++) {
+            List<Operation> ops = new ArrayList<>();
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                ops.add(random.nextBoolean() ? new Operation(true, nextValue++) : new Operation(false, 0));
+            }
+            perThread.add(ops);
+        }
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        for (List<Operation> ops : perThread) {
+            threads.add(new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (Operation op : ops) {
+                    op.start = System.nanoTime();
+                    if (op.push) {
+                        stack.push(op.value);
+                    } else {
+                        op.result = stack.pop();
+                    }
+                    op.end = System.nanoTime();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        List<Operation> history = new ArrayList<>();
+        perThread.forEach(history::addAll);
+        return history;
+    }
+
+    /**
+     * Ищет последовательный порядок операций, который не противоречит реальному времени
+     * (операция, завершившаяся до начала другой, идет раньше) и дает те же результаты на обычном стеке.
+     */
+    private static boolean isLinearizable(List<Operation> history, Deque<Integer> model, boolean[] done) {
+        boolean allDone = true;
+        for (int i = 0; i < history.size(); i++) {
+            if (done[i]) {
+                continue;
+            }
+            allDone = false;
+            Operation candidate = history.get(i);
+            if (!isMinimal(history, done, candidate)) {
+                continue;
+            }
+            done[i] = true;
+            if (candidate.push) {
+                model.push(candidate.value);
+                if (isLinearizable(history, model, done)) {
+                    return true;
+                }
+                model.pop();
+            } else if (Objects.equals(model.peek(), candidate.result)) {
+                Integer removed = model.poll();
+                if (isLinearizable(history, model, done)) {
+                    return true;
+                }
+                if (removed != null) {
+                    model.push(removed);
+                }
+            }
+            done[i] = false;
+        }
+        return allDone;
+    }
+
+    private static boolean isMinimal(List<Operation> history, boolean[] done, Operation candidate) {
+        for (int j = 0; j < history.size(); j++) {
+            if (!done[j] && history.get(j).end < candidate.start) {
+                return false; // Другая незавершенная в порядке операция закончилась раньше начала кандидата
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.svedentsov.aqa.tasks.data_structures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для WTinyLfuCache")
+class WTinyLfuCacheTest {
+
+    @Nested
+    @DisplayName("Тесты конструктора")
+    class ConstructorTests {
+        @ParameterizedTest(name = "Емкость {0} -> IllegalArgumentException")
+        @ValueSource(ints = {0, -1, -100})
+        @DisplayName("Должен выбрасывать IllegalArgumentException для не положительной емкости")
+        void constructor_shouldThrowIllegalArgumentException_forNonPositiveCapacity(int invalidCapacity) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> new WTinyLfuCache<>(invalidCapacity));
+            assertTrue(ex.getMessage().contains("Capacity must be positive"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Базовые операции")
+    class BasicOperations {
+        @Test
+        @DisplayName("put и get в пределах емкости")
+        void putAndGet_withinCapacity() {
+            WTinyLfuCache<Integer, String> cache = new WTinyLfuCache<>(10);
+            assertNull(cache.put(1, "one"));
+            assertEquals("one", cache.put(1, "one_updated"));
+            cache.put(2, "two");
+
+            assertEquals("one_updated", cache.get(1));
+            assertEquals("two", cache.get(2));
+            assertNull(cache.get(3));
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("Размер никогда не превышает емкость")
+        void size_shouldNeverExceedCapacity() {
+            WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(50);
+            for (int i = 0; i < 1_000; i++) {
+                cache.put(i % 137, i);
+                cache.get(i % 13);
+                assertTrue(cache.size() <= 50);
+            }
+        }
+
+        @Test
+        @DisplayName("Кеш емкостью 1 хранит ровно один элемент")
+        void capacityOne_shouldKeepSingleEntry() {
+            WTinyLfuCache<String, Integer> cache = new WTinyLfuCache<>(1);
+            cache.put("A", 1);
+            cache.put("B", 2);
+            assertEquals(1, cache.size());
+            cache.put("C", 3);
+            assertEquals(1, cache.size());
+        }
+
+        @Test
+        @DisplayName("remove удаляет запись из любого сегмента")
+        void remove_shouldDeleteEntry() {
+            WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(100);
+            for (int i = 0; i < 100; i++) {
+                cache.put(i, i);
+            }
+            cache.get(50); // Переводит 50 в защищенную область
+            assertEquals(50, cache.remove(50));
+            assertEquals(0, cache.remove(0));
+            assertNull(cache.remove(0));
+            assertFalse(cache.containsKey(50));
+            assertEquals(98, cache.size());
+        }
+
+        @Test
+        @DisplayName("null ключ или значение должны приводить к NullPointerException")
+        void nullArguments_shouldThrowNullPointerException() {
+            WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(2);
+            assertThrows(NullPointerException.class, () -> cache.put(null, "v"));
+            assertThrows(NullPointerException.class, () -> cache.put("k", null));
+            assertThrows(NullPointerException.class, () -> cache.get(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Политика допуска по частоте")
+    class AdmissionPolicy {
+        @Test
+        @DisplayName("Однократный проход по новым ключам не вымывает горячее множество")
+        void scan_shouldNotFlushHotEntries() {
+            int capacity = 100;
+            WTinyLfuCache<Integer, Integer> cache = new WTinyLfuCache<>(capacity);
+            LRUCache<Integer, Integer> lru = new LRUCache<>(capacity);
+            for (int round = 0; round < 5; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                    if (lru.get(key) == null) {
+                        lru.put(key, key);
+                    }
+                }
+            }
+            for (int key = 1_000; key < 1_500; key++) { // Массовый проход
+                cache.put(key, key);
+                lru.put(key, key);
+            }
+
+            int tinyLfuHits = 0;
+            int lruHits = 0;
+            for (int key = 0; key < 50; key++) {
+                tinyLfuHits += cache.containsKey(key) ? 1 : 0;
+                lruHits += lru.containsKey(key) ? 1 : 0;
+            }
+            assertEquals(0, lruHits, "Чистый LRU теряет все горячие ключи после прохода");
+            assertTrue(tinyLfuHits >= 45, "W-TinyLFU должен сохранить горячие ключи, сохранено: " + tinyLfuHits);
+        }
+    }
+}
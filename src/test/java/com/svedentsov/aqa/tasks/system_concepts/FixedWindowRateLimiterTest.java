@@ -0,0 +1,83 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для FixedWindowRateLimiter")
+class FixedWindowRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLI);
+
+    @Test
+    @DisplayName("Не более limit разрешений в окне, в новом окне счетчик с нуля")
+    void limitPerWindow_resetsInNextWindow() {
+        RateLimiter limiter = new FixedWindowRateLimiter(3, 1000 * MILLI, clock::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire(2));
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(999 * MILLI);
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(MILLI);
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("На стыке окон проходит до 2 * limit запросов - известный недостаток алгоритма")
+    void windowBoundary_allowsDoubleBurst() {
+        RateLimiter limiter = new FixedWindowRateLimiter(5, 1000 * MILLI, clock::get);
+        clock.addAndGet(999 * MILLI);
+        assertTrue(limiter.tryAcquire(5));
+        clock.addAndGet(MILLI);
+        assertTrue(limiter.tryAcquire(5));
+    }
+
+    @Test
+    @DisplayName("tryAcquire(n) выдает все разрешения или ни одного")
+    void tryAcquireMany_allOrNothing() {
+        RateLimiter limiter = new FixedWindowRateLimiter(5, 1000 * MILLI, clock::get);
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(2));
+    }
+
+    @Test
+    @DisplayName("Параллельные потоки получают ровно limit разрешений в окне")
+    void concurrentTryAcquire_grantsExactlyLimit() throws InterruptedException {
+        RateLimiter limiter = new FixedWindowRateLimiter(100_000, 1000 * MILLI, clock::get);
+        LongAdder granted = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                while (limiter.tryAcquire()) {
+                    granted.increment();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100_000, granted.sum());
+    }
+
+    @Test
+    @DisplayName("Некорректные аргументы отклоняются")
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedWindowRateLimiter(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new FixedWindowRateLimiter(1, 0, TimeUnit.SECONDS));
+        RateLimiter limiter = new FixedWindowRateLimiter(5, 1, TimeUnit.SECONDS);
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+    }
+}
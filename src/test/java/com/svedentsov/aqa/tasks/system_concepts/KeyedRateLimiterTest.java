@@ -0,0 +1,168 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для KeyedRateLimiter")
+class KeyedRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLI);
+
+    private KeyedRateLimiter<String> limiter(double permitsPerSecond, long burst, long idleMillis) {
+        return new KeyedRateLimiter<>(permitsPerSecond, burst, idleMillis * MILLI, clock::get);
+    }
+
+    @Nested
+    @DisplayName("Лимиты по ключам")
+    class PerKeyLimits {
+
+        @Test
+        @DisplayName("У каждого ключа свое ведро")
+        void keys_areIndependent() {
+            KeyedRateLimiter<String> limiter = limiter(10, 2, 0);
+            assertTrue(limiter.tryAcquire("alice"));
+            assertTrue(limiter.tryAcquire("alice"));
+            assertFalse(limiter.tryAcquire("alice"));
+            assertTrue(limiter.tryAcquire("bob"));
+            assertEquals(1, limiter.availablePermits("bob"));
+            assertEquals(2, limiter.availablePermits("carol"), "Неизвестный ключ - полное ведро");
+        }
+
+        @Test
+        @DisplayName("Токены ключа пополняются со скоростью rate")
+        void key_refillsAtRate() {
+            KeyedRateLimiter<String> limiter = limiter(10, 1, 0);
+            assertTrue(limiter.tryAcquire("k"));
+            clock.addAndGet(99 * MILLI);
+            assertFalse(limiter.tryAcquire("k"));
+            clock.addAndGet(MILLI);
+            assertTrue(limiter.tryAcquire("k"));
+        }
+
+        @Test
+        @DisplayName("tryAcquire(key, n) берет все токены или ни одного")
+        void tryAcquireMany_allOrNothing() {
+            KeyedRateLimiter<String> limiter = limiter(1, 5, 0);
+            assertTrue(limiter.tryAcquire("k", 3));
+            assertFalse(limiter.tryAcquire("k", 3));
+            assertEquals(2, limiter.availablePermits("k"));
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            assertThrows(IllegalArgumentException.class, () -> limiter(0, 1, 0));
+            assertThrows(IllegalArgumentException.class, () -> limiter(10, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> limiter(10, 1, -1));
+            KeyedRateLimiter<String> limiter = limiter(10, 5, 0);
+            assertThrows(NullPointerException.class, () -> limiter.tryAcquire(null));
+            assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire("k", 6));
+        }
+    }
+
+    @Nested
+    @DisplayName("Удаление простаивающих ключей")
+    class Eviction {
+
+        @Test
+        @DisplayName("evictIdle удаляет только ведра, полные дольше idleTimeout")
+        void evictIdle_removesOnlyIdleFullBuckets() {
+            KeyedRateLimiter<String> limiter = limiter(10, 1, 1000); // Ведро наполняется за 100 мс
+            limiter.tryAcquire("old");
+            clock.addAndGet(600 * MILLI);
+            limiter.tryAcquire("recent");
+            clock.addAndGet(500 * MILLI); // "old" полон 1000 мс, "recent" - 400 мс
+            assertEquals(1, limiter.evictIdle());
+            assertEquals(1, limiter.size());
+            assertEquals(1, limiter.availablePermits("old"));
+            assertTrue(limiter.tryAcquire("old"), "Удаленный ключ начинает с полного ведра");
+        }
+
+        @Test
+        @DisplayName("Отказ не создает запись, удаление не меняет лимит ключа")
+        void eviction_isTransparent() {
+            KeyedRateLimiter<String> limiter = limiter(10, 1, 0);
+            assertTrue(limiter.tryAcquire("k"));
+            assertFalse(limiter.tryAcquire("k"));
+            assertEquals(1, limiter.size());
+            assertEquals(0, limiter.evictIdle(), "Ведро еще не полное");
+            clock.addAndGet(100 * MILLI);
+            assertEquals(1, limiter.evictIdle());
+            assertTrue(limiter.tryAcquire("k"));
+            assertFalse(limiter.tryAcquire("k"));
+        }
+
+        @Test
+        @DisplayName("Ленивая очистка при обычных вызовах со временем удаляет простаивающие ключи")
+        void lazySweep_evictsDuringTraffic() {
+            KeyedRateLimiter<String> limiter = limiter(1_000, 1, 10);
+            for (int i = 0; i < 5_000; i++) {
+                limiter.tryAcquire("key-" + i);
+            }
+            assertEquals(5_000, limiter.size());
+            clock.addAndGet(20 * MILLI);
+            for (int i = 0; i < 200_000 && limiter.size() > 1; i++) {
+                limiter.tryAcquire("hot");
+            }
+            assertEquals(1, limiter.size());
+        }
+
+        @Test
+        @Timeout(value = 60, unit = TimeUnit.SECONDS)
+        @DisplayName("Конкурентное удаление не теряет и не дублирует токены")
+        void concurrentEviction_conservesTokens() throws InterruptedException {
+            int keys = 200;
+            int burst = 50;
+            KeyedRateLimiter<String> limiter = limiter(1, burst, 0);
+            for (int k = 0; k < keys; k++) {
+                limiter.tryAcquire("key-" + k);
+            }
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(burst)); // Все ведра полные и подлежат удалению
+            LongAdder granted = new LongAdder();
+            AtomicBoolean done = new AtomicBoolean();
+            Thread evictor = new Thread(() -> {
+                while (!done.get()) {
+                    limiter.evictIdle();
+                    Thread.yield();
+                }
+            });
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                workers.add(new Thread(() -> {
+                    boolean progress = true;
+                    while (progress) {
+                        progress = false;
+                        for (int k = 0; k < keys; k++) {
+                            if (limiter.tryAcquire("key-" + (k + offset) % keys)) {
+                                granted.increment();
+                                progress = true;
+                            }
+                        }
+                    }
+                }));
+            }
+            evictor.start();
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            done.set(true);
+            evictor.join();
+            assertEquals((long) keys * burst, granted.sum());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для LeakyBucketExecutor")
+class LeakyBucketExecutorTest {
+
+    private final ExecutorService downstream = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        downstream.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("Выпуск задач")
+    class Release {
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Задачи выпускаются не чаще tasksPerSecond")
+        void tasks_arePacedInOrder() throws Exception {
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(100, 64, downstream)) { // Задача каждые 10 мс
+                List<Long> startTimes = new ArrayList<>();
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                long start = System.nanoTime();
+                for (int i = 0; i < 11; i++) {
+                    futures.add(pacer.submit(() -> {
+                        synchronized (startTimes) {
+                            startTimes.add(System.nanoTime());
+                        }
+                    }));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+                long elapsed = startTimes.get(startTimes.size() - 1) - start;
+                assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(99),
+                        "10 интервалов за " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " мс");
+            }
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Результат и исключение задачи передаются в future")
+        void futures_carryResultAndException() throws Exception {
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(1000, 8, downstream)) {
+                assertEquals(42, pacer.submit(() -> 42).get());
+                CompletableFuture<Object> failed = pacer.submit(() -> {
+                    throw new IllegalStateException("boom");
+                });
+                ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+
+        @Test
+        @Timeout(value = 30, unit = TimeUnit.SECONDS)
+        @DisplayName("Задачи от многих потоков выполняются ровно по одному разу")
+        void concurrentSubmitters_allTasksRunOnce() throws Exception {
+            AtomicInteger executed = new AtomicInteger();
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(100_000, 4096, downstream)) {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                List<Thread> submitters = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    submitters.add(new Thread(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            CompletableFuture<Void> future = pacer.submit(() -> {
+                                executed.incrementAndGet();
+                            });
+                            synchronized (futures) {
+                                futures.add(future);
+                            }
+                        }
+                    }));
+                }
+                submitters.forEach(Thread::start);
+                for (Thread submitter : submitters) {
+                    submitter.join();
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            }
+            assertEquals(2000, executed.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Сбои исполнителя")
+    class DownstreamFailures {
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Error из downstream завершает future задачи, а выпуск продолжается")
+        void downstreamError_failsTaskAndKeepsReleasing() throws Exception {
+            AtomicInteger calls = new AtomicInteger();
+            Executor flaky = task -> {
+                if (calls.getAndIncrement() == 0) {
+                    throw new AssertionError("downstream broken");
+                }
+                downstream.execute(task);
+            };
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(1000, 8, flaky)) {
+                CompletableFuture<Integer> failed = pacer.submit(() -> 1);
+                CompletableFuture<Integer> next = pacer.submit(() -> 2);
+                ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+                assertTrue(e.getCause() instanceof AssertionError);
+                assertEquals(2, next.get());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Отказы, отмена и закрытие")
+    class RejectionAndClose {
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Полная очередь отклоняет задачу")
+        void fullQueue_rejects() {
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(0.1, 4, downstream)) { // Задача раз в 10 с
+                int accepted = 0;
+                int rejected = 0;
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        pacer.submit(() -> { });
+                        accepted++;
+                    } catch (RejectedExecutionException e) {
+                        rejected++;
+                    }
+                }
+                // Первая задача может быть выпущена сразу, следующая - только через 10 с
+                assertTrue(accepted == 4 || accepted == 5, "Принято " + accepted);
+                assertEquals(10 - accepted, rejected);
+            }
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Отмененные задачи в начале полной очереди освобождают место")
+        void cancelledHead_freesCapacity() throws Exception {
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(0.1, 4, downstream)) { // Задача раз в 10 с
+                pacer.submit(() -> { }).get(); // Первая выпускается сразу, следующая - через 10 с
+                List<CompletableFuture<Void>> queued = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    queued.add(pacer.submit(() -> { }));
+                }
+                assertThrows(RejectedExecutionException.class, () -> pacer.submit(() -> { }));
+                queued.get(0).cancel(false);
+                queued.get(1).cancel(false);
+                queued.get(3).cancel(false); // За живой задачей - место не освобождается
+                pacer.submit(() -> { });
+                pacer.submit(() -> { });
+                assertThrows(RejectedExecutionException.class, () -> pacer.submit(() -> { }));
+                assertEquals(4, pacer.queuedTasks());
+            }
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("Отмененная до выпуска задача не выполняется и не занимает место в расписании")
+        void cancelledTask_isSkipped() throws Exception {
+            AtomicBoolean cancelledRan = new AtomicBoolean();
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(20, 8, downstream)) { // Задача каждые 50 мс
+                pacer.submit(() -> { }).get();
+                CompletableFuture<Void> cancelled = pacer.submit(() -> cancelledRan.set(true));
+                CompletableFuture<Integer> next = pacer.submit(() -> 7);
+                cancelled.cancel(false);
+                assertEquals(7, next.get());
+            }
+            assertFalse(cancelledRan.get());
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("close отменяет ожидающие задачи и запрещает новые")
+        void close_cancelsQueuedAndRejectsNew() {
+            LeakyBucketExecutor pacer = new LeakyBucketExecutor(0.1, 8, downstream);
+            pacer.submit(() -> { });
+            CompletableFuture<Void> queued = pacer.submit(() -> { });
+            pacer.close();
+            assertTrue(queued.isCancelled());
+            assertEquals(0, pacer.queuedTasks());
+            assertThrows(RejectedExecutionException.class, () -> pacer.submit(() -> { }));
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            assertThrows(IllegalArgumentException.class, () -> new LeakyBucketExecutor(0, 8, downstream));
+            assertThrows(IllegalArgumentException.class, () -> new LeakyBucketExecutor(10, 0, downstream));
+            assertThrows(NullPointerException.class, () -> new LeakyBucketExecutor(10, 8, null));
+            try (LeakyBucketExecutor pacer = new LeakyBucketExecutor(10, 8, downstream)) {
+                assertEquals(8, pacer.capacity());
+                assertThrows(NullPointerException.class, () -> pacer.submit((Runnable) null));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для SlidingLogRateLimiter")
+class SlidingLogRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLI);
+
+    @Test
+    @DisplayName("Разрешение возвращается ровно через window после каждой выдачи")
+    void permitsExpireIndividually() {
+        RateLimiter limiter = new SlidingLogRateLimiter(3, 1000 * MILLI, clock::get);
+        assertTrue(limiter.tryAcquire());       // t = 0
+        clock.addAndGet(400 * MILLI);
+        assertTrue(limiter.tryAcquire(2));      // t = 400
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(599 * MILLI);           // t = 999
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(MILLI);                 // t = 1000: первая выдача вышла из окна
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(400 * MILLI);           // t = 1400: вышли выдачи из t = 400
+        assertTrue(limiter.tryAcquire(2));
+    }
+
+    @Test
+    @DisplayName("На стыке фиксированных окон двойного всплеска нет")
+    void noBoundaryBurst() {
+        RateLimiter limiter = new SlidingLogRateLimiter(5, 1000 * MILLI, clock::get);
+        clock.addAndGet(999 * MILLI);
+        assertTrue(limiter.tryAcquire(5));
+        clock.addAndGet(MILLI);
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("tryAcquire(n) проверяет n-ю по старшинству метку, а не самую старую")
+    void tryAcquireMany_needsEnoughExpiredTimestamps() {
+        RateLimiter limiter = new SlidingLogRateLimiter(4, 1000 * MILLI, clock::get);
+        assertTrue(limiter.tryAcquire(2));      // t = 0
+        clock.addAndGet(500 * MILLI);
+        assertTrue(limiter.tryAcquire(2));      // t = 500
+        clock.addAndGet(500 * MILLI);           // t = 1000: вышли только две метки
+        assertFalse(limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(2));
+    }
+
+    @Test
+    @DisplayName("Параллельные потоки получают ровно limit разрешений за окно")
+    void concurrentTryAcquire_grantsExactlyLimit() throws InterruptedException {
+        RateLimiter limiter = new SlidingLogRateLimiter(50_000, 1000 * MILLI, clock::get);
+        LongAdder granted = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                while (limiter.tryAcquire()) {
+                    granted.increment();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50_000, granted.sum());
+    }
+
+    @Test
+    @DisplayName("Некорректные аргументы отклоняются")
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingLogRateLimiter(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingLogRateLimiter(1, 0, TimeUnit.SECONDS));
+        RateLimiter limiter = new SlidingLogRateLimiter(5, 1, TimeUnit.SECONDS);
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+    }
+}
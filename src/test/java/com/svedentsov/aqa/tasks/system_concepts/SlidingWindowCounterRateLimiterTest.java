@@ -0,0 +1,110 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для SlidingWindowCounterRateLimiter")
+class SlidingWindowCounterRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLI);
+
+    @Test
+    @DisplayName("Выдачи учитываются, пока их часть не выйдет из окна")
+    void permitsExpireBySubBucket() {
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(4, 1000 * MILLI, 10, clock::get); // Части по 100 мс
+        assertTrue(limiter.tryAcquire(2));      // Часть 0
+        clock.addAndGet(350 * MILLI);
+        assertTrue(limiter.tryAcquire(2));      // Часть 3
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(649 * MILLI);           // t = 999, часть 9: часть 0 еще в окне
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(MILLI);                 // Часть 10: часть 0 вышла из окна
+        assertTrue(limiter.tryAcquire(2));
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(300 * MILLI);           // Часть 13: вышла часть 3
+        assertTrue(limiter.tryAcquire(2));
+    }
+
+    @Test
+    @DisplayName("Лимит соблюдается в любом интервале длиной window * (1 - 1 / subBuckets)")
+    void boundaryBurst_isBoundedBySubBucket() {
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(10, 1000 * MILLI, 10, clock::get);
+        clock.addAndGet(999 * MILLI);
+        assertTrue(limiter.tryAcquire(10));     // Часть 9
+        clock.addAndGet(MILLI);                 // Часть 10: часть 9 все еще в окне
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(800 * MILLI);           // Часть 18: окно - части 9..18
+        assertFalse(limiter.tryAcquire());
+        clock.addAndGet(100 * MILLI);           // Часть 19: часть 9 вышла
+        assertTrue(limiter.tryAcquire(10));
+    }
+
+    @Test
+    @DisplayName("Одна часть ведет себя как фиксированное окно")
+    void singleSubBucket_isFixedWindow() {
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(5, 1000 * MILLI, 1, clock::get);
+        clock.addAndGet(999 * MILLI);
+        assertTrue(limiter.tryAcquire(5));
+        clock.addAndGet(MILLI);
+        assertTrue(limiter.tryAcquire(5));
+    }
+
+    @Test
+    @DisplayName("Отказ tryAcquire(n) откатывает добавку")
+    void rejectedRequest_isRolledBack() {
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(5, 1000 * MILLI, 10, clock::get);
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(2));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Параллельные потоки не превышают limit, остаток добирается без конкуренции")
+    void concurrentTryAcquire_neverExceedsLimit() throws InterruptedException {
+        int limit = 100_000;
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(limit, 1000 * MILLI, 10, clock::get);
+        LongAdder granted = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                while (limiter.tryAcquire()) {
+                    granted.increment();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(granted.sum() <= limit, "Выдано " + granted.sum());
+        while (limiter.tryAcquire()) { // Отказы в гонке могли остановить потоки раньше
+            granted.increment();
+        }
+        assertEquals(limit, granted.sum());
+    }
+
+    @Test
+    @DisplayName("Некорректные аргументы отклоняются")
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowCounterRateLimiter(0, 1, TimeUnit.SECONDS, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowCounterRateLimiter(1, 1, TimeUnit.SECONDS, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowCounterRateLimiter(1, 5, TimeUnit.NANOSECONDS, 10));
+        RateLimiter limiter = new SlidingWindowCounterRateLimiter(5, 1, TimeUnit.SECONDS, 10);
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+    }
+}
@@ -0,0 +1,180 @@
+package com.svedentsov.aqa.tasks.system_concepts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Тесты для TokenBucketRateLimiter")
+class TokenBucketRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLI);
+
+    private TokenBucketRateLimiter limiter(double permitsPerSecond, long burst) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst, clock::get);
+    }
+
+    @Nested
+    @DisplayName("tryAcquire с подменными часами")
+    class TryAcquire {
+
+        @Test
+        @DisplayName("Полное ведро пропускает всплеск burst, затем токены появляются со скоростью rate")
+        void burstThenRefill() {
+            TokenBucketRateLimiter limiter = limiter(10, 5); // Токен каждые 100 мс
+            for (int i = 0; i < 5; i++) {
+                assertTrue(limiter.tryAcquire(), "Запрос " + i);
+            }
+            assertFalse(limiter.tryAcquire());
+            clock.addAndGet(99 * MILLI);
+            assertFalse(limiter.tryAcquire());
+            clock.addAndGet(MILLI);
+            assertTrue(limiter.tryAcquire());
+            assertFalse(limiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Простой не накапливает токены сверх burst")
+        void idle_doesNotExceedBurst() {
+            TokenBucketRateLimiter limiter = limiter(10, 3);
+            clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+            assertEquals(3, limiter.availablePermits());
+            assertTrue(limiter.tryAcquire(3));
+            assertFalse(limiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Частично накопленный интервал не теряется между вызовами")
+        void fractionalRefill_isKept() {
+            TokenBucketRateLimiter limiter = limiter(10, 1);
+            assertTrue(limiter.tryAcquire());
+            clock.addAndGet(60 * MILLI);
+            assertFalse(limiter.tryAcquire());
+            clock.addAndGet(40 * MILLI);
+            assertTrue(limiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("tryAcquire(n) берет все токены или ни одного")
+        void tryAcquireMany_allOrNothing() {
+            TokenBucketRateLimiter limiter = limiter(1, 5);
+            assertTrue(limiter.tryAcquire(3));
+            assertFalse(limiter.tryAcquire(3));
+            assertEquals(2, limiter.availablePermits());
+            assertTrue(limiter.tryAcquire(2));
+            assertEquals(0, limiter.availablePermits());
+        }
+
+        @Test
+        @DisplayName("tryAcquire с таймаутом не резервирует, если ждать дольше таймаута")
+        void tryAcquireWithTimeout_tooLong_noReservation() throws InterruptedException {
+            TokenBucketRateLimiter limiter = limiter(10, 1);
+            assertTrue(limiter.tryAcquire(1, 0, TimeUnit.MILLISECONDS));
+            assertFalse(limiter.tryAcquire(1, 50, TimeUnit.MILLISECONDS));
+            clock.addAndGet(100 * MILLI);
+            assertEquals(1, limiter.availablePermits(), "Неудачная попытка не должна тратить токены");
+        }
+
+        @Test
+        @DisplayName("Параллельные потоки получают ровно burst токенов при остановленных часах")
+        void concurrentTryAcquire_grantsExactlyBurst() throws InterruptedException {
+            TokenBucketRateLimiter limiter = limiter(1, 100_000);
+            LongAdder granted = new LongAdder();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(new Thread(() -> {
+                    while (limiter.tryAcquire()) {
+                        granted.increment();
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(100_000, granted.sum());
+        }
+
+        @Test
+        @DisplayName("Некорректные аргументы отклоняются")
+        void invalidArguments_throw() {
+            assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+            assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(Double.NaN, 1));
+            assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(10, 0));
+            TokenBucketRateLimiter limiter = limiter(10, 5);
+            assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+            assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+        }
+
+        @Test
+        @DisplayName("Всплеск по умолчанию - секундный объем")
+        void defaultBurst_isOneSecondOfPermits() {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2.5);
+            assertEquals(3, limiter.burst());
+            assertEquals(2.5, limiter.permitsPerSecond(), 1e-9);
+        }
+    }
+
+    @Nested
+    @DisplayName("acquire с реальными часами")
+    class Acquire {
+
+        @Test
+        @Timeout(value = 5, unit = TimeUnit.SECONDS)
+        @DisplayName("acquire ждет появления токена")
+        void acquire_waitsForRefill() throws InterruptedException {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 1); // Токен каждые 50 мс
+            assertEquals(0, limiter.acquire(1));
+            long start = System.nanoTime();
+            long reportedWait = limiter.acquire(1);
+            long elapsed = System.nanoTime() - start;
+            assertTrue(reportedWait > 0);
+            assertTrue(elapsed >= reportedWait - MILLI, "Ожидание " + elapsed + " < " + reportedWait);
+        }
+
+        @Test
+        @Timeout(value = 5, unit = TimeUnit.SECONDS)
+        @DisplayName("Последовательные acquire выдерживают скорость после исчерпания всплеска")
+        void acquire_sequence_keepsRate() throws InterruptedException {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 2); // Токен каждые 10 мс
+            long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                limiter.acquire(2); // Первый - из полного ведра, остальные - по 20 мс
+            }
+            long elapsed = System.nanoTime() - start;
+            assertTrue(elapsed >= 60 * MILLI - MILLI, "Прошло " + elapsed / MILLI + " мс");
+        }
+
+        @Test
+        @Timeout(value = 5, unit = TimeUnit.SECONDS)
+        @DisplayName("Прерывание во время ожидания выбрасывает InterruptedException")
+        void acquire_interrupted_throws() throws InterruptedException {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.1, 1); // Токен каждые 10 с
+            limiter.acquire(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    limiter.acquire(1);
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            });
+            waiter.start();
+            TimeUnit.MILLISECONDS.sleep(50);
+            waiter.interrupt();
+            waiter.join();
+            assertTrue(error.get() instanceof InterruptedException, "Ошибка: " + error.get());
+        }
+    }
+}